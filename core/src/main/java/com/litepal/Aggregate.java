@@ -0,0 +1,138 @@
+package com.litepal;
+
+import com.litepal.exceptions.LitePalSupportException;
+import com.litepal.util.DBUtility;
+
+/**
+ * An aggregate function to calculate by {@link FluentQuery#aggregate(Class, Aggregate...)}. All the
+ * aggregates passed to one call are calculated in a single query, per group if the query is
+ * grouped.
+ *
+ * <pre>
+ * AggregateResult result = LitePal.where(&quot;price &gt; ?&quot;, &quot;0&quot;).groupBy(&quot;category&quot;)
+ *         .aggregate(Product.class, Aggregate.count(), Aggregate.sum(&quot;price&quot;), Aggregate.max(&quot;price&quot;));
+ * </pre>
+ * <p>
+ * The results are named after the function and column, such as count, sum_price and max_price,
+ * unless they are named by {@link #as(String)}.
+ *
+ * @author Tony Green
+ * @since 3.0
+ */
+public final class Aggregate {
+    /**
+     * The SQL function to calculate with.
+     */
+    private final String function;
+    /**
+     * The column to calculate on. Null means all rows.
+     */
+    private final String column;
+    /**
+     * The name of result.
+     */
+    private final String name;
+
+    private Aggregate(String function, String column, String name) {
+        this.function = function;
+        this.column = column;
+        this.name = name;
+    }
+
+    /**
+     * Count the rows.
+     *
+     * @return The aggregate named count.
+     */
+    public static Aggregate count() {
+        return new Aggregate("count", null, "count");
+    }
+
+    /**
+     * Count the rows which the column is not null.
+     *
+     * @param column The column to count.
+     * @return The aggregate named count_column.
+     */
+    public static Aggregate count(String column) {
+        return create("count", column);
+    }
+
+    /**
+     * Calculate the sum of values on the column.
+     *
+     * @param column The column to calculate.
+     * @return The aggregate named sum_column.
+     */
+    public static Aggregate sum(String column) {
+        return create("sum", column);
+    }
+
+    /**
+     * Calculate the minimum value on the column.
+     *
+     * @param column The column to calculate.
+     * @return The aggregate named min_column.
+     */
+    public static Aggregate min(String column) {
+        return create("min", column);
+    }
+
+    /**
+     * Calculate the maximum value on the column.
+     *
+     * @param column The column to calculate.
+     * @return The aggregate named max_column.
+     */
+    public static Aggregate max(String column) {
+        return create("max", column);
+    }
+
+    /**
+     * Calculate the average value on the column.
+     *
+     * @param column The column to calculate.
+     * @return The aggregate named avg_column.
+     */
+    public static Aggregate average(String column) {
+        return create("avg", column);
+    }
+
+    private static Aggregate create(String function, String column) {
+        if (column == null || column.trim().length() == 0) {
+            throw new LitePalSupportException(LitePalSupportException.emptyAggregateColumn(function));
+        }
+        return new Aggregate(function, column, function + "_" + column);
+    }
+
+    /**
+     * Name the result of this aggregate.
+     *
+     * @param name The name to get the result by.
+     * @return A new aggregate with the name.
+     */
+    public Aggregate as(String name) {
+        return new Aggregate(function, column, name);
+    }
+
+    /**
+     * Get the name of result.
+     *
+     * @return The name of result.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Build the SQL expression of this aggregate.
+     *
+     * @return The SQL expression.
+     */
+    String getExpression() {
+        if (column == null) {
+            return function + "(1)";
+        }
+        return function + "(" + DBUtility.convertToValidColumnName(column) + ")";
+    }
+}
@@ -2,13 +2,18 @@ package com.litepal;
 
 import android.text.TextUtils;
 
-import com.litepal.crud.LitePalSupport;
+import com.litepal.crud.AggregateResult;
+import com.litepal.crud.ModelIterator;
 import com.litepal.crud.QueryHandler;
+import com.litepal.crud.async.AsyncExecutor;
+import com.litepal.crud.async.AsyncResult;
 import com.litepal.exceptions.LitePalSupportException;
 import com.litepal.tablemanager.Connector;
-import com.litepal.util.BaseUtility;
+import com.litepal.tablemanager.DatabaseLock;
 
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.locks.Lock;
 
 /**
  * Allows developers to query tables with fluent style.
@@ -37,6 +42,22 @@ public class FluentQuery {
      * Representing the offset in SQL.
      */
     String mOffset;
+    /**
+     * Representing the page to query with keyset pagination.
+     */
+    PageToken mPageToken;
+    /**
+     * Indicates that the results should be cached or not.
+     */
+    boolean mCacheResult;
+    /**
+     * Representing the group by clause in SQL, used by aggregate only.
+     */
+    String[] mGroupBy;
+    /**
+     * Representing the having clause in SQL, used by aggregate only.
+     */
+    String[] mHaving;
 
     /**
      * Do not allow to create instance by developers.
@@ -101,6 +122,43 @@ public class FluentQuery {
         return this;
     }
 
+    /**
+     * Declaring which columns to group the rows by when calculating with
+     * {@link #aggregate(Class, Aggregate...)}.
+     *
+     * <pre>
+     * LitePal.groupBy(&quot;category&quot;).aggregate(Product.class, Aggregate.count());
+     * </pre>
+     * <p>
+     * This will count the rows of each category in Product table.
+     *
+     * @param columns The columns to group by.
+     * @return A ClusterQuery instance.
+     */
+    public FluentQuery groupBy(String... columns) {
+        mGroupBy = columns;
+        return this;
+    }
+
+    /**
+     * Declaring which groups to return when calculating with
+     * {@link #aggregate(Class, Aggregate...)}. Only works with {@link #groupBy(String...)}.
+     *
+     * <pre>
+     * LitePal.groupBy(&quot;category&quot;).having(&quot;count(1) &gt; ?&quot;, &quot;10&quot;).aggregate(Product.class, Aggregate.count());
+     * </pre>
+     * <p>
+     * This will count the rows of each category which has more than 10 rows.
+     *
+     * @param conditions A filter declaring which groups to return, formatted as an SQL
+     *                   HAVING clause. Passing null will return all groups.
+     * @return A ClusterQuery instance.
+     */
+    public FluentQuery having(String... conditions) {
+        mHaving = conditions;
+        return this;
+    }
+
     /**
      * Limits the number of rows returned by the query.
      *
@@ -137,6 +195,80 @@ public class FluentQuery {
         return this;
     }
 
+    /**
+     * Declaring to query the page pointed by the token with keyset pagination. Rather than
+     * skipping rows by {@link #offset(int)}, the rows after the last row of previous page are
+     * found by comparing the sort key, which keeps deep pages as fast as the first one.
+     *
+     * <pre>
+     * LitePal.where(&quot;age &gt; ?&quot;, &quot;14&quot;).page(token).limit(20).find(Person.class);
+     * </pre>
+     * <p>
+     * This will find 20 rows which age greater than 14 after the row recorded by token. The sort
+     * order is decided by the token, so {@link #order(String)} is ignored. Works with find,
+     * findFirst and iterate.
+     *
+     * @param token The token of the page to query.
+     * @return A ClusterQuery instance.
+     */
+    public FluentQuery page(PageToken token) {
+        mPageToken = token;
+        return this;
+    }
+
+    /**
+     * Declaring to query the rows after the passed in key in ascending order of the column and
+     * id. It's a shortcut of {@link #page(PageToken)}.
+     *
+     * <pre>
+     * LitePal.after(&quot;name&quot;, &quot;Tom&quot;, 10).limit(20).find(Person.class);
+     * </pre>
+     * <p>
+     * This will find 20 rows in Person table after the row which name is Tom and id is 10, sorted
+     * by name and id.
+     *
+     * @param column    The column to sort by.
+     * @param lastValue The column value of the last row in previous page.
+     * @param lastId    The id of the last row in previous page.
+     * @return A ClusterQuery instance.
+     */
+    public FluentQuery after(String column, Object lastValue, long lastId) {
+        mPageToken = PageToken.ascending(column).next(lastValue, lastId);
+        return this;
+    }
+
+    /**
+     * Declaring to query the rows before the passed in key in descending order of the column and
+     * id. It's a shortcut of {@link #page(PageToken)}.
+     *
+     * @param column    The column to sort by.
+     * @param lastValue The column value of the last row in previous page.
+     * @param lastId    The id of the last row in previous page.
+     * @return A ClusterQuery instance.
+     */
+    public FluentQuery before(String column, Object lastValue, long lastId) {
+        mPageToken = PageToken.descending(column).next(lastValue, lastId);
+        return this;
+    }
+
+    /**
+     * Declaring to cache the result of this query. The same query gets the cached result until
+     * the queried table is written through LitePal.
+     *
+     * <pre>
+     * LitePal.where(&quot;age &gt; ?&quot;, &quot;14&quot;).cached().count(Person.class);
+     * </pre>
+     * <p>
+     * Works with find, findFirst, findLast, count, average, max, min and sum. Eager finds are
+     * never cached, and the cached models are copied for each caller.
+     *
+     * @return A ClusterQuery instance.
+     */
+    public FluentQuery cached() {
+        mCacheResult = true;
+        return this;
+    }
+
     /**
      * Finds multiple records by the cluster parameters. You can use the below
      * way to finish a complicated query:
@@ -177,19 +309,112 @@ public class FluentQuery {
      * @return An object list with founded data from database, or an empty list.
      */
     public <T> List<T> find(Class<T> modelClass, boolean isEager) {
-        synchronized (LitePalSupport.class) {
+        Lock lock = DatabaseLock.readLock();
+        lock.lock();
+        try {
+            QueryHandler queryHandler = new QueryHandler(Connector.getDatabase(), mCacheResult);
+            return queryHandler.onFind(modelClass, mColumns, getConditions(), getOrderBy(), getLimit(), isEager);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Iterates the records by the cluster parameters without loading all of them into memory.
+     * Models are created one by one while iterating, so it's suitable for scanning a huge table.
+     *
+     * <pre>
+     * ModelIterator&lt;Person&gt; iterator = LitePal.where(&quot;age &gt; ?&quot;, &quot;14&quot;).iterate(Person.class);
+     * try {
+     *     while (iterator.hasNext()) {
+     *         Person person = iterator.next();
+     *     }
+     * } finally {
+     *     iterator.close();
+     * }
+     * </pre>
+     * <p>
+     * The associated models won't be loaded.
+     *
+     * @param modelClass Which table to query and the object type to return.
+     * @return An iterator over the found records. Close it if you don't iterate to the end.
+     */
+    public <T> ModelIterator<T> iterate(Class<T> modelClass) {
+        return iterate(modelClass, false);
+    }
+
+    /**
+     * It is mostly same as {@link FluentQuery#iterate(Class)} but a reuseInstance parameter. If
+     * set true the iterator returns the same model instance for each record, which is refilled
+     * with the data of current record. This avoids creating an object for every record.
+     *
+     * @param modelClass    Which table to query and the object type to return.
+     * @param reuseInstance True to reuse one model instance for all records, false not.
+     * @return An iterator over the found records. Close it if you don't iterate to the end.
+     */
+    public <T> ModelIterator<T> iterate(Class<T> modelClass, boolean reuseInstance) {
+        Lock lock = DatabaseLock.readLock();
+        lock.lock();
+        try {
             QueryHandler queryHandler = new QueryHandler(Connector.getDatabase());
-            String limit;
-            if (mOffset == null) {
-                limit = mLimit;
-            } else {
-                if (mLimit == null) {
-                    mLimit = "0";
-                }
-                limit = mOffset + "," + mLimit;
-            }
-            return queryHandler.onFind(modelClass, mColumns, mConditions, mOrderBy, limit, isEager);
+            return queryHandler.onIterate(modelClass, mColumns, getConditions(), getOrderBy(), getLimit(), reuseInstance);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the where conditions, combined with the condition of page token if exists.
+     *
+     * @return The where conditions to query with.
+     */
+    private String[] getConditions() {
+        if (mPageToken == null) {
+            return mConditions;
         }
+        String pageClause = mPageToken.getWhereClause();
+        if (pageClause == null) {
+            return mConditions;
+        }
+        String[] pageArgs = mPageToken.getWhereArgs();
+        if (mConditions == null || mConditions.length == 0 || TextUtils.isEmpty(mConditions[0])) {
+            String[] conditions = new String[pageArgs.length + 1];
+            conditions[0] = pageClause;
+            System.arraycopy(pageArgs, 0, conditions, 1, pageArgs.length);
+            return conditions;
+        }
+        String[] conditions = new String[mConditions.length + pageArgs.length];
+        conditions[0] = "(" + mConditions[0] + ") and " + pageClause;
+        System.arraycopy(mConditions, 1, conditions, 1, mConditions.length - 1);
+        System.arraycopy(pageArgs, 0, conditions, mConditions.length, pageArgs.length);
+        return conditions;
+    }
+
+    /**
+     * Get the order by clause. The order of page token takes precedence if exists.
+     *
+     * @return The order by clause to query with.
+     */
+    private String getOrderBy() {
+        if (mPageToken != null) {
+            return mPageToken.getOrderBy();
+        }
+        return mOrderBy;
+    }
+
+    /**
+     * Build the limit clause with the offset and limit values.
+     *
+     * @return The limit clause, or null if no limit.
+     */
+    private String getLimit() {
+        if (mOffset == null) {
+            return mLimit;
+        }
+        if (mLimit == null) {
+            mLimit = "0";
+        }
+        return mOffset + "," + mLimit;
     }
 
     /**
@@ -224,7 +449,9 @@ public class FluentQuery {
      * @return An object with founded data from database, or null.
      */
     public <T> T findFirst(Class<T> modelClass, boolean isEager) {
-        synchronized (LitePalSupport.class) {
+        Lock lock = DatabaseLock.readLock();
+        lock.lock();
+        try {
             String limitTemp = mLimit;
             if (!"0".equals(mLimit)) { // If mLimit not equals to 0, set mLimit to 1 to find the first record.
                 mLimit = "1";
@@ -237,6 +464,8 @@ public class FluentQuery {
                 return list.get(0);
             }
             return null;
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -272,7 +501,9 @@ public class FluentQuery {
      * @return An object with founded data from database, or null.
      */
     public <T> T findLast(Class<T> modelClass, boolean isEager) {
-        synchronized (LitePalSupport.class) {
+        Lock lock = DatabaseLock.readLock();
+        lock.lock();
+        try {
             String orderByTemp = mOrderBy;
             String limitTemp = mLimit;
             if (TextUtils.isEmpty(mOffset) && TextUtils.isEmpty(mLimit)) { // If mOffset or mLimit is specified, we can't use the strategy in this block to speed up finding.
@@ -301,9 +532,155 @@ public class FluentQuery {
                 return list.get(size - 1);
             }
             return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Finds the ids of the records by the cluster parameters, without creating
+     * any model.
+     *
+     * <pre>
+     * long[] ids = LitePal.where(&quot;age &gt; ?&quot;, &quot;14&quot;).order(&quot;age&quot;).findIds(Person.class);
+     * </pre>
+     *
+     * @param modelClass Which table to query.
+     * @return The ids of found records, or an empty array.
+     */
+    public long[] findIds(Class<?> modelClass) {
+        Lock lock = DatabaseLock.readLock();
+        lock.lock();
+        try {
+            QueryHandler queryHandler = new QueryHandler(Connector.getDatabase());
+            return queryHandler.onFindIds(modelClass, getConditions(), getOrderBy(), getLimit());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Finds the values of one column by the cluster parameters, without
+     * creating any model. Values of an encrypted field are decrypted.
+     *
+     * <pre>
+     * List&lt;String&gt; names = LitePal.where(&quot;age &gt; ?&quot;, &quot;14&quot;).pluck(Person.class, &quot;name&quot;, String.class);
+     * </pre>
+     *
+     * @param modelClass Which table to query.
+     * @param column     The column or field name to query.
+     * @param columnType The type of the column. Primitive types are returned as their
+     *                   wrapper types.
+     * @return The values of found records, null for null columns, or an empty list.
+     */
+    public <T> List<T> pluck(Class<?> modelClass, String column, Class<T> columnType) {
+        Lock lock = DatabaseLock.readLock();
+        lock.lock();
+        try {
+            QueryHandler queryHandler = new QueryHandler(Connector.getDatabase());
+            return queryHandler.onPluck(modelClass, column, columnType, getConditions(), getOrderBy(), getLimit());
+        } finally {
+            lock.unlock();
         }
     }
 
+    /**
+     * Finds the records by the cluster parameters into instances of a plain
+     * class, which doesn't need to extend LitePalSupport. Each field of the
+     * result class is filled by the model field with the same name, and only
+     * the columns of these fields are queried.
+     *
+     * <pre>
+     * List&lt;PersonName&gt; names = LitePal.where(&quot;age &gt; ?&quot;, &quot;14&quot;).findAs(Person.class, PersonName.class);
+     * </pre>
+     * <p>
+     * If columns are selected, only the fields of selected columns are filled.
+     *
+     * @param modelClass  Which table to query.
+     * @param resultClass The class to map each record into.
+     * @return The mapped instances of found records, or an empty list.
+     */
+    public <T> List<T> findAs(Class<?> modelClass, Class<T> resultClass) {
+        Lock lock = DatabaseLock.readLock();
+        lock.lock();
+        try {
+            QueryHandler queryHandler = new QueryHandler(Connector.getDatabase());
+            return queryHandler.onFindAs(modelClass, resultClass, mColumns, getConditions(), getOrderBy(), getLimit());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Calculates several aggregates by the cluster parameters in one query,
+     * per group if {@link #groupBy(String...)} is declared. Order and limit
+     * apply to the groups.
+     *
+     * <pre>
+     * AggregateResult result = LitePal.where(&quot;price &gt; ?&quot;, &quot;0&quot;).groupBy(&quot;category&quot;).order(&quot;category&quot;)
+     *         .aggregate(Product.class, Aggregate.count(), Aggregate.sum(&quot;price&quot;), Aggregate.average(&quot;price&quot;));
+     * </pre>
+     *
+     * @param modelClass Which table to query from by class.
+     * @param aggregates The aggregates to calculate.
+     * @return The values of aggregates for each group, or one row if not grouped.
+     */
+    public AggregateResult aggregate(Class<?> modelClass, Aggregate... aggregates) {
+        checkAggregates(aggregates);
+        Lock lock = DatabaseLock.readLock();
+        lock.lock();
+        try {
+            QueryHandler queryHandler = new QueryHandler(Connector.getDatabase(), mCacheResult);
+            return queryHandler.onAggregate(modelClass, mGroupBy, getExpressions(aggregates), getNames(aggregates),
+                    getConditions(), mHaving, getOrderBy(), getLimit());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Calculates several aggregates on a table in one query. Works as
+     * {@link #aggregate(Class, Aggregate...)}.
+     *
+     * @param tableName  Which table to query from.
+     * @param aggregates The aggregates to calculate.
+     * @return The values of aggregates for each group, or one row if not grouped.
+     */
+    public AggregateResult aggregate(String tableName, Aggregate... aggregates) {
+        checkAggregates(aggregates);
+        Lock lock = DatabaseLock.readLock();
+        lock.lock();
+        try {
+            QueryHandler queryHandler = new QueryHandler(Connector.getDatabase(), mCacheResult);
+            return queryHandler.onAggregate(tableName, mGroupBy, getExpressions(aggregates), getNames(aggregates),
+                    getConditions(), mHaving, getOrderBy(), getLimit());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void checkAggregates(Aggregate... aggregates) {
+        if (aggregates == null || aggregates.length == 0) {
+            throw new LitePalSupportException(LitePalSupportException.AGGREGATES_EMPTY_EXCEPTION);
+        }
+    }
+
+    private String[] getExpressions(Aggregate... aggregates) {
+        String[] expressions = new String[aggregates.length];
+        for (int i = 0; i < aggregates.length; i++) {
+            expressions[i] = aggregates[i].getExpression();
+        }
+        return expressions;
+    }
+
+    private String[] getNames(Aggregate... aggregates) {
+        String[] names = new String[aggregates.length];
+        for (int i = 0; i < aggregates.length; i++) {
+            names[i] = aggregates[i].getName();
+        }
+        return names;
+    }
+
     /**
      * Count the records.
      *
@@ -322,7 +699,14 @@ public class FluentQuery {
      * @return Count of the specified table.
      */
     public int count(Class<?> modelClass) {
-        return count(BaseUtility.changeCase(modelClass.getSimpleName()));
+        Lock lock = DatabaseLock.readLock();
+        lock.lock();
+        try {
+            QueryHandler queryHandler = new QueryHandler(Connector.getDatabase(), mCacheResult);
+            return queryHandler.onCount(modelClass, mConditions);
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
@@ -343,9 +727,13 @@ public class FluentQuery {
      * @return Count of the specified table.
      */
     public int count(String tableName) {
-        synchronized (LitePalSupport.class) {
-            QueryHandler queryHandler = new QueryHandler(Connector.getDatabase());
+        Lock lock = DatabaseLock.readLock();
+        lock.lock();
+        try {
+            QueryHandler queryHandler = new QueryHandler(Connector.getDatabase(), mCacheResult);
             return queryHandler.onCount(tableName, mConditions);
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -367,7 +755,14 @@ public class FluentQuery {
      * @return The average value on a given column.
      */
     public double average(Class<?> modelClass, String column) {
-        return average(BaseUtility.changeCase(modelClass.getSimpleName()), column);
+        Lock lock = DatabaseLock.readLock();
+        lock.lock();
+        try {
+            QueryHandler queryHandler = new QueryHandler(Connector.getDatabase(), mCacheResult);
+            return queryHandler.onAverage(modelClass, column, mConditions);
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
@@ -388,9 +783,13 @@ public class FluentQuery {
      * @return The average value on a given column.
      */
     public double average(String tableName, String column) {
-        synchronized (LitePalSupport.class) {
-            QueryHandler queryHandler = new QueryHandler(Connector.getDatabase());
+        Lock lock = DatabaseLock.readLock();
+        lock.lock();
+        try {
+            QueryHandler queryHandler = new QueryHandler(Connector.getDatabase(), mCacheResult);
             return queryHandler.onAverage(tableName, column, mConditions);
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -414,7 +813,14 @@ public class FluentQuery {
      * @return The maximum value on a given column.
      */
     public <T> T max(Class<?> modelClass, String columnName, Class<T> columnType) {
-        return max(BaseUtility.changeCase(modelClass.getSimpleName()), columnName, columnType);
+        Lock lock = DatabaseLock.readLock();
+        lock.lock();
+        try {
+            QueryHandler queryHandler = new QueryHandler(Connector.getDatabase(), mCacheResult);
+            return queryHandler.onMax(modelClass, columnName, mConditions, columnType);
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
@@ -437,9 +843,13 @@ public class FluentQuery {
      * @return The maximum value on a given column.
      */
     public <T> T max(String tableName, String columnName, Class<T> columnType) {
-        synchronized (LitePalSupport.class) {
-            QueryHandler queryHandler = new QueryHandler(Connector.getDatabase());
+        Lock lock = DatabaseLock.readLock();
+        lock.lock();
+        try {
+            QueryHandler queryHandler = new QueryHandler(Connector.getDatabase(), mCacheResult);
             return queryHandler.onMax(tableName, columnName, mConditions, columnType);
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -463,7 +873,14 @@ public class FluentQuery {
      * @return The minimum value on a given column.
      */
     public <T> T min(Class<?> modelClass, String columnName, Class<T> columnType) {
-        return min(BaseUtility.changeCase(modelClass.getSimpleName()), columnName, columnType);
+        Lock lock = DatabaseLock.readLock();
+        lock.lock();
+        try {
+            QueryHandler queryHandler = new QueryHandler(Connector.getDatabase(), mCacheResult);
+            return queryHandler.onMin(modelClass, columnName, mConditions, columnType);
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
@@ -486,9 +903,13 @@ public class FluentQuery {
      * @return The minimum value on a given column.
      */
     public <T> T min(String tableName, String columnName, Class<T> columnType) {
-        synchronized (LitePalSupport.class) {
-            QueryHandler queryHandler = new QueryHandler(Connector.getDatabase());
+        Lock lock = DatabaseLock.readLock();
+        lock.lock();
+        try {
+            QueryHandler queryHandler = new QueryHandler(Connector.getDatabase(), mCacheResult);
             return queryHandler.onMin(tableName, columnName, mConditions, columnType);
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -512,7 +933,14 @@ public class FluentQuery {
      * @return The sum value on a given column.
      */
     public <T> T sum(Class<?> modelClass, String columnName, Class<T> columnType) {
-        return sum(BaseUtility.changeCase(modelClass.getSimpleName()), columnName, columnType);
+        Lock lock = DatabaseLock.readLock();
+        lock.lock();
+        try {
+            QueryHandler queryHandler = new QueryHandler(Connector.getDatabase(), mCacheResult);
+            return queryHandler.onSum(modelClass, columnName, mConditions, columnType);
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
@@ -535,9 +963,181 @@ public class FluentQuery {
      * @return The sum value on a given column.
      */
     public <T> T sum(String tableName, String columnName, Class<T> columnType) {
-        synchronized (LitePalSupport.class) {
-            QueryHandler queryHandler = new QueryHandler(Connector.getDatabase());
+        Lock lock = DatabaseLock.readLock();
+        lock.lock();
+        try {
+            QueryHandler queryHandler = new QueryHandler(Connector.getDatabase(), mCacheResult);
             return queryHandler.onSum(tableName, columnName, mConditions, columnType);
+        } finally {
+            lock.unlock();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * It is mostly same as {@link FluentQuery#find(Class)} but runs on the read lane of
+     * {@link AsyncExecutor} and returns immediately. The query should not be changed until the
+     * result is delivered.
+     *
+     * <pre>
+     * LitePal.where(&quot;age &gt; ?&quot;, &quot;14&quot;).findAsync(Person.class)
+     *         .listen(new ResultCallback&lt;List&lt;Person&gt;&gt;() {
+     *     public void onFinish(List&lt;Person&gt; people) {
+     *     }
+     *
+     *     public void onError(Throwable error) {
+     *     }
+     * });
+     * </pre>
+     *
+     * @param modelClass Which table to query and the object type to return as a list.
+     * @return The pending object list with founded data.
+     */
+    public <T> AsyncResult<List<T>> findAsync(Class<T> modelClass) {
+        return findAsync(modelClass, false);
+    }
+
+    /**
+     * Asynchronous version of {@link FluentQuery#find(Class, boolean)}.
+     *
+     * @param modelClass Which table to query and the object type to return as a list.
+     * @param isEager    True to load the associated models, false not.
+     * @return The pending object list with founded data.
+     */
+    public <T> AsyncResult<List<T>> findAsync(final Class<T> modelClass, final boolean isEager) {
+        return AsyncExecutor.read(new Callable<List<T>>() {
+            @Override
+            public List<T> call() {
+                return find(modelClass, isEager);
+            }
+        });
+    }
+
+    /**
+     * Asynchronous version of {@link FluentQuery#findFirst(Class, boolean)}.
+     *
+     * @param modelClass Which table to query and the object type to return.
+     * @param isEager    True to load the associated models, false not.
+     * @return The pending object with founded data, which can be null.
+     */
+    public <T> AsyncResult<T> findFirstAsync(final Class<T> modelClass, final boolean isEager) {
+        return AsyncExecutor.read(new Callable<T>() {
+            @Override
+            public T call() {
+                return findFirst(modelClass, isEager);
+            }
+        });
+    }
+
+    /**
+     * Asynchronous version of {@link FluentQuery#findLast(Class, boolean)}.
+     *
+     * @param modelClass Which table to query and the object type to return.
+     * @param isEager    True to load the associated models, false not.
+     * @return The pending object with founded data, which can be null.
+     */
+    public <T> AsyncResult<T> findLastAsync(final Class<T> modelClass, final boolean isEager) {
+        return AsyncExecutor.read(new Callable<T>() {
+            @Override
+            public T call() {
+                return findLast(modelClass, isEager);
+            }
+        });
+    }
+
+    /**
+     * Asynchronous version of {@link FluentQuery#count(Class)}.
+     *
+     * @param modelClass Which table to query from by class.
+     * @return The pending count of the specified table.
+     */
+    public AsyncResult<Integer> countAsync(final Class<?> modelClass) {
+        return AsyncExecutor.read(new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                return count(modelClass);
+            }
+        });
+    }
+
+    /**
+     * Asynchronous version of {@link FluentQuery#count(String)}.
+     *
+     * @param tableName Which table to query from.
+     * @return The pending count of the specified table.
+     */
+    public AsyncResult<Integer> countAsync(final String tableName) {
+        return AsyncExecutor.read(new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                return count(tableName);
+            }
+        });
+    }
+
+    /**
+     * Asynchronous version of {@link FluentQuery#average(Class, String)}.
+     *
+     * @param modelClass Which table to query from by class.
+     * @param column     The based on column to calculate.
+     * @return The pending average value on a given column.
+     */
+    public AsyncResult<Double> averageAsync(final Class<?> modelClass, final String column) {
+        return AsyncExecutor.read(new Callable<Double>() {
+            @Override
+            public Double call() {
+                return average(modelClass, column);
+            }
+        });
+    }
+
+    /**
+     * Asynchronous version of {@link FluentQuery#max(Class, String, Class)}.
+     *
+     * @param modelClass Which table to query from by class.
+     * @param columnName The based on column to calculate.
+     * @param columnType The type of the based on column.
+     * @return The pending maximum value on a given column.
+     */
+    public <T> AsyncResult<T> maxAsync(final Class<?> modelClass, final String columnName, final Class<T> columnType) {
+        return AsyncExecutor.read(new Callable<T>() {
+            @Override
+            public T call() {
+                return max(modelClass, columnName, columnType);
+            }
+        });
+    }
+
+    /**
+     * Asynchronous version of {@link FluentQuery#min(Class, String, Class)}.
+     *
+     * @param modelClass Which table to query from by class.
+     * @param columnName The based on column to calculate.
+     * @param columnType The type of the based on column.
+     * @return The pending minimum value on a given column.
+     */
+    public <T> AsyncResult<T> minAsync(final Class<?> modelClass, final String columnName, final Class<T> columnType) {
+        return AsyncExecutor.read(new Callable<T>() {
+            @Override
+            public T call() {
+                return min(modelClass, columnName, columnType);
+            }
+        });
+    }
+
+    /**
+     * Asynchronous version of {@link FluentQuery#sum(Class, String, Class)}.
+     *
+     * @param modelClass Which table to query from by class.
+     * @param columnName The based on column to calculate.
+     * @param columnType The type of the based on column.
+     * @return The pending sum value on a given column.
+     */
+    public <T> AsyncResult<T> sumAsync(final Class<?> modelClass, final String columnName, final Class<T> columnType) {
+        return AsyncExecutor.read(new Callable<T>() {
+            @Override
+            public T call() {
+                return sum(modelClass, columnName, columnType);
+            }
+        });
+    }
+}
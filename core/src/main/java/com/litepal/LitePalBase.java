@@ -1,12 +1,18 @@
 package com.litepal;
 
+import android.text.TextUtils;
+
 import com.litepal.annotation.Column;
+import com.litepal.annotation.Encrypt;
+import com.litepal.annotation.Index;
+import com.litepal.annotation.Indexes;
 import com.litepal.crud.LitePalSupport;
 import com.litepal.exceptions.DatabaseGenerateException;
 import com.litepal.parser.LitePalAttr;
 import com.litepal.tablemanager.model.AssociationsModel;
 import com.litepal.tablemanager.model.ColumnModel;
 import com.litepal.tablemanager.model.GenericModel;
+import com.litepal.tablemanager.model.IndexModel;
 import com.litepal.tablemanager.model.TableModel;
 import com.litepal.tablemanager.typechange.BlobOrm;
 import com.litepal.tablemanager.typechange.BooleanOrm;
@@ -26,10 +32,8 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
 /**
@@ -55,14 +59,6 @@ public abstract class LitePalBase {
      */
     private OrmChange[] typeChangeRules = {new NumericOrm(), new TextOrm(), new BooleanOrm(),
             new DecimalOrm(), new DateOrm(), new BlobOrm()};
-    /**
-     * This is map of class name to fields list. Indicates that each class has which supported fields.
-     */
-    private Map<String, List<Field>> classFieldsMap = new HashMap<String, List<Field>>();
-    /**
-     * This is map of class name to generic fields list. Indicates that each class has which supported generic fields.
-     */
-    private Map<String, List<Field>> classGenericFieldsMap = new HashMap<String, List<Field>>();
     /**
      * The collection contains all association models.
      */
@@ -98,10 +94,112 @@ public abstract class LitePalBase {
         for (Field field : supportedFields) {
             ColumnModel columnModel = convertFieldToColumnModel(field);
             tableModel.addColumnModel(columnModel);
+            if (hasBlindIndex(field)) {
+                addBlindIndexColumn(tableModel, columnModel.getColumnName());
+            }
         }
+        addIndexModels(tableModel, getModelMetadata(className).getModelClass(), supportedFields);
         return tableModel;
     }
 
+    /**
+     * Check if the field keeps a blind index, which is declared by {@link Encrypt#blindIndex()}
+     * on a String field encrypted by AES.
+     *
+     * @param field The field to check.
+     * @return True if the field keeps a blind index, false otherwise.
+     */
+    protected boolean hasBlindIndex(Field field) {
+        Encrypt annotation = field.getAnnotation(Encrypt.class);
+        return annotation != null && annotation.blindIndex() && field.getType() == String.class
+                && LitePalSupport.AES.equalsIgnoreCase(annotation.algorithm());
+    }
+
+    /**
+     * Add the blind index column of the encrypted column into the table model, with an index on
+     * it.
+     *
+     * @param tableModel The table model to add into.
+     * @param columnName The encrypted column name.
+     */
+    private void addBlindIndexColumn(TableModel tableModel, String columnName) {
+        String blindIndexColumnName = DBUtility.getBlindIndexColumnName(columnName);
+        ColumnModel columnModel = new ColumnModel();
+        columnModel.setColumnName(blindIndexColumnName);
+        columnModel.setColumnType(getColumnType(String.class.getName()));
+        columnModel.setNullable(true);
+        columnModel.setUnique(false);
+        columnModel.setDefaultValue("");
+        tableModel.addColumnModel(columnModel);
+        IndexModel indexModel = new IndexModel();
+        indexModel.addColumnName(blindIndexColumnName);
+        indexModel.setIndexName(DBUtility.getIndexName(tableModel.getTableName(), blindIndexColumnName));
+        tableModel.addIndexModel(indexModel);
+    }
+
+    /**
+     * Add the indexes declared by {@link Index} into the table model. Indexes declared on fields
+     * index their own columns, and indexes declared on the class index the columns in order.
+     *
+     * @param tableModel      The table model to add indexes.
+     * @param modelClass      The model class of the table.
+     * @param supportedFields Supported fields of the model class.
+     * @throws DatabaseGenerateException
+     */
+    private void addIndexModels(TableModel tableModel, Class<?> modelClass, List<Field> supportedFields) {
+        for (Field field : supportedFields) {
+            Index index = field.getAnnotation(Index.class);
+            if (index != null) {
+                tableModel.addIndexModel(convertToIndexModel(tableModel, index,
+                        new String[]{field.getName()}));
+            }
+        }
+        Index index = modelClass.getAnnotation(Index.class);
+        if (index != null) {
+            tableModel.addIndexModel(convertToIndexModel(tableModel, index, index.columns()));
+        }
+        Indexes indexes = modelClass.getAnnotation(Indexes.class);
+        if (indexes != null) {
+            for (Index each : indexes.value()) {
+                tableModel.addIndexModel(convertToIndexModel(tableModel, each, each.columns()));
+            }
+        }
+    }
+
+    /**
+     * Convert an index annotation into an IndexModel instance.
+     *
+     * @param tableModel The table model which the index belongs to.
+     * @param index      The index annotation.
+     * @param fieldNames Names of the fields to index.
+     * @return IndexModel instance contains index information.
+     * @throws DatabaseGenerateException
+     */
+    private IndexModel convertToIndexModel(TableModel tableModel, Index index, String[] fieldNames) {
+        if (fieldNames.length == 0) {
+            throw new DatabaseGenerateException(DatabaseGenerateException.INDEX_COLUMN_DOES_NOT_EXIST
+                    + tableModel.getTableName());
+        }
+        IndexModel indexModel = new IndexModel();
+        StringBuilder joinedNames = new StringBuilder();
+        for (String fieldName : fieldNames) {
+            String columnName = DBUtility.convertToValidColumnName(fieldName);
+            if (!tableModel.containsColumn(columnName) && !isIdColumn(columnName)) {
+                throw new DatabaseGenerateException(DatabaseGenerateException.INDEX_COLUMN_DOES_NOT_EXIST
+                        + fieldName);
+            }
+            indexModel.addColumnName(columnName);
+            if (joinedNames.length() > 0) {
+                joinedNames.append("_");
+            }
+            joinedNames.append(columnName);
+        }
+        String name = TextUtils.isEmpty(index.name()) ? joinedNames.toString() : index.name();
+        indexModel.setIndexName(DBUtility.getIndexName(tableModel.getTableName(), name));
+        indexModel.setUnique(index.unique());
+        return indexModel;
+    }
+
     /**
      * This method is used to get association models depends on the given class
      * name list.
@@ -140,61 +238,60 @@ public abstract class LitePalBase {
      * @return Collection of association info.
      */
     protected Collection<AssociationsInfo> getAssociationInfo(String className) {
-        if (mAssociationInfos == null) {
-            mAssociationInfos = new HashSet<AssociationsInfo>();
-        }
-        mAssociationInfos.clear();
-        analyzeClassFields(className, GET_ASSOCIATION_INFO_ACTION);
-        return mAssociationInfos;
+        return getModelMetadata(className).getAssociationInfos();
     }
 
     /**
-     * Find all the fields in the class. But not each field is supported to add
-     * a column to the table. Only the basic data types and String are
-     * supported. This method will intercept all the types which are not
-     * supported and return a new list of supported fields.
+     * Get the metadata of the class from the process-wide registry. If the class is not analyzed
+     * yet, analyze it and put the result into the registry, so the reflection work only happens
+     * once for each class.
      *
      * @param className The full name of the class.
-     * @return A list of supported fields.
+     * @return The metadata of the class.
      */
-    protected List<Field> getSupportedFields(String className) {
-        List<Field> fieldList = classFieldsMap.get(className);
-        if (fieldList == null) {
-            List<Field> supportedFields = new ArrayList<Field>();
+    protected ModelMetadata getModelMetadata(String className) {
+        ModelMetadata metadata = ModelMetadata.get(className);
+        if (metadata == null) {
             Class<?> clazz;
             try {
                 clazz = Class.forName(className);
             } catch (ClassNotFoundException e) {
                 throw new DatabaseGenerateException(DatabaseGenerateException.CLASS_NOT_FOUND + className);
             }
+            List<Field> supportedFields = new ArrayList<Field>();
             recursiveSupportedFields(clazz, supportedFields);
-            classFieldsMap.put(className, supportedFields);
-            return supportedFields;
+            List<Field> supportedGenericFields = new ArrayList<Field>();
+            recursiveSupportedGenericFields(clazz, supportedGenericFields);
+            mAssociationInfos = new HashSet<AssociationsInfo>();
+            analyzeClassFields(className, GET_ASSOCIATION_INFO_ACTION);
+            metadata = ModelMetadata.register(new ModelMetadata(clazz, supportedFields,
+                    supportedGenericFields, mAssociationInfos));
+            mAssociationInfos = null;
         }
-        return fieldList;
+        return metadata;
+    }
+
+    /**
+     * Find all the fields in the class. But not each field is supported to add
+     * a column to the table. Only the basic data types and String are
+     * supported. This method will intercept all the types which are not
+     * supported and return a list of supported fields.
+     *
+     * @param className The full name of the class.
+     * @return A list of supported fields. The list is shared and can not be modified.
+     */
+    protected List<Field> getSupportedFields(String className) {
+        return getModelMetadata(className).getSupportedFields();
     }
 
     /**
      * Find all supported generic fields in the class. Supporting rule is in {@link BaseUtility#isGenericTypeSupported(String)}.
      *
      * @param className The full name of the class.
-     * @return A list of supported generic fields.
+     * @return A list of supported generic fields. The list is shared and can not be modified.
      */
     protected List<Field> getSupportedGenericFields(String className) {
-        List<Field> genericFieldList = classGenericFieldsMap.get(className);
-        if (genericFieldList == null) {
-            List<Field> supportedGenericFields = new ArrayList<Field>();
-            Class<?> clazz;
-            try {
-                clazz = Class.forName(className);
-            } catch (ClassNotFoundException e) {
-                throw new DatabaseGenerateException(DatabaseGenerateException.CLASS_NOT_FOUND + className);
-            }
-            recursiveSupportedGenericFields(clazz, supportedGenericFields);
-            classGenericFieldsMap.put(className, supportedGenericFields);
-            return supportedGenericFields;
-        }
-        return genericFieldList;
+        return getModelMetadata(className).getSupportedGenericFields();
     }
 
     /**
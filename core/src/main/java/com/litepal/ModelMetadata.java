@@ -0,0 +1,151 @@
+package com.litepal;
+
+import com.litepal.crud.model.AssociationsInfo;
+import com.litepal.util.DBUtility;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable description of a mapped model class. It holds the supported fields, the supported
+ * generic fields, the association info, the column names and the table name of the class.
+ * Analyzing a model class by reflection is expensive, so each class is analyzed only once and
+ * the result is kept in a process-wide registry which is shared by all the CRUD handlers and the
+ * table generator.
+ * <p>
+ * The registry depends on the mapping list and the cases configuration, so it's cleared whenever
+ * the using database is switched.
+ *
+ * @author Tony Green
+ * @since 3.0
+ */
+public final class ModelMetadata {
+    /**
+     * The registry of all analyzed model classes. Key is the full class name.
+     */
+    private static final ConcurrentHashMap<String, ModelMetadata> registry = new ConcurrentHashMap<String, ModelMetadata>();
+    /**
+     * The full name of the model class.
+     */
+    private final String className;
+    /**
+     * The model class.
+     */
+    private final Class<?> modelClass;
+    /**
+     * The table name which the model class maps to.
+     */
+    private final String tableName;
+    /**
+     * The fields which can be mapped into columns.
+     */
+    private final List<Field> supportedFields;
+    /**
+     * The generic fields which can be mapped into generic tables.
+     */
+    private final List<Field> supportedGenericFields;
+    /**
+     * The association info of the model class.
+     */
+    private final Collection<AssociationsInfo> associationInfos;
+    /**
+     * The column names of the supported fields, in the same order.
+     */
+    private final List<String> columnNames;
+
+    ModelMetadata(Class<?> modelClass, List<Field> supportedFields, List<Field> supportedGenericFields,
+                  Collection<AssociationsInfo> associationInfos) {
+        this.modelClass = modelClass;
+        className = modelClass.getName();
+        tableName = DBUtility.getTableNameByClassName(className);
+        this.supportedFields = Collections.unmodifiableList(new ArrayList<Field>(supportedFields));
+        this.supportedGenericFields = Collections.unmodifiableList(new ArrayList<Field>(supportedGenericFields));
+        this.associationInfos = Collections.unmodifiableCollection(new ArrayList<AssociationsInfo>(associationInfos));
+        List<String> columns = new ArrayList<String>(supportedFields.size());
+        for (Field field : supportedFields) {
+            columns.add(DBUtility.convertToValidColumnName(field.getName()));
+        }
+        columnNames = Collections.unmodifiableList(columns);
+    }
+
+    /**
+     * Get the analyzed metadata of the class from the registry.
+     *
+     * @param className The full name of the class.
+     * @return The metadata of the class, or null if the class is not analyzed yet.
+     */
+    static ModelMetadata get(String className) {
+        return registry.get(className);
+    }
+
+    /**
+     * Put the metadata into the registry. If another thread has registered the same class
+     * already, the existing one wins so that all callers share the same instance.
+     *
+     * @param metadata The metadata to register.
+     * @return The metadata which is kept by the registry.
+     */
+    static ModelMetadata register(ModelMetadata metadata) {
+        ModelMetadata existing = registry.putIfAbsent(metadata.className, metadata);
+        return existing == null ? metadata : existing;
+    }
+
+    /**
+     * Clear all the analyzed metadata. Never call this method. This is only used by internal.
+     */
+    public static void clear() {
+        registry.clear();
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public Class<?> getModelClass() {
+        return modelClass;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    /**
+     * Get the supported fields of the model class. The returned list can not be modified.
+     *
+     * @return A read only list of supported fields.
+     */
+    public List<Field> getSupportedFields() {
+        return supportedFields;
+    }
+
+    /**
+     * Get the supported generic fields of the model class. The returned list can not be modified.
+     *
+     * @return A read only list of supported generic fields.
+     */
+    public List<Field> getSupportedGenericFields() {
+        return supportedGenericFields;
+    }
+
+    /**
+     * Get the association info of the model class. The returned collection can not be modified.
+     *
+     * @return A read only collection of association info.
+     */
+    public Collection<AssociationsInfo> getAssociationInfos() {
+        return associationInfos;
+    }
+
+    /**
+     * Get the column names of the supported fields. The returned list can not be modified.
+     *
+     * @return A read only list of column names.
+     */
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+}
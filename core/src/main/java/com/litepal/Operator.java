@@ -4,20 +4,28 @@ import android.content.ContentValues;
 import android.content.Context;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteTransactionListener;
 import android.os.Handler;
 import android.os.Looper;
 import android.text.TextUtils;
 
 import com.litepal.crud.LitePalSupport;
+import com.litepal.crud.ParallelHydration;
 import com.litepal.crud.QueryHandler;
 import com.litepal.crud.SaveHandler;
+import com.litepal.crud.Session;
 import com.litepal.crud.UpdateHandler;
+import com.litepal.crud.WriteBehindQueue;
+import com.litepal.crud.async.AsyncExecutor;
+import com.litepal.crud.async.AsyncResult;
 import com.litepal.parser.LitePalAttr;
 import com.litepal.parser.LitePalConfig;
 import com.litepal.parser.LitePalParser;
 import com.litepal.tablemanager.Connector;
+import com.litepal.tablemanager.DatabaseLock;
 import com.litepal.tablemanager.callback.DatabaseListener;
 import com.litepal.crud.DeleteHandler;
+import com.litepal.exceptions.LitePalSupportException;
 import com.litepal.util.BaseUtility;
 import com.litepal.util.Const;
 import com.litepal.util.DBUtility;
@@ -27,6 +35,9 @@ import com.litepal.util.cipher.CipherUtil;
 import java.io.File;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.Lock;
 
 /**
  * LitePal is an Android library that allows developers to use SQLite database extremely easy.
@@ -78,10 +89,11 @@ public class Operator {
     }
 
     /**
-     * End a transaction.
+     * End a transaction. The cached models of the tables written in the transaction are dropped
+     * after the outermost transaction ends.
      */
     public static void endTransaction() {
-        getDatabase().endTransaction();
+        DBUtility.endTransaction(getDatabase());
     }
 
     /**
@@ -94,12 +106,95 @@ public class Operator {
     }
 
     /**
-     * Switch the using database to the one specified by parameter.
+     * Run the block in one transaction, which is committed when the block returns and rolled back
+     * when it throws. The write lock is held for the whole block, so the operations inside don't
+     * wait for other threads, and their own transactions become nested ones that commit nothing
+     * on their own. Many saves inside one block share a single commit.
+     * <p>
+     * Calls can be nested, and an inner block joins the outer transaction. If an operation inside
+     * fails, e.g. save() returns false, the whole transaction is rolled back even if the block
+     * goes on, and {@link LitePalSupportException} is thrown when the block returns.
+     *
+     * <pre>
+     * Operator.runInTransaction(new Callable&lt;Void&gt;() {
+     *     public Void call() {
+     *         for (Song song : songs) {
+     *             song.saveThrows();
+     *         }
+     *         return null;
+     *     }
+     * });
+     * </pre>
+     *
+     * @param callable The block to run.
+     * @return The result of the block.
+     */
+    public static <T> T runInTransaction(Callable<T> callable) {
+        Lock lock = DatabaseLock.writeLock();
+        lock.lock();
+        try {
+            SQLiteDatabase db = getDatabase();
+            final boolean[] rolledBack = new boolean[1];
+            db.beginTransactionWithListener(new SQLiteTransactionListener() {
+                @Override
+                public void onBegin() {
+                }
+
+                @Override
+                public void onCommit() {
+                }
+
+                @Override
+                public void onRollback() {
+                    rolledBack[0] = true;
+                }
+            });
+            T result;
+            try {
+                result = callable.call();
+                db.setTransactionSuccessful();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new LitePalSupportException(e.getMessage(), e);
+            } finally {
+                endTransaction();
+            }
+            if (rolledBack[0]) {
+                throw new LitePalSupportException(LitePalSupportException.TRANSACTION_ROLLED_BACK);
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Same as {@link #runInTransaction(Callable)}, for the block which returns nothing.
+     *
+     * @param runnable The block to run.
+     */
+    public static void runInTransaction(final Runnable runnable) {
+        runInTransaction(new Callable<Void>() {
+            @Override
+            public Void call() {
+                runnable.run();
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Switch the using database to the one specified by parameter. It fails with
+     * {@link LitePalSupportException} if any {@link com.litepal.crud.ModelIterator} is still open.
      *
      * @param litePalDB The database to switch to.
      */
     public static void use(LitePalDB litePalDB) {
-        synchronized (LitePalSupport.class) {
+        Lock lock = DatabaseLock.switchLock();
+        lock.lock();
+        try {
+            WriteBehindQueue.flush();
             LitePalAttr litePalAttr = LitePalAttr.getInstance();
             litePalAttr.setDbName(litePalDB.getDbName());
             litePalAttr.setVersion(litePalDB.getVersion());
@@ -110,17 +205,27 @@ public class Operator {
                 litePalAttr.setExtraKeyName(litePalDB.getDbName());
                 litePalAttr.setCases("lower");
             }
+            ModelMetadata.clear();
             Connector.clearLitePalOpenHelperInstance();
+        } finally {
+            lock.unlock();
         }
     }
 
     /**
-     * Switch the using database to default with configuration by litepal.xml.
+     * Switch the using database to default with configuration by litepal.xml. It fails with
+     * {@link LitePalSupportException} if any {@link com.litepal.crud.ModelIterator} is still open.
      */
     public static void useDefault() {
-        synchronized (LitePalSupport.class) {
+        Lock lock = DatabaseLock.switchLock();
+        lock.lock();
+        try {
+            WriteBehindQueue.flush();
             LitePalAttr.clearInstance();
+            ModelMetadata.clear();
             Connector.clearLitePalOpenHelperInstance();
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -131,7 +236,9 @@ public class Operator {
      * @return True if delete success, false otherwise.
      */
     public static boolean deleteDatabase(String dbName) {
-        synchronized (LitePalSupport.class) {
+        Lock lock = DatabaseLock.switchLock();
+        lock.lock();
+        try {
             if (!TextUtils.isEmpty(dbName)) {
                 if (!dbName.endsWith(Const.Config.DB_NAME_SUFFIX)) {
                     dbName = dbName + Const.Config.DB_NAME_SUFFIX;
@@ -155,9 +262,72 @@ public class Operator {
                 return result;
             }
             return false;
+        } finally {
+            lock.unlock();
         }
     }
 
+    /**
+     * Allow read operations to run concurrently. When enabled, the database will be opened in
+     * write ahead logging mode, queries from different threads won't block each other, and they
+     * won't wait for a running write operation or transaction either, since each of them reads a
+     * snapshot of the last commit. Write operations are still serialized. It's disabled by
+     * default. Call this method before doing any database operation.
+     *
+     * @param enabled True to enable concurrent reads, false to disable.
+     */
+    public static void concurrentReads(boolean enabled) {
+        DatabaseLock.setConcurrentReads(enabled);
+    }
+
+    /**
+     * Replace the executors which run the asynchronous operations. Read operations and write
+     * operations run on separate executors. Pass null to use the default one, which has a few
+     * threads for reads and one thread for writes.
+     *
+     * @param readExecutor  The executor to run asynchronous read operations.
+     * @param writeExecutor The executor to run asynchronous write operations.
+     */
+    public static void asyncExecutors(Executor readExecutor, Executor writeExecutor) {
+        AsyncExecutor.setExecutors(readExecutor, writeExecutor);
+    }
+
+    /**
+     * Set the min number of rows of a query to build the models on multiple threads. The rows
+     * are still read on the querying thread, and the models are returned in the same order. It's
+     * used by queries without eager loading only, and never on single core devices. By default
+     * it's 5000 rows.
+     *
+     * @param rowThreshold The min number of rows. Pass 0 to disable it.
+     */
+    public static void parallelHydration(int rowThreshold) {
+        ParallelHydration.setThreshold(rowThreshold);
+    }
+
+    /**
+     * Set when the models saved by {@link LitePalSupport#saveLater()} are written. They are
+     * written in one transaction once the number of pending models reaches maxSize, or the
+     * first one has waited for maxDelay milliseconds. By default it's 100 models and 1000ms.
+     *
+     * @param maxSize  The max number of pending models.
+     * @param maxDelay The max milliseconds a pending model waits.
+     */
+    public static void writeBehind(int maxSize, long maxDelay) {
+        WriteBehindQueue.configure(maxSize, maxDelay);
+    }
+
+    /**
+     * Write the models saved by {@link LitePalSupport#saveLater()} right now on current thread.
+     * Call it when the app goes to background, as the pending models are lost if the process is
+     * killed.
+     *
+     * @return True if the pending models are written, false if any model failed or they were put
+     * back into the queue since the flush ran in a failed transaction.
+     */
+    public static boolean flushWrites() {
+        return WriteBehindQueue.flush();
+    }
+
     public static void aesKey(String key) {
         CipherUtil.aesKey = key;
     }
@@ -197,6 +367,28 @@ public class Operator {
         return false;
     }
 
+    /**
+     * Open a session on current thread. While the session is open, the same row is mapped to the
+     * same model instance by all queries of current thread, so a row loaded again or referenced
+     * by associations is not read from database twice. Close the session to release the instances.
+     *
+     * <pre>
+     * Session session = LitePal.openSession();
+     * try {
+     *     Person person = LitePal.find(Person.class, 1);
+     *     // same instance, no query to database.
+     *     person = LitePal.find(Person.class, 1);
+     * } finally {
+     *     session.close();
+     * }
+     * </pre>
+     *
+     * @return The opened session.
+     */
+    public static Session openSession() {
+        return Session.open();
+    }
+
     /**
      * Declaring to query which columns in table.
      *
@@ -257,6 +449,24 @@ public class Operator {
         return cQuery;
     }
 
+    /**
+     * Declaring which columns to group the rows by when calculating aggregates.
+     *
+     * <pre>
+     * LitePal.groupBy(&quot;category&quot;).aggregate(Product.class, Aggregate.count());
+     * </pre>
+     * <p>
+     * This will count the rows of each category in Product table.
+     *
+     * @param columns The columns to group by.
+     * @return A FluentQuery instance.
+     */
+    public static FluentQuery groupBy(String... columns) {
+        FluentQuery cQuery = new FluentQuery();
+        cQuery.mGroupBy = columns;
+        return cQuery;
+    }
+
     /**
      * Limits the number of rows returned by the query.
      *
@@ -295,6 +505,42 @@ public class Operator {
         return cQuery;
     }
 
+    /**
+     * Declaring to cache the result of the query.
+     *
+     * <pre>
+     * LitePal.cached().count(Person.class);
+     * </pre>
+     * <p>
+     * This will count all rows in Person table, and the same count gets the cached result until
+     * Person table is written.
+     *
+     * @return A FluentQuery instance.
+     */
+    public static FluentQuery cached() {
+        FluentQuery cQuery = new FluentQuery();
+        cQuery.mCacheResult = true;
+        return cQuery;
+    }
+
+    /**
+     * Declaring to query the page pointed by the token with keyset pagination.
+     *
+     * <pre>
+     * LitePal.page(PageToken.ascending(&quot;name&quot;)).limit(20).find(Person.class);
+     * </pre>
+     * <p>
+     * This will find the first 20 rows in Person table sorted by name and id.
+     *
+     * @param token The token of the page to query.
+     * @return A FluentQuery instance.
+     */
+    public static FluentQuery page(PageToken token) {
+        FluentQuery cQuery = new FluentQuery();
+        cQuery.mPageToken = token;
+        return cQuery;
+    }
+
     /**
      * Count the records.
      *
@@ -334,9 +580,13 @@ public class Operator {
      * @return Count of the specified table.
      */
     public static int count(String tableName) {
-        synchronized (LitePalSupport.class) {
+        Lock lock = DatabaseLock.readLock();
+        lock.lock();
+        try {
             FluentQuery cQuery = new FluentQuery();
             return cQuery.count(tableName);
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -379,9 +629,13 @@ public class Operator {
      * @return The average value on a given column.
      */
     public static double average(String tableName, String column) {
-        synchronized (LitePalSupport.class) {
+        Lock lock = DatabaseLock.readLock();
+        lock.lock();
+        try {
             FluentQuery cQuery = new FluentQuery();
             return cQuery.average(tableName, column);
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -428,9 +682,13 @@ public class Operator {
      * @return The maximum value on a given column.
      */
     public static <T> T max(String tableName, String columnName, Class<T> columnType) {
-        synchronized (LitePalSupport.class) {
+        Lock lock = DatabaseLock.readLock();
+        lock.lock();
+        try {
             FluentQuery cQuery = new FluentQuery();
             return cQuery.max(tableName, columnName, columnType);
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -477,9 +735,13 @@ public class Operator {
      * @return The minimum value on a given column.
      */
     public static <T> T min(String tableName, String columnName, Class<T> columnType) {
-        synchronized (LitePalSupport.class) {
+        Lock lock = DatabaseLock.readLock();
+        lock.lock();
+        try {
             FluentQuery cQuery = new FluentQuery();
             return cQuery.min(tableName, columnName, columnType);
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -526,9 +788,13 @@ public class Operator {
      * @return The sum value on a given column.
      */
     public static <T> T sum(String tableName, String columnName, Class<T> columnType) {
-        synchronized (LitePalSupport.class) {
+        Lock lock = DatabaseLock.readLock();
+        lock.lock();
+        try {
             FluentQuery cQuery = new FluentQuery();
             return cQuery.sum(tableName, columnName, columnType);
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -567,9 +833,13 @@ public class Operator {
      * @return An object with found data from database, or null.
      */
     public static <T> T find(Class<T> modelClass, long id, boolean isEager) {
-        synchronized (LitePalSupport.class) {
+        Lock lock = DatabaseLock.readLock();
+        lock.lock();
+        try {
             QueryHandler queryHandler = new QueryHandler(Connector.getDatabase());
             return queryHandler.onFind(modelClass, id, isEager);
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -603,9 +873,13 @@ public class Operator {
      * @return An object with data of first row, or null.
      */
     public static <T> T findFirst(Class<T> modelClass, boolean isEager) {
-        synchronized (LitePalSupport.class) {
+        Lock lock = DatabaseLock.readLock();
+        lock.lock();
+        try {
             QueryHandler queryHandler = new QueryHandler(Connector.getDatabase());
             return queryHandler.onFindFirst(modelClass, isEager);
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -639,9 +913,13 @@ public class Operator {
      * @return An object with data of last row, or null.
      */
     public static <T> T findLast(Class<T> modelClass, boolean isEager) {
-        synchronized (LitePalSupport.class) {
+        Lock lock = DatabaseLock.readLock();
+        lock.lock();
+        try {
             QueryHandler queryHandler = new QueryHandler(Connector.getDatabase());
             return queryHandler.onFindLast(modelClass, isEager);
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -691,9 +969,13 @@ public class Operator {
      */
     public static <T> List<T> findAll(Class<T> modelClass, boolean isEager,
                                       long... ids) {
-        synchronized (LitePalSupport.class) {
+        Lock lock = DatabaseLock.readLock();
+        lock.lock();
+        try {
             QueryHandler queryHandler = new QueryHandler(Connector.getDatabase());
             return queryHandler.onFindAll(modelClass, isEager, ids);
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -713,7 +995,9 @@ public class Operator {
      * details.
      */
     public static Cursor findBySQL(String... sql) {
-        synchronized (LitePalSupport.class) {
+        Lock lock = DatabaseLock.readLock();
+        lock.lock();
+        try {
             BaseUtility.checkConditionsCorrect(sql);
             if (sql == null) {
                 return null;
@@ -729,6 +1013,8 @@ public class Operator {
                 System.arraycopy(sql, 1, selectionArgs, 0, sql.length - 1);
             }
             return Connector.getDatabase().rawQuery(sql[0], selectionArgs);
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -748,7 +1034,9 @@ public class Operator {
      * @return The number of rows affected. Including cascade delete rows.
      */
     public static int delete(Class<?> modelClass, long id) {
-        synchronized (LitePalSupport.class) {
+        Lock lock = DatabaseLock.writeLock();
+        lock.lock();
+        try {
             int rowsAffected;
             SQLiteDatabase db = Connector.getDatabase();
             db.beginTransaction();
@@ -758,8 +1046,10 @@ public class Operator {
                 db.setTransactionSuccessful();
                 return rowsAffected;
             } finally {
-                db.endTransaction();
+                DBUtility.endTransaction(db);
             }
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -786,7 +1076,9 @@ public class Operator {
      * @return The number of rows affected.
      */
     public static int deleteAll(Class<?> modelClass, String... conditions) {
-        synchronized (LitePalSupport.class) {
+        Lock lock = DatabaseLock.writeLock();
+        lock.lock();
+        try {
             int rowsAffected;
             SQLiteDatabase db = Connector.getDatabase();
             db.beginTransaction();
@@ -796,8 +1088,10 @@ public class Operator {
                 db.setTransactionSuccessful();
                 return rowsAffected;
             } finally {
-                db.endTransaction();
+                DBUtility.endTransaction(db);
             }
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -827,9 +1121,13 @@ public class Operator {
      * @return The number of rows affected.
      */
     public static int deleteAll(String tableName, String... conditions) {
-        synchronized (LitePalSupport.class) {
+        Lock lock = DatabaseLock.writeLock();
+        lock.lock();
+        try {
             DeleteHandler deleteHandler = new DeleteHandler(Connector.getDatabase());
             return deleteHandler.onDeleteAll(tableName, conditions);
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -852,9 +1150,13 @@ public class Operator {
      * @return The number of rows affected.
      */
     public static int update(Class<?> modelClass, ContentValues values, long id) {
-        synchronized (LitePalSupport.class) {
+        Lock lock = DatabaseLock.writeLock();
+        lock.lock();
+        try {
             UpdateHandler updateHandler = new UpdateHandler(Connector.getDatabase());
             return updateHandler.onUpdate(modelClass, id, values);
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -918,9 +1220,13 @@ public class Operator {
      */
     public static int updateAll(String tableName, ContentValues values,
                                 String... conditions) {
-        synchronized (LitePalSupport.class) {
+        Lock lock = DatabaseLock.writeLock();
+        lock.lock();
+        try {
             UpdateHandler updateHandler = new UpdateHandler(Connector.getDatabase());
             return updateHandler.onUpdateAll(tableName, values, conditions);
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -950,7 +1256,9 @@ public class Operator {
      * @return True if all records in collection are saved. False none record in collection is saved. There won't be partial saved condition.
      */
     public static <T extends LitePalSupport> boolean saveAll(Collection<T> collection) {
-        synchronized (LitePalSupport.class) {
+        Lock lock = DatabaseLock.writeLock();
+        lock.lock();
+        try {
             SQLiteDatabase db = Connector.getDatabase();
             db.beginTransaction();
             try {
@@ -962,11 +1270,349 @@ public class Operator {
                 e.printStackTrace();
                 return false;
             } finally {
-                db.endTransaction();
+                DBUtility.endTransaction(db);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Inserts the models in collection, or updates the existing rows which have the same values
+     * of conflict columns. <br>
+     *
+     * <pre>
+     * LitePal.upsertAll(people, &quot;remoteId&quot;);
+     * </pre>
+     * <p>
+     * This will insert each person whose remoteId doesn't exist in Person table, and update the
+     * row of each person whose remoteId exists. The ids of rows will be assigned to the models.
+     * <br>
+     * Only the columns of model's own fields are written, associations and generic collections
+     * are not saved. Null fields are not written, and models with null values in conflict columns
+     * are always inserted. Declare a unique index on the conflict columns to get the best
+     * performance, then each model is written with a single INSERT ... ON CONFLICT DO UPDATE
+     * statement when SQLite supports it. <br>
+     * If upserting process failed by any accident, the whole action will be cancelled and your
+     * database will be <b>rolled back</b>.
+     *
+     * @param collection      Holds all models to upsert.
+     * @param conflictColumns The columns which identify a row, such as a remote id.
+     * @return True if all models in collection are upserted. False none model in collection is upserted.
+     */
+    public static <T extends LitePalSupport> boolean upsertAll(Collection<T> collection, String... conflictColumns) {
+        Lock lock = DatabaseLock.writeLock();
+        lock.lock();
+        try {
+            SQLiteDatabase db = Connector.getDatabase();
+            db.beginTransaction();
+            try {
+                SaveHandler saveHandler = new SaveHandler(db);
+                saveHandler.onUpsertAll(collection, conflictColumns);
+                db.setTransactionSuccessful();
+                return true;
+            } catch (Exception e) {
+                e.printStackTrace();
+                return false;
+            } finally {
+                DBUtility.endTransaction(db);
             }
+        } finally {
+            lock.unlock();
         }
     }
 
+    /**
+     * It is mostly same as {@link Operator#count(Class)} but runs on the read lane of
+     * {@link AsyncExecutor} and returns immediately.
+     *
+     * <pre>
+     * LitePal.countAsync(Person.class).listen(new ResultCallback&lt;Integer&gt;() {
+     *     public void onFinish(Integer count) {
+     *     }
+     *
+     *     public void onError(Throwable error) {
+     *     }
+     * });
+     * </pre>
+     *
+     * @param modelClass Which table to query from by class.
+     * @return The pending count of the specified table.
+     */
+    public static AsyncResult<Integer> countAsync(final Class<?> modelClass) {
+        return AsyncExecutor.read(new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                return count(modelClass);
+            }
+        });
+    }
+
+    /**
+     * Asynchronous version of {@link Operator#count(String)}.
+     *
+     * @param tableName Which table to query from.
+     * @return The pending count of the specified table.
+     */
+    public static AsyncResult<Integer> countAsync(final String tableName) {
+        return AsyncExecutor.read(new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                return count(tableName);
+            }
+        });
+    }
+
+    /**
+     * Asynchronous version of {@link Operator#average(Class, String)}.
+     *
+     * @param modelClass Which table to query from by class.
+     * @param column     The based on column to calculate.
+     * @return The pending average value on a given column.
+     */
+    public static AsyncResult<Double> averageAsync(final Class<?> modelClass, final String column) {
+        return AsyncExecutor.read(new Callable<Double>() {
+            @Override
+            public Double call() {
+                return average(modelClass, column);
+            }
+        });
+    }
+
+    /**
+     * Asynchronous version of {@link Operator#max(Class, String, Class)}.
+     *
+     * @param modelClass Which table to query from by class.
+     * @param columnName The based on column to calculate.
+     * @param columnType The type of the based on column.
+     * @return The pending maximum value on a given column.
+     */
+    public static <T> AsyncResult<T> maxAsync(final Class<?> modelClass, final String columnName,
+                                              final Class<T> columnType) {
+        return AsyncExecutor.read(new Callable<T>() {
+            @Override
+            public T call() {
+                return max(modelClass, columnName, columnType);
+            }
+        });
+    }
+
+    /**
+     * Asynchronous version of {@link Operator#min(Class, String, Class)}.
+     *
+     * @param modelClass Which table to query from by class.
+     * @param columnName The based on column to calculate.
+     * @param columnType The type of the based on column.
+     * @return The pending minimum value on a given column.
+     */
+    public static <T> AsyncResult<T> minAsync(final Class<?> modelClass, final String columnName,
+                                              final Class<T> columnType) {
+        return AsyncExecutor.read(new Callable<T>() {
+            @Override
+            public T call() {
+                return min(modelClass, columnName, columnType);
+            }
+        });
+    }
+
+    /**
+     * Asynchronous version of {@link Operator#sum(Class, String, Class)}.
+     *
+     * @param modelClass Which table to query from by class.
+     * @param columnName The based on column to calculate.
+     * @param columnType The type of the based on column.
+     * @return The pending sum value on a given column.
+     */
+    public static <T> AsyncResult<T> sumAsync(final Class<?> modelClass, final String columnName,
+                                              final Class<T> columnType) {
+        return AsyncExecutor.read(new Callable<T>() {
+            @Override
+            public T call() {
+                return sum(modelClass, columnName, columnType);
+            }
+        });
+    }
+
+    /**
+     * Asynchronous version of {@link Operator#find(Class, long)}.
+     *
+     * @param modelClass Which table to query and the object type to return.
+     * @param id         Which record to query.
+     * @return The pending object with found data, which can be null.
+     */
+    public static <T> AsyncResult<T> findAsync(Class<T> modelClass, long id) {
+        return findAsync(modelClass, id, false);
+    }
+
+    /**
+     * Asynchronous version of {@link Operator#find(Class, long, boolean)}.
+     *
+     * @param modelClass Which table to query and the object type to return.
+     * @param id         Which record to query.
+     * @param isEager    True to load the associated models, false not.
+     * @return The pending object with found data, which can be null.
+     */
+    public static <T> AsyncResult<T> findAsync(final Class<T> modelClass, final long id, final boolean isEager) {
+        return AsyncExecutor.read(new Callable<T>() {
+            @Override
+            public T call() {
+                return find(modelClass, id, isEager);
+            }
+        });
+    }
+
+    /**
+     * Asynchronous version of {@link Operator#findFirst(Class, boolean)}.
+     *
+     * @param modelClass Which table to query and the object type to return.
+     * @param isEager    True to load the associated models, false not.
+     * @return The pending object with data of first row, which can be null.
+     */
+    public static <T> AsyncResult<T> findFirstAsync(final Class<T> modelClass, final boolean isEager) {
+        return AsyncExecutor.read(new Callable<T>() {
+            @Override
+            public T call() {
+                return findFirst(modelClass, isEager);
+            }
+        });
+    }
+
+    /**
+     * Asynchronous version of {@link Operator#findLast(Class, boolean)}.
+     *
+     * @param modelClass Which table to query and the object type to return.
+     * @param isEager    True to load the associated models, false not.
+     * @return The pending object with data of last row, which can be null.
+     */
+    public static <T> AsyncResult<T> findLastAsync(final Class<T> modelClass, final boolean isEager) {
+        return AsyncExecutor.read(new Callable<T>() {
+            @Override
+            public T call() {
+                return findLast(modelClass, isEager);
+            }
+        });
+    }
+
+    /**
+     * Asynchronous version of {@link Operator#findAll(Class, boolean, long...)}.
+     *
+     * @param modelClass Which table to query and the object type to return as a list.
+     * @param isEager    True to load the associated models, false not.
+     * @param ids        Which records to query. Or do not pass it to find all records.
+     * @return The pending object list with found data.
+     */
+    public static <T> AsyncResult<List<T>> findAllAsync(final Class<T> modelClass, final boolean isEager,
+                                                        final long... ids) {
+        return AsyncExecutor.read(new Callable<List<T>>() {
+            @Override
+            public List<T> call() {
+                return findAll(modelClass, isEager, ids);
+            }
+        });
+    }
+
+    /**
+     * Asynchronous version of {@link Operator#delete(Class, long)}.
+     *
+     * @param modelClass Which table to delete from by class.
+     * @param id         Which record to delete.
+     * @return The pending number of rows affected.
+     */
+    public static AsyncResult<Integer> deleteAsync(final Class<?> modelClass, final long id) {
+        return AsyncExecutor.write(new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                return delete(modelClass, id);
+            }
+        });
+    }
+
+    /**
+     * Asynchronous version of {@link Operator#deleteAll(Class, String...)}.
+     *
+     * @param modelClass Which table to delete from by class.
+     * @param conditions A string array representing the WHERE part of an SQL statement.
+     * @return The pending number of rows affected.
+     */
+    public static AsyncResult<Integer> deleteAllAsync(final Class<?> modelClass, final String... conditions) {
+        return AsyncExecutor.write(new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                return deleteAll(modelClass, conditions);
+            }
+        });
+    }
+
+    /**
+     * Asynchronous version of {@link Operator#update(Class, ContentValues, long)}.
+     *
+     * @param modelClass Which table to update by class.
+     * @param values     A map from column names to new column values.
+     * @param id         Which record to update.
+     * @return The pending number of rows affected.
+     */
+    public static AsyncResult<Integer> updateAsync(final Class<?> modelClass, final ContentValues values,
+                                                   final long id) {
+        return AsyncExecutor.write(new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                return update(modelClass, values, id);
+            }
+        });
+    }
+
+    /**
+     * Asynchronous version of {@link Operator#updateAll(Class, ContentValues, String...)}.
+     *
+     * @param modelClass Which table to update by class.
+     * @param values     A map from column names to new column values.
+     * @param conditions A string array representing the WHERE part of an SQL statement.
+     * @return The pending number of rows affected.
+     */
+    public static AsyncResult<Integer> updateAllAsync(final Class<?> modelClass, final ContentValues values,
+                                                      final String... conditions) {
+        return AsyncExecutor.write(new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                return updateAll(modelClass, values, conditions);
+            }
+        });
+    }
+
+    /**
+     * Asynchronous version of {@link Operator#saveAll(Collection)}. The models in collection
+     * should not be touched until the result is delivered.
+     *
+     * @param collection Holds all models to save.
+     * @return The pending result, true if all records in collection are saved.
+     */
+    public static <T extends LitePalSupport> AsyncResult<Boolean> saveAllAsync(final Collection<T> collection) {
+        return AsyncExecutor.write(new Callable<Boolean>() {
+            @Override
+            public Boolean call() {
+                return saveAll(collection);
+            }
+        });
+    }
+
+    /**
+     * Asynchronous version of {@link Operator#upsertAll(Collection, String...)}. The models in
+     * collection should not be touched until the result is delivered.
+     *
+     * @param collection      Holds all models to upsert.
+     * @param conflictColumns The columns which identify a row, such as a remote id.
+     * @return The pending result, true if all models in collection are upserted.
+     */
+    public static <T extends LitePalSupport> AsyncResult<Boolean> upsertAllAsync(final Collection<T> collection,
+                                                                                 final String... conflictColumns) {
+        return AsyncExecutor.write(new Callable<Boolean>() {
+            @Override
+            public Boolean call() {
+                return upsertAll(collection, conflictColumns);
+            }
+        });
+    }
+
     /**
      * Provide a way to mark all models in collection as deleted. This means these models' save
      * state is no longer exist anymore. If save them again, they will be treated as inserting new
@@ -0,0 +1,176 @@
+package com.litepal;
+
+import java.util.Date;
+
+/**
+ * Describes where the next page starts in keyset pagination. Instead of skipping rows by offset,
+ * keyset pagination remembers the sort key of the last row in current page, and the next page
+ * is queried by comparing with it, so SQLite can seek to the start of page by index directly no
+ * matter how deep the page is.
+ * <p>
+ * The rows are sorted by the specified column, and by id when values of the column are equal,
+ * so that the order is always stable even if the column is not unique.
+ *
+ * <pre>
+ * PageToken token = PageToken.ascending(&quot;name&quot;);
+ * List&lt;Person&gt; page = LitePal.page(token).limit(20).find(Person.class);
+ * Person last = page.get(page.size() - 1);
+ * token = token.next(last.getName(), last.getId());
+ * List&lt;Person&gt; nextPage = LitePal.page(token).limit(20).find(Person.class);
+ * </pre>
+ *
+ * @author Tony Green
+ * @since 3.0
+ */
+public final class PageToken {
+    /**
+     * The column to sort by.
+     */
+    private final String column;
+    /**
+     * The column value of the last row in previous page. Null means the first page.
+     */
+    private final String lastValue;
+    /**
+     * The id of the last row in previous page.
+     */
+    private final long lastId;
+    /**
+     * Sort in descending order or not.
+     */
+    private final boolean descending;
+    /**
+     * Indicates that this token points to the first page.
+     */
+    private final boolean firstPage;
+
+    private PageToken(String column, String lastValue, long lastId, boolean descending, boolean firstPage) {
+        this.column = column;
+        this.lastValue = lastValue;
+        this.lastId = lastId;
+        this.descending = descending;
+        this.firstPage = firstPage;
+    }
+
+    /**
+     * Create a token pointing to the first page sorted by the column in ascending order.
+     *
+     * @param column The column to sort by. Use id to sort by id only.
+     * @return A token of the first page.
+     */
+    public static PageToken ascending(String column) {
+        return new PageToken(column, null, 0, false, true);
+    }
+
+    /**
+     * Create a token pointing to the first page sorted by the column in descending order.
+     *
+     * @param column The column to sort by. Use id to sort by id only.
+     * @return A token of the first page.
+     */
+    public static PageToken descending(String column) {
+        return new PageToken(column, null, 0, true, true);
+    }
+
+    /**
+     * Create a token pointing to the page after the row with passed in values, keeping the column
+     * and the order of current token.
+     *
+     * @param lastValue The column value of the last row in current page.
+     * @param lastId    The id of the last row in current page.
+     * @return A token of the next page.
+     */
+    public PageToken next(Object lastValue, long lastId) {
+        return new PageToken(column, toArgument(lastValue), lastId, descending, false);
+    }
+
+    public String getColumn() {
+        return column;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    /**
+     * Build the WHERE clause of the page. The place holders should be replaced by
+     * {@link #getWhereArgs()}.
+     *
+     * @return The WHERE clause, or null if this token points to the first page.
+     */
+    String getWhereClause() {
+        if (firstPage) {
+            return null;
+        }
+        String operator = descending ? " < ?" : " > ?";
+        if (isIdColumn()) {
+            return "id" + operator;
+        }
+        if (lastValue == null) {
+            // null sorts first in SQLite, so all non-null values come after it.
+            if (descending) {
+                return "(" + column + " is null and id < ?)";
+            }
+            return "(" + column + " is not null or id > ?)";
+        }
+        if (descending) {
+            // null sorts last in descending order, so all the null values come after it.
+            return "(" + column + operator + " or (" + column + " = ? and id" + operator + ") or "
+                    + column + " is null)";
+        }
+        return "(" + column + operator + " or (" + column + " = ? and id" + operator + "))";
+    }
+
+    /**
+     * Get the arguments to fill into the WHERE clause.
+     *
+     * @return The arguments of WHERE clause.
+     */
+    String[] getWhereArgs() {
+        if (firstPage) {
+            return new String[0];
+        }
+        String id = String.valueOf(lastId);
+        if (isIdColumn() || lastValue == null) {
+            return new String[]{id};
+        }
+        return new String[]{lastValue, lastValue, id};
+    }
+
+    /**
+     * Build the ORDER BY clause of the page.
+     *
+     * @return The ORDER BY clause.
+     */
+    String getOrderBy() {
+        String direction = descending ? " desc" : "";
+        if (isIdColumn()) {
+            return "id" + direction;
+        }
+        return column + direction + ", id" + direction;
+    }
+
+    private boolean isIdColumn() {
+        return "id".equalsIgnoreCase(column) || "_id".equalsIgnoreCase(column);
+    }
+
+    /**
+     * Convert the value into the string form which compares with column values correctly.
+     * Date is stored as milliseconds and boolean is stored as 1 or 0.
+     *
+     * @param value The value to convert.
+     * @return The converted value, or null if the value is null.
+     */
+    private static String toArgument(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Date) {
+            return String.valueOf(((Date) value).getTime());
+        }
+        if (value instanceof Boolean) {
+            return (Boolean) value ? "1" : "0";
+        }
+        return String.valueOf(value);
+    }
+}
@@ -0,0 +1,27 @@
+package com.litepal.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Used for caching the models of a class in memory after they are found by id. Suits reference
+ * data which is read a lot and rarely changed. The cached rows are dropped whenever they are
+ * written through LitePal, but the changes made by raw SQL are not noticed.
+ * <p>
+ * Only lazy finds by id are served from the cache. The models which have generic collections of
+ * their own class can not be cached. The same can be configured in litepal.xml by
+ * &lt;cache class="com.example.Country" size="200" /&gt;.
+ *
+ * @author Tony Green
+ * @since 3.0
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Cacheable {
+    /**
+     * Set the max number of models to cache. The least recently used ones are evicted first.
+     */
+    int size() default 100;
+}
@@ -18,4 +18,13 @@ public @interface Encrypt {
      * Set the algorithm for encryption.
      */
     String algorithm();
+
+    /**
+     * Set true to keep a blind index of the field, which is a keyed hash of the plain text stored
+     * in a companion indexed column. Then the equality filters on the field, such as
+     * <code>email = ?</code> and <code>email in (?, ?)</code>, are rewritten to use the index
+     * when finding models. Only works with AES algorithm. Rows saved before enabling it are
+     * indexed when the database is upgraded.
+     */
+    boolean blindIndex() default false;
 }
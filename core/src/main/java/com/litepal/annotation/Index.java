@@ -0,0 +1,37 @@
+package com.litepal.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Used for creating an index in the table. Declare it on a field to index the column of the
+ * field, or declare it on a model class with {@link #columns()} to create a composite index.
+ * Use {@link Indexes} to declare more than one composite index on a model class.
+ * <p>
+ * The indexes are created along with the table, and they will be added or dropped automatically
+ * when the annotations are changed and database version is upgraded.
+ *
+ * @author Tony Green
+ * @since 3.0
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.TYPE})
+public @interface Index {
+    /**
+     * Set the name of the index. The name will be prefixed with the table name. The column names
+     * will be used if it's not set.
+     */
+    String name() default "";
+
+    /**
+     * Set the fields which the index is created on. Only works when declared on a model class.
+     */
+    String[] columns() default {};
+
+    /**
+     * Create a unique index or not.
+     */
+    boolean unique() default false;
+}
@@ -0,0 +1,21 @@
+package com.litepal.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Used for declaring multiple composite indexes on a model class.
+ *
+ * @author Tony Green
+ * @since 3.0
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Indexes {
+    /**
+     * The indexes to create.
+     */
+    Index[] value();
+}
@@ -0,0 +1,196 @@
+package com.litepal.crud;
+
+import android.database.Cursor;
+
+import com.litepal.exceptions.LitePalSupportException;
+
+/**
+ * The result of calculating aggregates in one query, kept by column. Each row is a group when
+ * the query is grouped, or the only row otherwise. Group columns are read as the type stored in
+ * database, which is Long, Double, String, byte[] or null. Aggregate values are read both as long
+ * and as double, so count can be read as long and average as double without boxing.
+ *
+ * <pre>
+ * AggregateResult result = LitePal.groupBy(&quot;category&quot;).aggregate(Product.class,
+ *         Aggregate.count(), Aggregate.average(&quot;price&quot;));
+ * Object[] categories = result.getGroupValues(&quot;category&quot;);
+ * long[] counts = result.getLongs(&quot;count&quot;);
+ * double[] prices = result.getDoubles(&quot;avg_price&quot;);
+ * </pre>
+ *
+ * @author Tony Green
+ * @since 3.0
+ */
+public final class AggregateResult {
+    /**
+     * The columns grouped by.
+     */
+    private final String[] groupColumns;
+    /**
+     * The names of aggregates.
+     */
+    private final String[] names;
+    /**
+     * The values of each group column.
+     */
+    private final Object[][] groupValues;
+    /**
+     * The values of each aggregate read as long.
+     */
+    private final long[][] longValues;
+    /**
+     * The values of each aggregate read as double.
+     */
+    private final double[][] doubleValues;
+    /**
+     * Indicates the value of each aggregate is null or not.
+     */
+    private final boolean[][] nullValues;
+    /**
+     * The number of rows.
+     */
+    private int size;
+
+    AggregateResult(String[] groupColumns, String[] names, int capacity) {
+        this.groupColumns = groupColumns;
+        this.names = names;
+        groupValues = new Object[groupColumns.length][capacity];
+        longValues = new long[names.length][capacity];
+        doubleValues = new double[names.length][capacity];
+        nullValues = new boolean[names.length][capacity];
+    }
+
+    /**
+     * Read the current row of cursor, whose columns are the group columns followed by the
+     * aggregates.
+     *
+     * @param cursor The cursor moved to the row to read.
+     */
+    void read(Cursor cursor) {
+        for (int i = 0; i < groupColumns.length; i++) {
+            groupValues[i][size] = readGroupValue(cursor, i);
+        }
+        for (int i = 0; i < names.length; i++) {
+            int columnIndex = groupColumns.length + i;
+            if (cursor.isNull(columnIndex)) {
+                nullValues[i][size] = true;
+            } else {
+                longValues[i][size] = cursor.getLong(columnIndex);
+                doubleValues[i][size] = cursor.getDouble(columnIndex);
+            }
+        }
+        size++;
+    }
+
+    /**
+     * Get the number of rows, which is the number of groups if the query is grouped.
+     *
+     * @return The number of rows.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the values of a group column.
+     *
+     * @param column The column grouped by, as passed to groupBy.
+     * @return The values of the column in each row.
+     */
+    public Object[] getGroupValues(String column) {
+        Object[] values = new Object[size];
+        System.arraycopy(groupValues[indexOf(groupColumns, column)], 0, values, 0, size);
+        return values;
+    }
+
+    /**
+     * Get the values of an aggregate as long. Null values are 0.
+     *
+     * @param name The name of aggregate.
+     * @return The values of the aggregate in each row.
+     */
+    public long[] getLongs(String name) {
+        long[] values = new long[size];
+        System.arraycopy(longValues[indexOf(names, name)], 0, values, 0, size);
+        return values;
+    }
+
+    /**
+     * Get the values of an aggregate as double. Null values are 0.
+     *
+     * @param name The name of aggregate.
+     * @return The values of the aggregate in each row.
+     */
+    public double[] getDoubles(String name) {
+        double[] values = new double[size];
+        System.arraycopy(doubleValues[indexOf(names, name)], 0, values, 0, size);
+        return values;
+    }
+
+    /**
+     * Get the value of an aggregate in a row as long.
+     *
+     * @param name The name of aggregate.
+     * @param row  The index of row.
+     * @return The value, or 0 if it's null.
+     */
+    public long getLong(String name, int row) {
+        checkRow(row);
+        return longValues[indexOf(names, name)][row];
+    }
+
+    /**
+     * Get the value of an aggregate in a row as double.
+     *
+     * @param name The name of aggregate.
+     * @param row  The index of row.
+     * @return The value, or 0 if it's null.
+     */
+    public double getDouble(String name, int row) {
+        checkRow(row);
+        return doubleValues[indexOf(names, name)][row];
+    }
+
+    /**
+     * Check if the value of an aggregate in a row is null, such as the sum of a group whose
+     * values are all null.
+     *
+     * @param name The name of aggregate.
+     * @param row  The index of row.
+     * @return True if the value is null, false otherwise.
+     */
+    public boolean isNull(String name, int row) {
+        checkRow(row);
+        return nullValues[indexOf(names, name)][row];
+    }
+
+    private Object readGroupValue(Cursor cursor, int columnIndex) {
+        switch (cursor.getType(columnIndex)) {
+            case Cursor.FIELD_TYPE_INTEGER:
+                return cursor.getLong(columnIndex);
+            case Cursor.FIELD_TYPE_FLOAT:
+                return cursor.getDouble(columnIndex);
+            case Cursor.FIELD_TYPE_STRING:
+                return cursor.getString(columnIndex);
+            case Cursor.FIELD_TYPE_BLOB:
+                return cursor.getBlob(columnIndex);
+            default:
+                return null;
+        }
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " is out of " + size + " rows.");
+        }
+    }
+
+    private int indexOf(String[] columns, String name) {
+        for (int i = 0; i < columns.length; i++) {
+            if (columns[i].equalsIgnoreCase(name)) {
+                return i;
+            }
+        }
+        throw new LitePalSupportException(LitePalSupportException.noAggregateResult(name));
+    }
+}
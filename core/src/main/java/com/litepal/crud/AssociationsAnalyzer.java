@@ -19,6 +19,19 @@ import com.litepal.util.DBUtility;
  * @since 1.1
  */
 abstract class AssociationsAnalyzer extends DataHandler {
+    /**
+     * The reverse association collections built in current operation.
+     */
+    private final ReverseAssociations reverseAssociations;
+
+    /**
+     * @param reverseAssociations The reverse association collections shared by the analyzers of
+     *                            current operation.
+     */
+    AssociationsAnalyzer(ReverseAssociations reverseAssociations) {
+        this.reverseAssociations = reverseAssociations;
+    }
+
     /**
      * Get the associated models collection of associated model. Used for
      * reverse searching associations.
@@ -93,6 +106,38 @@ abstract class AssociationsAnalyzer extends DataHandler {
         return collection;
     }
 
+    /**
+     * Add baseObj into the associated models collection of associated model if it's not in yet.
+     * The collection is read, initialized by
+     * {@link #checkAssociatedModelCollection(java.util.Collection, java.lang.reflect.Field)} and
+     * set back into associated model only the first time the associated model is met in current
+     * operation. Later calls reuse it.
+     *
+     * @param associatedModel The associated model of baseObj.
+     * @param associationInfo To get reverse associated models collection.
+     * @param baseObj         The baseObj currently want to persist or update.
+     * @throws SecurityException
+     * @throws IllegalArgumentException
+     * @throws NoSuchMethodException
+     * @throws IllegalAccessException
+     * @throws java.lang.reflect.InvocationTargetException
+     */
+    protected void addReverseAssociatedModel(LitePalSupport associatedModel, AssociationsInfo associationInfo,
+                                             LitePalSupport baseObj) throws SecurityException, IllegalArgumentException,
+            NoSuchMethodException, IllegalAccessException, InvocationTargetException {
+        Field field = associationInfo.getAssociateSelfFromOtherModel();
+        ReverseAssociations.Entry entry = reverseAssociations.get(associatedModel, field);
+        if (entry == null) {
+            Collection<LitePalSupport> tempCollection = getReverseAssociatedModels(associatedModel,
+                    associationInfo);
+            Collection<LitePalSupport> reverseAssociatedModels = checkAssociatedModelCollection(
+                    tempCollection, field);
+            setReverseAssociatedModels(associatedModel, associationInfo, reverseAssociatedModels);
+            entry = reverseAssociations.put(associatedModel, field, reverseAssociatedModels);
+        }
+        entry.add(baseObj);
+    }
+
     /**
      * Build the bidirectional association by setting the baseObj instance to
      * the associated model.
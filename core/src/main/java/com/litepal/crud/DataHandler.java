@@ -1,8 +1,14 @@
 package com.litepal.crud;
 
 import android.content.ContentValues;
+import android.database.AbstractWindowedCursor;
 import android.database.Cursor;
+import android.database.CursorWindow;
+import android.database.sqlite.SQLiteConstraintException;
 import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteProgram;
+import android.database.sqlite.SQLiteStatement;
+import android.text.TextUtils;
 import android.util.Log;
 import android.util.SparseArray;
 
@@ -10,9 +16,10 @@ import com.litepal.annotation.Column;
 import com.litepal.annotation.Encrypt;
 import com.litepal.exceptions.DatabaseGenerateException;
 import com.litepal.exceptions.LitePalSupportException;
+import com.litepal.tablemanager.StatementCache;
 import com.litepal.tablemanager.model.GenericModel;
 import com.litepal.LitePalBase;
-import com.litepal.Operator;
+import com.litepal.ModelMetadata;
 import com.litepal.crud.model.AssociationsInfo;
 import com.litepal.util.BaseUtility;
 import com.litepal.util.Const;
@@ -23,14 +30,24 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import static com.litepal.util.BaseUtility.changeCase;
 
@@ -43,6 +60,11 @@ import static com.litepal.util.BaseUtility.changeCase;
  */
 abstract class DataHandler extends LitePalBase {
     public static final String TAG = "DataHandler";
+    /**
+     * The compiled patterns of equality filters on the blind indexed columns. Key is the column
+     * name.
+     */
+    private static final Map<String, Pattern> blindIndexPatterns = new ConcurrentHashMap<String, Pattern>();
     /**
      * Instance of SQLiteDatabase, use to do the CRUD job.
      */
@@ -52,6 +74,15 @@ abstract class DataHandler extends LitePalBase {
      * field is with default value or not.
      */
     private LitePalSupport tempEmptyModel;
+    /**
+     * When true, the AES encrypted String fields keep the cipher text while rows are read, and
+     * they are decrypted together by {@link #decryptModels(List, SparseArray)} afterwards.
+     */
+    private boolean deferDecryption;
+    /**
+     * The reverse association collections built by the analyzers in the operation of this handler.
+     */
+    private ReverseAssociations reverseAssociations;
     /**
      * Holds the AssociationsInfo which foreign keys in the current model.
      */
@@ -60,6 +91,11 @@ abstract class DataHandler extends LitePalBase {
      * Holds the AssociationsInfo which foreign keys in other models.
      */
     private List<AssociationsInfo> fkInOtherModel;
+    /**
+     * Alias of the column which holds the id of the owner model when loading many2many associated
+     * models through intermediate join table.
+     */
+    private static final String OWNER_ID_COLUMN = "litepal_owner_id";
 
     /**
      * Query the table of the given model, returning a model list over the
@@ -100,38 +136,505 @@ abstract class DataHandler extends LitePalBase {
         Cursor cursor = null;
         try {
             List<Field> supportedFields = getSupportedFields(modelClass.getName());
-            List<Field> supportedGenericFields = getSupportedGenericFields(modelClass.getName());
+            // customized columns may narrow the generic fields, so work on a copy of the shared list.
+            List<Field> supportedGenericFields = new ArrayList<Field>(getSupportedGenericFields(modelClass.getName()));
             String[] customizedColumns = DBUtility.convertSelectClauseToValidNames(getCustomizedColumns(columns, supportedGenericFields, foreignKeyAssociations));
             String tableName = getTableName(modelClass);
+            int entityCacheSize = getEntityCacheSize(modelClass);
+            long cacheGeneration = entityCacheSize > 0 ? EntityCache.getGeneration(tableName) : 0;
             cursor = mDatabase.query(tableName, customizedColumns, selection, selectionArgs,
                     groupBy, having, orderBy, limit);
             if (cursor.moveToFirst()) {
                 SparseArray<QueryInfoCache> queryInfoCacheSparseArray = new SparseArray<QueryInfoCache>();
                 Map<Field, GenericModel> genericModelMap = new HashMap<Field, GenericModel>();
-                do {
-                    T modelInstance = (T) createInstanceFromClass(modelClass);
-                    giveBaseObjIdValue((LitePalSupport) modelInstance,
-                            cursor.getLong(cursor.getColumnIndexOrThrow("id")));
-                    setValueToModel(modelInstance, supportedFields, foreignKeyAssociations, cursor, queryInfoCacheSparseArray);
-                    setGenericValueToModel((LitePalSupport) modelInstance, supportedGenericFields, genericModelMap);
-                    if (foreignKeyAssociations != null) {
-                        setAssociatedModel((LitePalSupport) modelInstance);
+                // foreign key value -> models, for each association which holds foreign key in current model.
+                List<Map<Long, List<LitePalSupport>>> foreignKeyModels = null;
+                if (foreignKeyAssociations != null) {
+                    foreignKeyModels = new ArrayList<Map<Long, List<LitePalSupport>>>();
+                    for (int i = 0; i < foreignKeyAssociations.size(); i++) {
+                        foreignKeyModels.add(new HashMap<Long, List<LitePalSupport>>());
                     }
-                    dataList.add(modelInstance);
-                } while (cursor.moveToNext());
+                }
+                // only the models with all columns and without associations can be shared in session.
+                Session session = columns == null && groupBy == null && foreignKeyAssociations == null
+                        ? Session.current() : null;
+                List<LitePalSupport> loadedModels = session == null ? (List<LitePalSupport>) dataList : new ArrayList<LitePalSupport>();
+                int idColumnIndex = cursor.getColumnIndexOrThrow("id");
+                deferDecryption = true;
+                boolean parallel = session == null && foreignKeyAssociations == null
+                        && ParallelHydration.isEnabledFor(cursor.getCount());
+                if (parallel) {
+                    resolveQueryInfo(supportedFields, cursor, queryInfoCacheSparseArray);
+                    hydrateInParallel(modelClass, cursor, idColumnIndex, queryInfoCacheSparseArray, loadedModels);
+                } else {
+                    do {
+                        long id = cursor.getLong(idColumnIndex);
+                        T modelInstance = session == null ? null : session.get(modelClass, id);
+                        if (modelInstance != null) {
+                            // the row is materialized in session already, no need to read it again.
+                            dataList.add(modelInstance);
+                            continue;
+                        }
+                        modelInstance = (T) createInstanceFromClass(modelClass);
+                        giveBaseObjIdValue((LitePalSupport) modelInstance, id);
+                        setValueToModel(modelInstance, supportedFields, cursor, queryInfoCacheSparseArray);
+                        if (foreignKeyAssociations != null) {
+                            collectForeignKeyValues((LitePalSupport) modelInstance, foreignKeyAssociations, foreignKeyModels, cursor);
+                        }
+                        dataList.add(modelInstance);
+                        if (session != null) {
+                            loadedModels.add((LitePalSupport) modelInstance);
+                            session.put((LitePalSupport) modelInstance);
+                        }
+                    } while (cursor.moveToNext());
+                    decryptModels(loadedModels, queryInfoCacheSparseArray);
+                }
+                deferDecryption = false;
                 queryInfoCacheSparseArray.clear();
+                cursor.close();
+                cursor = null;
+                setGenericValueToModels(loadedModels, supportedGenericFields, genericModelMap);
                 genericModelMap.clear();
+                if (foreignKeyAssociations != null) {
+                    setForeignKeyAssociatedModels(foreignKeyAssociations, foreignKeyModels);
+                    setAssociatedModels(loadedModels);
+                }
+                if (columns == null && groupBy == null) {
+                    putIntoEntityCache(tableName, entityCacheSize, cacheGeneration, loadedModels, supportedFields,
+                            supportedGenericFields);
+                }
             }
             return dataList;
         } catch (Exception e) {
             throw new LitePalSupportException(e.getMessage(), e);
         } finally {
+            deferDecryption = false;
             if (cursor != null) {
                 cursor.close();
             }
         }
     }
 
+    /**
+     * Read all the rows of cursor on current thread, then build the models from the read values
+     * on the threads of {@link ParallelHydration}. Each thread builds and decrypts a chunk of
+     * consecutive rows, and the chunks are added into models in the order of rows.
+     *
+     * @param modelClass    The class of models to build.
+     * @param cursor        The cursor which is moved to the first row.
+     * @param idColumnIndex The column index of id.
+     * @param sparseArray   The query information of the columns to read. Not modified while the
+     *                      models are being built.
+     * @param models        The list to add built models into.
+     * @throws Exception
+     */
+    private void hydrateInParallel(final Class<?> modelClass, Cursor cursor, int idColumnIndex,
+                                   final SparseArray<QueryInfoCache> sparseArray, List<LitePalSupport> models)
+            throws Exception {
+        final int rowCount = cursor.getCount();
+        final int columnCount = sparseArray.size();
+        final long[] ids = new long[rowCount];
+        // values of all rows in one array, row by row, to avoid an object per row.
+        final Object[] values = new Object[rowCount * columnCount];
+        int rowIndex = 0;
+        do {
+            ids[rowIndex] = cursor.getLong(idColumnIndex);
+            int offset = rowIndex * columnCount;
+            for (int i = 0; i < columnCount; i++) {
+                values[offset + i] = getCursorValue(cursor, sparseArray.keyAt(i), sparseArray.valueAt(i).getMethodName);
+            }
+            rowIndex++;
+        } while (rowIndex < rowCount && cursor.moveToNext());
+        final int readCount = rowIndex;
+        int chunkSize = ParallelHydration.getChunkSize(readCount);
+        ExecutorService executor = ParallelHydration.getExecutor();
+        List<Future<List<LitePalSupport>>> futures = new ArrayList<Future<List<LitePalSupport>>>();
+        boolean completed = false;
+        try {
+            for (int start = 0; start < readCount; start += chunkSize) {
+                final int from = start;
+                final int to = Math.min(readCount, start + chunkSize);
+                futures.add(executor.submit(new Callable<List<LitePalSupport>>() {
+                    @Override
+                    public List<LitePalSupport> call() throws Exception {
+                        List<LitePalSupport> chunk = new ArrayList<LitePalSupport>(to - from);
+                        for (int row = from; row < to; row++) {
+                            LitePalSupport model = (LitePalSupport) createInstanceFromClass(modelClass);
+                            giveBaseObjIdValue(model, ids[row]);
+                            int offset = row * columnCount;
+                            for (int i = 0; i < columnCount; i++) {
+                                Field field = sparseArray.valueAt(i).field;
+                                setColumnValueToModel(model, field, values[offset + i]);
+                                values[offset + i] = null;
+                                recordFieldSnapshot(model, field);
+                            }
+                            chunk.add(model);
+                        }
+                        decryptModels(chunk, sparseArray);
+                        return chunk;
+                    }
+                }));
+            }
+            for (Future<List<LitePalSupport>> future : futures) {
+                models.addAll(future.get());
+            }
+            completed = true;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw (Exception) cause;
+        } finally {
+            if (!completed) {
+                for (Future<List<LitePalSupport>> future : futures) {
+                    future.cancel(true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Decrypt the AES encrypted String fields of the models which are read with decryption
+     * deferred. The values of one field in all the models are decrypted in one go, then the plain
+     * values are set back and recorded in snapshots.
+     *
+     * @param models      The models just read.
+     * @param sparseArray The query information of the columns which are read.
+     * @throws NoSuchMethodException
+     * @throws IllegalAccessException
+     * @throws InvocationTargetException
+     */
+    private void decryptModels(List<LitePalSupport> models, SparseArray<QueryInfoCache> sparseArray)
+            throws NoSuchMethodException, IllegalAccessException, InvocationTargetException {
+        if (models.isEmpty()) {
+            return;
+        }
+        String[] values = null;
+        for (int i = 0; i < sparseArray.size(); i++) {
+            Field field = sparseArray.valueAt(i).field;
+            if (!isAESEncrypted(field)) {
+                continue;
+            }
+            if (values == null) {
+                values = new String[models.size()];
+            }
+            for (int j = 0; j < values.length; j++) {
+                values[j] = (String) getFieldValue(models.get(j), field);
+            }
+            CipherUtil.aesDecrypt(values);
+            for (int j = 0; j < values.length; j++) {
+                LitePalSupport model = models.get(j);
+                DynamicExecutor.setField(model, field.getName(), values[j], model.getClass());
+                recordFieldSnapshot(model, field);
+            }
+        }
+    }
+
+    /**
+     * Check if the field is a String field encrypted by AES.
+     *
+     * @param field The field to check.
+     * @return True if the field is encrypted by AES, false otherwise.
+     */
+    private boolean isAESEncrypted(Field field) {
+        Encrypt annotation = field.getAnnotation(Encrypt.class);
+        return annotation != null && field.getType() == String.class
+                && LitePalSupport.AES.equalsIgnoreCase(annotation.algorithm());
+    }
+
+    /**
+     * Called after a row of the table is updated or deleted, so that the models of the row kept
+     * in memory can be dropped.
+     *
+     * @param tableName The table which is written.
+     * @param id        The id of row which is written.
+     */
+    protected void onRowChanged(String tableName, long id) {
+        Session session = Session.current();
+        if (session != null) {
+            session.remove(tableName, id);
+        }
+        EntityCache.remove(tableName, id);
+        invalidateQueryCache(tableName);
+    }
+
+    /**
+     * Called after the model is inserted or updated into its own row. The model becomes the
+     * instance of the row kept in memory.
+     *
+     * @param baseObj The model which is written. Must be saved already.
+     */
+    protected void onModelWritten(LitePalSupport baseObj) {
+        onRowChanged(baseObj.getTableName(), baseObj.getBaseObjId());
+        Session session = Session.current();
+        if (session != null) {
+            session.put(baseObj);
+        }
+    }
+
+    /**
+     * Called after rows of the table are written by conditions or as associations, which can not
+     * be told by id, so that all the models of the table kept in memory can be dropped.
+     *
+     * @param tableName The table which is written.
+     */
+    protected void onTableChanged(String tableName) {
+        Session session = Session.current();
+        if (session != null) {
+            session.removeAll(tableName);
+        }
+        EntityCache.removeAll(tableName);
+        invalidateQueryCache(tableName);
+    }
+
+    /**
+     * Discard the cached query results of the written table. If the table is written in a
+     * transaction, the caches of the table are invalidated again when the transaction ends.
+     *
+     * @param tableName The table which is written.
+     */
+    private void invalidateQueryCache(String tableName) {
+        QueryCache.invalidate(tableName);
+        if (mDatabase.inTransaction()) {
+            EntityCache.removeAllOnTransactionEnd(tableName);
+            QueryCache.invalidateOnTransactionEnd(tableName);
+        }
+    }
+
+    /**
+     * Get the max number of models to cache by id for the class. The classes which have generic
+     * collections of their own class are never cached, because the elements are models loaded
+     * separately and can't be copied along with the owner.
+     *
+     * @param modelClass The model class.
+     * @return The cache size, or 0 if the class is not cached.
+     */
+    protected int getEntityCacheSize(Class<?> modelClass) {
+        int size = EntityCache.getCacheSize(modelClass);
+        if (size > 0) {
+            for (Field field : getSupportedGenericFields(modelClass.getName())) {
+                if (modelClass.getName().equals(getGenericTypeName(field))) {
+                    return 0;
+                }
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Find the model of the row in entity cache.
+     *
+     * @param modelClass The model class.
+     * @param id         The id of row.
+     * @return A new copy of the cached model, or null if the row is not cached.
+     */
+    @SuppressWarnings("unchecked")
+    protected <T> T getFromEntityCache(Class<T> modelClass, long id) {
+        if (getEntityCacheSize(modelClass) == 0) {
+            return null;
+        }
+        LitePalSupport cached = EntityCache.get(getTableName(modelClass), id);
+        if (cached == null) {
+            return null;
+        }
+        try {
+            return (T) copyModel(cached, getSupportedFields(modelClass.getName()),
+                    getSupportedGenericFields(modelClass.getName()));
+        } catch (Exception e) {
+            throw new LitePalSupportException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Put copies of the models which are just loaded with all columns into entity cache. Nothing
+     * is cached inside a transaction, since the loaded rows might be rolled back.
+     *
+     * @param tableName              The table of models.
+     * @param size                   The entity cache size of the model class.
+     * @param generation             The generation of table captured before the models are queried.
+     * @param models                 The models which are just loaded.
+     * @param supportedFields        List of all supported fields.
+     * @param supportedGenericFields List of all supported generic fields.
+     */
+    private void putIntoEntityCache(String tableName, int size, long generation, List<LitePalSupport> models,
+                                    List<Field> supportedFields, List<Field> supportedGenericFields)
+            throws NoSuchMethodException, IllegalAccessException, InvocationTargetException, NoSuchFieldException {
+        if (size == 0 || models.isEmpty() || mDatabase.inTransaction()) {
+            return;
+        }
+        for (LitePalSupport model : models) {
+            EntityCache.put(tableName, size, generation, copyModel(model, supportedFields, supportedGenericFields));
+        }
+    }
+
+    /**
+     * Create a detached copy of the model with the same id, field values, generic collections and
+     * snapshot. Dates and byte arrays are copied since they are mutable, and the associated
+     * models are not copied.
+     *
+     * @param model                  The model to copy.
+     * @param supportedFields        List of all supported fields.
+     * @param supportedGenericFields List of all supported generic fields.
+     * @return The copy of the model.
+     */
+    protected LitePalSupport copyModel(LitePalSupport model, List<Field> supportedFields, List<Field> supportedGenericFields)
+            throws NoSuchMethodException, IllegalAccessException, InvocationTargetException, NoSuchFieldException {
+        LitePalSupport copy = (LitePalSupport) createInstanceFromClass(model.getClass());
+        giveBaseObjIdValue(copy, model.getBaseObjId());
+        for (Field field : supportedFields) {
+            Object value = getFieldValue(model, field);
+            if (value instanceof Date) {
+                value = new Date(((Date) value).getTime());
+            } else if (value instanceof byte[]) {
+                value = ((byte[]) value).clone();
+            }
+            setFieldValue(copy, field, value);
+        }
+        for (Field field : supportedGenericFields) {
+            Collection<?> collection = (Collection<?>) getFieldValue(model, field);
+            if (collection != null) {
+                Collection<Object> copiedCollection;
+                if (isList(field.getType())) {
+                    copiedCollection = new ArrayList<Object>(collection);
+                } else {
+                    copiedCollection = new HashSet<Object>(collection);
+                }
+                setFieldValue(copy, field, copiedCollection);
+            }
+        }
+        Map<String, Object> snapshot = model.getFieldsSnapshot();
+        if (snapshot != null) {
+            for (Map.Entry<String, Object> entry : snapshot.entrySet()) {
+                copy.putFieldSnapshot(entry.getKey(), entry.getValue());
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Query the table of the given model, returning an iterator which creates models from the
+     * result set lazily. The associated models are never loaded.
+     *
+     * @param modelClass    The model to compile the query against.
+     * @param columns       A list of which columns to return. Passing null will return all columns.
+     * @param selection     A filter declaring which rows to return, formatted as an SQL WHERE
+     *                      clause (excluding the WHERE itself). Passing null will return all rows.
+     * @param selectionArgs You may include ?s in selection, which will be replaced by the values
+     *                      from selectionArgs.
+     * @param orderBy       How to order the rows, formatted as an SQL ORDER BY clause.
+     * @param limit         Limits the number of rows returned by the query, formatted as LIMIT clause.
+     * @param reuseInstance True to fill the same model instance for each row.
+     * @return An iterator over the result set.
+     */
+    protected <T> ModelIterator<T> iterate(Class<T> modelClass, String[] columns, String selection,
+                                           String[] selectionArgs, String orderBy, String limit, boolean reuseInstance) {
+        List<Field> supportedFields = getSupportedFields(modelClass.getName());
+        List<Field> supportedGenericFields = new ArrayList<Field>(getSupportedGenericFields(modelClass.getName()));
+        String[] customizedColumns = DBUtility.convertSelectClauseToValidNames(getCustomizedColumns(columns, supportedGenericFields, null));
+        Cursor cursor = mDatabase.query(getTableName(modelClass), customizedColumns, selection, selectionArgs,
+                null, null, orderBy, limit);
+        return new ModelIterator<T>(this, modelClass, cursor, supportedFields, supportedGenericFields, reuseInstance);
+    }
+
+    /**
+     * Read a model from the current row of cursor. The generic values are not read, they are
+     * loaded for many rows at a time by {@link #readGenericValues}.
+     *
+     * @param modelClass      The model class to create instance from.
+     * @param modelInstance   The instance to fill. Pass null to create a new one.
+     * @param cursor          The cursor which points to the row to read.
+     * @param supportedFields List of all supported fields.
+     * @param sparseArray     Cache of the query information.
+     * @return The model filled with data of current row.
+     */
+    @SuppressWarnings("unchecked")
+    <T> T readModel(Class<T> modelClass, T modelInstance, Cursor cursor, List<Field> supportedFields,
+                    SparseArray<QueryInfoCache> sparseArray) {
+        try {
+            if (modelInstance == null) {
+                modelInstance = (T) createInstanceFromClass(modelClass);
+            }
+            giveBaseObjIdValue((LitePalSupport) modelInstance,
+                    cursor.getLong(cursor.getColumnIndexOrThrow("id")));
+            setValueToModel(modelInstance, supportedFields, cursor, sparseArray);
+            return modelInstance;
+        } catch (Exception e) {
+            throw new LitePalSupportException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Load the generic values of the rows from the current one to the end of the cursor window,
+     * into the holder models which have the ids of those rows. Each generic table is queried
+     * once for the whole window, instead of once for each row.
+     *
+     * @param modelClass             The model class to create holders from.
+     * @param cursor                 The cursor which points to the first row to load.
+     * @param supportedGenericFields List of all supported generic fields.
+     * @param genericModelMap        Cache of the generic table information.
+     * @param holders                The holders of the loaded rows in order, starting from the
+     *                               current row. Existing holders are reused if reuseHolders is
+     *                               true, or replaced by new instances otherwise.
+     * @param reuseHolders           True to refill the existing holders, false to create new ones.
+     * @return The number of rows loaded.
+     */
+    int readGenericValues(Class<?> modelClass, Cursor cursor, List<Field> supportedGenericFields,
+                          Map<Field, GenericModel> genericModelMap, List<LitePalSupport> holders,
+                          boolean reuseHolders) {
+        try {
+            int idIndex = cursor.getColumnIndexOrThrow("id");
+            int position = cursor.getPosition();
+            CursorWindow window = null;
+            if (cursor instanceof AbstractWindowedCursor) {
+                window = ((AbstractWindowedCursor) cursor).getWindow();
+            }
+            int count = 1;
+            if (window != null && position >= window.getStartPosition()) {
+                count = Math.max(1, window.getStartPosition() + window.getNumRows() - position);
+            }
+            if (!reuseHolders) {
+                holders.clear();
+            }
+            for (int i = 0; i < count; i++) {
+                LitePalSupport holder;
+                if (i < holders.size()) {
+                    holder = holders.get(i);
+                    // generic values are appended into collections, clear them before loading.
+                    for (Field field : supportedGenericFields) {
+                        setFieldValue(holder, field, null);
+                    }
+                } else {
+                    holder = (LitePalSupport) createInstanceFromClass(modelClass);
+                    holders.add(holder);
+                }
+                long id = count == 1 ? cursor.getLong(idIndex) : window.getLong(position + i, idIndex);
+                giveBaseObjIdValue(holder, id);
+            }
+            setGenericValueToModels(holders.subList(0, count), supportedGenericFields, genericModelMap);
+            return count;
+        } catch (Exception e) {
+            throw new LitePalSupportException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Copy the generic values loaded into the holder to the model.
+     *
+     * @param holder                 The holder loaded by {@link #readGenericValues}.
+     * @param model                  The model to copy to.
+     * @param supportedGenericFields List of all supported generic fields.
+     */
+    void copyGenericValues(LitePalSupport holder, LitePalSupport model, List<Field> supportedGenericFields) {
+        try {
+            for (Field field : supportedGenericFields) {
+                setFieldValue(model, field, getFieldValue(holder, field));
+            }
+        } catch (Exception e) {
+            throw new LitePalSupportException(e.getMessage(), e);
+        }
+    }
+
     /**
      * Handles the math query of the given table.
      *
@@ -153,9 +656,7 @@ abstract class DataHandler extends LitePalBase {
             cursor = mDatabase.query(tableName, columns, getWhereClause(conditions),
                     getWhereArgs(conditions), null, null, null);
             if (cursor.moveToFirst()) {
-                Class<?> cursorClass = cursor.getClass();
-                Method method = cursorClass.getMethod(genGetColumnMethod(type), int.class);
-                result = (T) method.invoke(cursor, 0);
+                result = (T) getCursorValue(cursor, 0, genGetColumnMethod(type));
             }
         } catch (Exception e) {
             throw new LitePalSupportException(e.getMessage(), e);
@@ -204,6 +705,111 @@ abstract class DataHandler extends LitePalBase {
         }
     }
 
+    /**
+     * Works as {@link #putFieldsValue(LitePalSupport, List, ContentValues)}, but skips the fields
+     * which are not changed since the model was loaded or written last time. If nothing is
+     * recorded for a field, it's considered changed.
+     *
+     * @param baseObj         Current model to update. Must be saved already.
+     * @param supportedFields List of all supported fields.
+     * @param values          To store data of current model for updating.
+     * @throws java.lang.reflect.InvocationTargetException
+     * @throws IllegalAccessException
+     * @throws NoSuchMethodException
+     * @throws IllegalArgumentException
+     * @throws SecurityException
+     */
+    protected void putChangedFieldsValue(LitePalSupport baseObj, List<Field> supportedFields,
+                                         ContentValues values) throws SecurityException, IllegalArgumentException, NoSuchMethodException, IllegalAccessException, InvocationTargetException {
+        if (baseObj.getFieldsSnapshot() == null) {
+            putFieldsValue(baseObj, supportedFields, values);
+            return;
+        }
+        for (Field field : supportedFields) {
+            if (!isIdColumn(field.getName()) && isFieldChanged(baseObj, field)) {
+                putFieldsValueDependsOnSaveOrUpdate(baseObj, field, values);
+            }
+        }
+    }
+
+    /**
+     * After values are written into database, record the current values of the written fields,
+     * so that they won't be written again until they are changed.
+     *
+     * @param baseObj         The model which is written.
+     * @param supportedFields List of all supported fields.
+     * @param values          The values which are written.
+     * @throws java.lang.reflect.InvocationTargetException
+     * @throws IllegalAccessException
+     * @throws NoSuchMethodException
+     */
+    protected void refreshFieldsSnapshot(LitePalSupport baseObj, List<Field> supportedFields, ContentValues values)
+            throws NoSuchMethodException, IllegalAccessException, InvocationTargetException {
+        for (Field field : supportedFields) {
+            if (!isIdColumn(field.getName())
+                    && values.containsKey(changeCase(DBUtility.convertToValidColumnName(field.getName())))) {
+                recordFieldSnapshot(baseObj, field);
+            }
+        }
+    }
+
+    /**
+     * Record the current value of the field into snapshot of model.
+     *
+     * @param baseObj The model to record.
+     * @param field   The field to record.
+     * @throws java.lang.reflect.InvocationTargetException
+     * @throws IllegalAccessException
+     * @throws NoSuchMethodException
+     */
+    private void recordFieldSnapshot(LitePalSupport baseObj, Field field)
+            throws NoSuchMethodException, IllegalAccessException, InvocationTargetException {
+        if (!isIdColumn(field.getName())) {
+            baseObj.putFieldSnapshot(field.getName(), toSnapshotValue(getFieldValue(baseObj, field)));
+        }
+    }
+
+    /**
+     * Check if the field value is different from the one recorded in snapshot.
+     *
+     * @param baseObj The model to check.
+     * @param field   The field to check.
+     * @return True if the value is changed or never recorded, false otherwise.
+     * @throws java.lang.reflect.InvocationTargetException
+     * @throws IllegalAccessException
+     * @throws NoSuchMethodException
+     */
+    private boolean isFieldChanged(LitePalSupport baseObj, Field field)
+            throws NoSuchMethodException, IllegalAccessException, InvocationTargetException {
+        Map<String, Object> snapshot = baseObj.getFieldsSnapshot();
+        if (snapshot == null || !snapshot.containsKey(field.getName())) {
+            return true;
+        }
+        Object recorded = snapshot.get(field.getName());
+        Object current = toSnapshotValue(getFieldValue(baseObj, field));
+        if (recorded instanceof byte[] && current instanceof byte[]) {
+            return !Arrays.equals((byte[]) recorded, (byte[]) current);
+        }
+        return recorded == null ? current != null : !recorded.equals(current);
+    }
+
+    /**
+     * Convert the field value into an immutable form for snapshot. Date is converted to its time
+     * and byte array is copied, because they can be modified in place.
+     *
+     * @param value The field value.
+     * @return The value to record in snapshot.
+     */
+    private static Object toSnapshotValue(Object value) {
+        if (value instanceof Date) {
+            return ((Date) value).getTime();
+        }
+        if (value instanceof byte[]) {
+            return ((byte[]) value).clone();
+        }
+        return value;
+    }
+
     /**
      * This method deals with the putting values job into ContentValues. The
      * ContentValues has <b>put</b> method to set data. But we do not know we
@@ -253,11 +859,10 @@ abstract class DataHandler extends LitePalBase {
             // put content value only when value is not null. this allows to use defaultValue declared in annotation.
             Encrypt annotation = field.getAnnotation(Encrypt.class);
             if (annotation != null && "java.lang.String".equals(field.getType().getName())) {
+                putBlindIndexValue(field, values, fieldValue);
                 fieldValue = encryptValue(annotation.algorithm(), fieldValue);
             }
-            Object[] parameters = new Object[]{changeCase(DBUtility.convertToValidColumnName(field.getName())), fieldValue};
-            Class<?>[] parameterTypes = getParameterTypes(field, fieldValue, parameters);
-            DynamicExecutor.send(values, "put", parameters, values.getClass(), parameterTypes);
+            putContentValue(values, changeCase(DBUtility.convertToValidColumnName(field.getName())), field, fieldValue);
         }
     }
 
@@ -289,11 +894,293 @@ abstract class DataHandler extends LitePalBase {
         }
         Encrypt annotation = field.getAnnotation(Encrypt.class);
         if (annotation != null && "java.lang.String".equals(field.getType().getName())) {
+            putBlindIndexValue(field, values, fieldValue);
             fieldValue = encryptValue(annotation.algorithm(), fieldValue);
         }
-        Object[] parameters = new Object[]{changeCase(DBUtility.convertToValidColumnName(field.getName())), fieldValue};
-        Class<?>[] parameterTypes = getParameterTypes(field, fieldValue, parameters);
-        DynamicExecutor.send(values, "put", parameters, values.getClass(), parameterTypes);
+        putContentValue(values, changeCase(DBUtility.convertToValidColumnName(field.getName())), field, fieldValue);
+    }
+
+    /**
+     * Put the blind index of the plain value into ContentValues, if the field keeps a blind index.
+     *
+     * @param field      The encrypted field.
+     * @param values     The ContentValues to put into.
+     * @param plainValue The value of field before encrypted. Can be null.
+     */
+    private void putBlindIndexValue(Field field, ContentValues values, Object plainValue) {
+        if (hasBlindIndex(field)) {
+            String columnName = DBUtility.convertToValidColumnName(field.getName());
+            values.put(DBUtility.getBlindIndexColumnName(columnName), CipherUtil.blindIndex((String) plainValue));
+        }
+    }
+
+    /**
+     * Rewrite the equality filters on the fields which keep blind indexes, so that they compare
+     * the blind index columns instead of decrypting anything. <code>email = ?</code> becomes
+     * <code>email_bidx = ?</code> and <code>email in (?, ?)</code> becomes
+     * <code>email_bidx in (?, ?)</code>, with the arguments replaced by their blind indexes.
+     * Other filters on those fields are left as they are.
+     *
+     * @param modelClass The model class to query.
+     * @param conditions The where clause and its arguments.
+     * @return The rewritten conditions in a new array, or the passed in conditions if nothing
+     * needs to be rewritten.
+     */
+    protected String[] convertBlindIndexConditions(Class<?> modelClass, String[] conditions) {
+        if (conditions == null || conditions.length == 0 || TextUtils.isEmpty(conditions[0])) {
+            return conditions;
+        }
+        String[] converted = null;
+        for (Field field : getSupportedFields(modelClass.getName())) {
+            if (!hasBlindIndex(field)) {
+                continue;
+            }
+            String columnName = DBUtility.convertToValidColumnName(field.getName());
+            String where = converted == null ? conditions[0] : converted[0];
+            Matcher matcher = getBlindIndexPattern(columnName).matcher(where);
+            if (!matcher.find()) {
+                continue;
+            }
+            if (converted == null) {
+                converted = conditions.clone();
+            }
+            String blindIndexColumnName = DBUtility.getBlindIndexColumnName(columnName);
+            StringBuilder whereClause = new StringBuilder();
+            int lastEnd = 0;
+            do {
+                int argIndex = 1 + countPlaceholders(where, 0, matcher.start());
+                int argCount = countPlaceholders(where, matcher.end(), getFilterEnd(where, matcher.end()));
+                for (int i = argIndex; i < argIndex + argCount && i < converted.length; i++) {
+                    converted[i] = CipherUtil.blindIndex(converted[i]);
+                }
+                whereClause.append(where, lastEnd, matcher.start()).append(blindIndexColumnName);
+                lastEnd = matcher.end();
+            } while (matcher.find());
+            whereClause.append(where, lastEnd, where.length());
+            converted[0] = whereClause.toString();
+        }
+        return converted == null ? conditions : converted;
+    }
+
+    /**
+     * Get the pattern which matches the equality filters on the column, compiling it only for
+     * the first time.
+     *
+     * @param columnName The encrypted column name.
+     * @return The compiled pattern.
+     */
+    private static Pattern getBlindIndexPattern(String columnName) {
+        Pattern pattern = blindIndexPatterns.get(columnName);
+        if (pattern == null) {
+            pattern = Pattern.compile("(?<![\\w])" + Pattern.quote(columnName)
+                    + "(?=\\s*==?\\s*\\?|\\s+in\\s*\\(\\s*\\?(\\s*,\\s*\\?)*\\s*\\))",
+                    Pattern.CASE_INSENSITIVE);
+            blindIndexPatterns.put(columnName, pattern);
+        }
+        return pattern;
+    }
+
+    /**
+     * Count the place holders in the range of the where clause, skipping the quoted literals.
+     *
+     * @param where The where clause.
+     * @param start The start index, inclusive.
+     * @param end   The end index, exclusive.
+     * @return The number of place holders.
+     */
+    private int countPlaceholders(String where, int start, int end) {
+        int count = 0;
+        boolean quoted = false;
+        for (int i = start; i < end; i++) {
+            char c = where.charAt(i);
+            if (c == '\'') {
+                quoted = !quoted;
+            } else if (c == '?' && !quoted) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Get the end of the equality filter which starts right after the column name, that is the
+     * first place holder for <code>=</code>, or the closing parenthesis for <code>in</code>.
+     *
+     * @param where The where clause.
+     * @param start The index right after the column name.
+     * @return The index right after the filter.
+     */
+    private int getFilterEnd(String where, int start) {
+        int questionMark = where.indexOf('?', start);
+        int parenthesis = where.indexOf('(', start);
+        if (parenthesis != -1 && parenthesis < questionMark) {
+            return where.indexOf(')', start) + 1;
+        }
+        return questionMark + 1;
+    }
+
+    /**
+     * Put the field value into ContentValues by calling the typed <b>put</b> method directly. The
+     * type of value is decided by the field type: char fields are put as String, primitive fields
+     * as their object types and Date fields as Long. If the type is not one of the supported
+     * types, fall back to find the <b>put</b> method by reflection.
+     *
+     * @param values     The ContentValues to put into.
+     * @param key        The column name.
+     * @param field      The field which the value comes from.
+     * @param fieldValue The value to put. Can be null.
+     * @throws IllegalAccessException
+     * @throws InvocationTargetException
+     */
+    protected void putContentValue(ContentValues values, String key, Field field, Object fieldValue)
+            throws IllegalAccessException, InvocationTargetException {
+        if (isCharType(field)) {
+            values.put(key, String.valueOf(fieldValue));
+            return;
+        }
+        Class<?> valueType = field.getType();
+        if (valueType.isPrimitive()) {
+            valueType = getObjectType(valueType);
+        } else if (valueType == Date.class) {
+            valueType = Long.class;
+        }
+        putContentValue(values, key, valueType, fieldValue);
+    }
+
+    /**
+     * Put the value into ContentValues by calling the <b>put</b> method which matches the
+     * passed in type directly.
+     *
+     * @param values    The ContentValues to put into.
+     * @param key       The column name.
+     * @param valueType The object type of value, which decides the <b>put</b> method to call.
+     * @param value     The value to put. Can be null.
+     * @throws IllegalAccessException
+     * @throws InvocationTargetException
+     */
+    protected void putContentValue(ContentValues values, String key, Class<?> valueType, Object value)
+            throws IllegalAccessException, InvocationTargetException {
+        if (valueType == String.class) {
+            values.put(key, (String) value);
+        } else if (valueType == Integer.class) {
+            values.put(key, (Integer) value);
+        } else if (valueType == Long.class) {
+            values.put(key, (Long) value);
+        } else if (valueType == Double.class) {
+            values.put(key, (Double) value);
+        } else if (valueType == Float.class) {
+            values.put(key, (Float) value);
+        } else if (valueType == Boolean.class) {
+            values.put(key, (Boolean) value);
+        } else if (valueType == Short.class) {
+            values.put(key, (Short) value);
+        } else if (valueType == byte[].class) {
+            values.put(key, (byte[]) value);
+        } else {
+            DynamicExecutor.send(values, "put", new Object[]{key, value}, values.getClass(),
+                    new Class[]{String.class, valueType});
+        }
+    }
+
+    /**
+     * Update rows of the table with a compiled statement from {@link StatementCache}. The SQL only
+     * depends on the table, the column names and the WHERE clause, so the statement is shared by
+     * all the updates of the same shape. Works as
+     * {@link SQLiteDatabase#update(String, ContentValues, String, String[])}.
+     *
+     * @param tableName   The table to update in.
+     * @param values      A map from column names to new column values. Must not be empty.
+     * @param whereClause The WHERE clause with place holders. Passing null will update all rows.
+     * @param whereArgs   The arguments to replace place holders in WHERE clause.
+     * @return The number of rows affected.
+     */
+    protected int executeUpdate(String tableName, ContentValues values, String whereClause, String[] whereArgs) {
+        // sort the keys, so that the SQL is the same no matter how values are put.
+        List<String> keys = new ArrayList<String>(values.keySet());
+        Collections.sort(keys);
+        StringBuilder sql = new StringBuilder("update ");
+        sql.append(tableName).append(" set ");
+        boolean needComma = false;
+        for (String key : keys) {
+            if (needComma) {
+                sql.append(", ");
+            }
+            needComma = true;
+            sql.append(key).append(" = ?");
+        }
+        if (!TextUtils.isEmpty(whereClause)) {
+            sql.append(" where ").append(whereClause);
+        }
+        SQLiteStatement statement = StatementCache.acquire(mDatabase, sql.toString());
+        int index = 1;
+        for (String key : keys) {
+            bindValue(statement, index++, values.get(key));
+        }
+        bindArgs(statement, index, whereArgs);
+        return statement.executeUpdateDelete();
+    }
+
+    /**
+     * Delete rows from the table with a compiled statement from {@link StatementCache}. Works as
+     * {@link SQLiteDatabase#delete(String, String, String[])}.
+     *
+     * @param tableName   The table to delete from.
+     * @param whereClause The WHERE clause with place holders. Passing null will delete all rows.
+     * @param whereArgs   The arguments to replace place holders in WHERE clause.
+     * @return The number of rows affected.
+     */
+    protected int executeDelete(String tableName, String whereClause, String[] whereArgs) {
+        StringBuilder sql = new StringBuilder("delete from ");
+        sql.append(tableName);
+        if (!TextUtils.isEmpty(whereClause)) {
+            sql.append(" where ").append(whereClause);
+        }
+        SQLiteStatement statement = StatementCache.acquire(mDatabase, sql.toString());
+        bindArgs(statement, 1, whereArgs);
+        return statement.executeUpdateDelete();
+    }
+
+    /**
+     * Bind the value into the statement at the index, in the same way as SQLiteDatabase binds
+     * ContentValues.
+     *
+     * @param statement The statement or query to bind into.
+     * @param index     The 1-based index to bind.
+     * @param value     The value to bind.
+     */
+    protected void bindValue(SQLiteProgram statement, int index, Object value) {
+        if (value == null) {
+            statement.bindNull(index);
+        } else if (value instanceof Double || value instanceof Float) {
+            statement.bindDouble(index, ((Number) value).doubleValue());
+        } else if (value instanceof Number) {
+            statement.bindLong(index, ((Number) value).longValue());
+        } else if (value instanceof Boolean) {
+            statement.bindLong(index, (Boolean) value ? 1 : 0);
+        } else if (value instanceof byte[]) {
+            statement.bindBlob(index, (byte[]) value);
+        } else {
+            statement.bindString(index, value.toString());
+        }
+    }
+
+    /**
+     * Bind the arguments of WHERE clause as strings, starting from the index.
+     *
+     * @param statement The statement to bind into.
+     * @param index     The 1-based index of the first argument.
+     * @param args      The arguments to bind. Can be null.
+     */
+    private void bindArgs(SQLiteStatement statement, int index, String[] args) {
+        if (args != null) {
+            for (String arg : args) {
+                if (arg == null) {
+                    statement.bindNull(index++);
+                } else {
+                    statement.bindString(index++, arg);
+                }
+            }
+        }
     }
 
     /**
@@ -363,13 +1250,16 @@ abstract class DataHandler extends LitePalBase {
      */
     protected void analyzeAssociatedModels(LitePalSupport baseObj, Collection<AssociationsInfo> associationInfos) {
         try {
+            if (reverseAssociations == null) {
+                reverseAssociations = new ReverseAssociations();
+            }
             for (AssociationsInfo associationInfo : associationInfos) {
                 if (associationInfo.getAssociationType() == Const.Model.MANY_TO_ONE) {
-                    new Many2OneAnalyzer().analyze(baseObj, associationInfo);
+                    new Many2OneAnalyzer(reverseAssociations).analyze(baseObj, associationInfo);
                 } else if (associationInfo.getAssociationType() == Const.Model.ONE_TO_ONE) {
-                    new One2OneAnalyzer().analyze(baseObj, associationInfo);
+                    new One2OneAnalyzer(reverseAssociations).analyze(baseObj, associationInfo);
                 } else if (associationInfo.getAssociationType() == Const.Model.MANY_TO_MANY) {
-                    new Many2ManyAnalyzer().analyze(baseObj, associationInfo);
+                    new Many2ManyAnalyzer(reverseAssociations).analyze(baseObj, associationInfo);
                 }
             }
         } catch (Exception e) {
@@ -461,83 +1351,312 @@ abstract class DataHandler extends LitePalBase {
         if (conditions != null && conditions.length > 0) {
             return conditions[0];
         }
-        return null;
+        return null;
+    }
+
+    /**
+     * Get the WHERE arguments to fill into where clause when updating or
+     * deleting multiple rows.
+     *
+     * @param conditions A string array representing the WHERE part of an SQL
+     *                   statement.
+     * @return The WHERE arguments to fill into where clause when updating or
+     * deleting multiple rows.
+     */
+    protected String[] getWhereArgs(String... conditions) {
+        if (isAffectAllLines((Object) conditions)) {
+            return null;
+        }
+        if (conditions != null && conditions.length > 1) {
+            String[] whereArgs = new String[conditions.length - 1];
+            System.arraycopy(conditions, 1, whereArgs, 0, conditions.length - 1);
+            return whereArgs;
+        }
+        return null;
+    }
+
+    /**
+     * Check the passing conditions represent to affect all lines or not. <br>
+     * Do not pass anything to the conditions parameter means affect all lines.
+     *
+     * @param conditions An array representing the WHERE part of an SQL statement.
+     * @return Affect all lines or not.
+     */
+    protected boolean isAffectAllLines(Object... conditions) {
+        if (conditions != null && conditions.length == 0) {
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Get the where clause by the passed in id collection to apply multiple
+     * rows.
+     *
+     * @param ids The id collection.
+     * @return The where clause to execute.
+     */
+    protected String getWhereOfIdsWithOr(Collection<Long> ids) {
+        StringBuilder whereClause = new StringBuilder();
+        boolean needOr = false;
+        for (long id : ids) {
+            if (needOr) {
+                whereClause.append(" or ");
+            }
+            needOr = true;
+            whereClause.append("id = ");
+            whereClause.append(id);
+        }
+        return changeCase(whereClause.toString());
+    }
+
+    /**
+     * Get the where clause by the passed in id array to apply multiple rows.
+     *
+     * @param ids The id collection.
+     * @return The where clause to execute.
+     */
+    protected String getWhereOfIdsWithOr(long... ids) {
+        StringBuilder whereClause = new StringBuilder();
+        boolean needOr = false;
+        for (long id : ids) {
+            if (needOr) {
+                whereClause.append(" or ");
+            }
+            needOr = true;
+            whereClause.append("id = ");
+            whereClause.append(id);
+        }
+        return changeCase(whereClause.toString());
+    }
+
+    /**
+     * Get the WHERE clauses which filter the column by the ids with IN operator. The ids are
+     * split into several clauses in case the clause is too long.
+     *
+     * @param columnName The column to filter.
+     * @param ids        Collection of ids.
+     * @return The WHERE clauses, each of them contains at most 500 ids.
+     */
+    protected List<String> getWhereOfIdsWithIn(String columnName, Collection<Long> ids) {
+        List<String> whereClauses = new ArrayList<String>();
+        int maxExpressionCount = 500; // Prevent the where condition is too long
+        StringBuilder whereClause = new StringBuilder();
+        int count = 0;
+        for (long id : ids) {
+            if (count == 0) {
+                whereClause.append(columnName).append(" in (");
+            } else {
+                whereClause.append(",");
+            }
+            whereClause.append(id);
+            count++;
+            if (count == maxExpressionCount) {
+                whereClauses.add(whereClause.append(")").toString());
+                whereClause.setLength(0);
+                count = 0;
+            }
+        }
+        if (count > 0) {
+            whereClauses.add(whereClause.append(")").toString());
+        }
+        return whereClauses;
+    }
+
+    /**
+     * Synchronize the rows of one owner in a join table or a generic table with the rows it
+     * should have. Only the rows whose values are gone are deleted, and only the new values are
+     * inserted, instead of rewriting all the rows of the owner. The rows to delete are located
+     * by rowid, so duplicated values are handled one by one.
+     * <p>
+     * If the rows are ordered, the kept rows must come before the inserted ones to read back in
+     * the same order. So an old row is only kept when it matches the next row to have, and the
+     * rest are inserted after them. Otherwise values are matched no matter where they are.
+     *
+     * @param tableName   The table to synchronize.
+     * @param ownerColumn The column which references the owner.
+     * @param ownerId     The id of owner.
+     * @param valueColumn The column to compare, which must be a key of each row.
+     * @param rows        The rows the owner should have, including the owner column.
+     * @param ordered     True if the rows should be read back in the given order.
+     * @return True if any row is deleted or inserted, false if the rows are already up to date.
+     */
+    protected boolean synchronizeRows(String tableName, String ownerColumn, long ownerId, String valueColumn,
+                                      List<ContentValues> rows, boolean ordered) {
+        List<Long> oldRowIds = new ArrayList<Long>();
+        List<Object> oldValues = new ArrayList<Object>();
+        Cursor cursor = null;
+        try {
+            cursor = mDatabase.query(tableName, new String[]{"rowid", valueColumn}, ownerColumn + " = ?",
+                    new String[]{String.valueOf(ownerId)}, null, null, "rowid");
+            while (cursor.moveToNext()) {
+                oldRowIds.add(cursor.getLong(0));
+                oldValues.add(getStoredValue(cursor, 1));
+            }
+        } finally {
+            if (cursor != null) {
+                cursor.close();
+            }
+        }
+        List<Object> newValues = new ArrayList<Object>(rows.size());
+        for (ContentValues row : rows) {
+            newValues.add(getStoredValue(row.get(valueColumn)));
+        }
+        List<Long> rowIdsToDelete = new ArrayList<Long>();
+        List<ContentValues> rowsToInsert = new ArrayList<ContentValues>();
+        if (ordered) {
+            int next = 0;
+            for (int i = 0; i < oldValues.size(); i++) {
+                if (next < newValues.size() && isSameValue(oldValues.get(i), newValues.get(next))) {
+                    next++;
+                } else {
+                    rowIdsToDelete.add(oldRowIds.get(i));
+                }
+            }
+            rowsToInsert.addAll(rows.subList(next, rows.size()));
+        } else {
+            Map<Object, Integer> counts = new HashMap<Object, Integer>();
+            for (Object value : newValues) {
+                Integer count = counts.get(value);
+                counts.put(value, count == null ? 1 : count + 1);
+            }
+            for (int i = 0; i < oldValues.size(); i++) {
+                Integer count = counts.get(oldValues.get(i));
+                if (count != null && count > 0) {
+                    counts.put(oldValues.get(i), count - 1);
+                } else {
+                    rowIdsToDelete.add(oldRowIds.get(i));
+                }
+            }
+            for (int i = 0; i < rows.size(); i++) {
+                Integer count = counts.get(newValues.get(i));
+                if (count != null && count > 0) {
+                    counts.put(newValues.get(i), count - 1);
+                    rowsToInsert.add(rows.get(i));
+                }
+            }
+        }
+        deleteByRowIds(tableName, rowIdsToDelete);
+        insertRows(tableName, rowsToInsert);
+        return !rowIdsToDelete.isEmpty() || !rowsToInsert.isEmpty();
     }
 
     /**
-     * Get the WHERE arguments to fill into where clause when updating or
-     * deleting multiple rows.
+     * Delete the rows by rowid. The rowids are bound into one DELETE statement for every 500 of
+     * them.
      *
-     * @param conditions A string array representing the WHERE part of an SQL
-     *                   statement.
-     * @return The WHERE arguments to fill into where clause when updating or
-     * deleting multiple rows.
+     * @param tableName The table to delete from.
+     * @param rowIds    The rowids of rows to delete.
      */
-    protected String[] getWhereArgs(String... conditions) {
-        if (isAffectAllLines((Object) conditions)) {
-            return null;
-        }
-        if (conditions != null && conditions.length > 1) {
-            String[] whereArgs = new String[conditions.length - 1];
-            System.arraycopy(conditions, 1, whereArgs, 0, conditions.length - 1);
-            return whereArgs;
+    private void deleteByRowIds(String tableName, List<Long> rowIds) {
+        int maxExpressionCount = 500;
+        for (int start = 0; start < rowIds.size(); start += maxExpressionCount) {
+            int end = Math.min(start + maxExpressionCount, rowIds.size());
+            StringBuilder sql = new StringBuilder("delete from ");
+            sql.append(tableName).append(" where rowid in (");
+            for (int i = start; i < end; i++) {
+                sql.append(i == start ? "?" : ", ?");
+            }
+            sql.append(")");
+            SQLiteStatement statement = mDatabase.compileStatement(sql.toString());
+            try {
+                for (int i = start; i < end; i++) {
+                    statement.bindLong(i - start + 1, rowIds.get(i));
+                }
+                statement.executeUpdateDelete();
+            } finally {
+                statement.close();
+            }
         }
-        return null;
     }
 
     /**
-     * Check the passing conditions represent to affect all lines or not. <br>
-     * Do not pass anything to the conditions parameter means affect all lines.
+     * Insert the rows into the table. The INSERT statement is compiled once and each row is bound
+     * to it, instead of compiling one for every row. The rows must have the same columns, as the
+     * rows of a join table or a generic table do.
      *
-     * @param conditions An array representing the WHERE part of an SQL statement.
-     * @return Affect all lines or not.
+     * @param tableName The table to insert into.
+     * @param rows      The rows to insert.
      */
-    protected boolean isAffectAllLines(Object... conditions) {
-        if (conditions != null && conditions.length == 0) {
-            return true;
+    protected void insertRows(String tableName, List<ContentValues> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        if (rows.size() == 1) {
+            mDatabase.insert(tableName, null, rows.get(0));
+            return;
+        }
+        String[] columns = rows.get(0).keySet().toArray(new String[0]);
+        StringBuilder sql = new StringBuilder("insert into ");
+        sql.append(tableName).append(" (").append(TextUtils.join(", ", columns)).append(") values (");
+        for (int i = 0; i < columns.length; i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(")");
+        SQLiteStatement statement = mDatabase.compileStatement(sql.toString());
+        try {
+            for (ContentValues row : rows) {
+                for (int i = 0; i < columns.length; i++) {
+                    bindValue(statement, i + 1, row.get(columns[i]));
+                }
+                try {
+                    statement.executeInsert();
+                } catch (SQLiteConstraintException e) {
+                    // same as SQLiteDatabase#insert, the row is skipped.
+                    Log.e(TAG, "Error inserting into " + tableName, e);
+                }
+            }
+        } finally {
+            statement.close();
         }
-        return false;
     }
 
     /**
-     * Get the where clause by the passed in id collection to apply multiple
-     * rows.
+     * Read the value at the column index as it's stored, so that it can be compared with the
+     * result of {@link #getStoredValue(Object)}.
      *
-     * @param ids The id collection.
-     * @return The where clause to execute.
+     * @param cursor      The cursor at the row to read.
+     * @param columnIndex The index of column.
+     * @return The stored value as Long, Double, String or ByteBuffer, or null.
      */
-    protected String getWhereOfIdsWithOr(Collection<Long> ids) {
-        StringBuilder whereClause = new StringBuilder();
-        boolean needOr = false;
-        for (long id : ids) {
-            if (needOr) {
-                whereClause.append(" or ");
-            }
-            needOr = true;
-            whereClause.append("id = ");
-            whereClause.append(id);
+    private Object getStoredValue(Cursor cursor, int columnIndex) {
+        switch (cursor.getType(columnIndex)) {
+            case Cursor.FIELD_TYPE_INTEGER:
+                return cursor.getLong(columnIndex);
+            case Cursor.FIELD_TYPE_FLOAT:
+                return cursor.getDouble(columnIndex);
+            case Cursor.FIELD_TYPE_BLOB:
+                return ByteBuffer.wrap(cursor.getBlob(columnIndex));
+            case Cursor.FIELD_TYPE_STRING:
+                return cursor.getString(columnIndex);
+            default:
+                return null;
         }
-        return changeCase(whereClause.toString());
     }
 
     /**
-     * Get the where clause by the passed in id array to apply multiple rows.
+     * Convert the value in ContentValues into the form SQLite stores it in.
      *
-     * @param ids The id collection.
-     * @return The where clause to execute.
+     * @param value The value put into ContentValues.
+     * @return The value as Long, Double, String or ByteBuffer, or null.
      */
-    protected String getWhereOfIdsWithOr(long... ids) {
-        StringBuilder whereClause = new StringBuilder();
-        boolean needOr = false;
-        for (long id : ids) {
-            if (needOr) {
-                whereClause.append(" or ");
-            }
-            needOr = true;
-            whereClause.append("id = ");
-            whereClause.append(id);
+    private Object getStoredValue(Object value) {
+        if (value == null) {
+            return null;
+        } else if (value instanceof Boolean) {
+            return (Boolean) value ? 1L : 0L;
+        } else if (value instanceof Float || value instanceof Double) {
+            return ((Number) value).doubleValue();
+        } else if (value instanceof Number) {
+            return ((Number) value).longValue();
+        } else if (value instanceof byte[]) {
+            return ByteBuffer.wrap((byte[]) value);
         }
-        return changeCase(whereClause.toString());
+        return value.toString();
+    }
+
+    private boolean isSameValue(Object value1, Object value2) {
+        return value1 == null ? value2 == null : value1.equals(value2);
     }
 
     /**
@@ -658,13 +1777,11 @@ abstract class DataHandler extends LitePalBase {
     /**
      * Get value from database by cursor, then set the value into modelInstance.
      *
-     * @param modelInstance          The model to set into.
-     * @param supportedFields        Corresponding to each column in database.
-     * @param foreignKeyAssociations Associated classes which have foreign keys in the current
-     *                               model's table.
-     * @param cursor                 Use to get value from database.
-     * @param sparseArray            Use SparseArray to cache the query information at first loop. Then the rest loop
-     *                               can get query information directly to speed up.
+     * @param modelInstance   The model to set into.
+     * @param supportedFields Corresponding to each column in database.
+     * @param cursor          Use to get value from database.
+     * @param sparseArray     Use SparseArray to cache the query information at first loop. Then the rest loop
+     *                        can get query information directly to speed up.
      * @throws SecurityException
      * @throws IllegalArgumentException
      * @throws NoSuchMethodException
@@ -672,110 +1789,163 @@ abstract class DataHandler extends LitePalBase {
      * @throws java.lang.reflect.InvocationTargetException
      */
     protected void setValueToModel(Object modelInstance, List<Field> supportedFields,
-                                   List<AssociationsInfo> foreignKeyAssociations, Cursor cursor, SparseArray<QueryInfoCache> sparseArray) throws SecurityException,
+                                   Cursor cursor, SparseArray<QueryInfoCache> sparseArray) throws SecurityException,
             IllegalArgumentException, NoSuchMethodException, IllegalAccessException,
             InvocationTargetException {
-        int cacheSize = sparseArray.size();
-        if (cacheSize > 0) {
-            for (int i = 0; i < cacheSize; i++) {
-                int columnIndex = sparseArray.keyAt(i);
-                QueryInfoCache cache = sparseArray.get(columnIndex);
-                setToModelByReflection(modelInstance, cache.field, columnIndex, cache.getMethodName, cursor);
-            }
-        } else {
-            for (Field field : supportedFields) {
-                String getMethodName = genGetColumnMethod(field);
-                String columnName = isIdColumn(field.getName()) ? "id" : DBUtility.convertToValidColumnName(field.getName());
-                int columnIndex = cursor.getColumnIndex(BaseUtility.changeCase(columnName));
-                if (columnIndex != -1) {
-                    setToModelByReflection(modelInstance, field, columnIndex, getMethodName, cursor);
-                    QueryInfoCache cache = new QueryInfoCache();
-                    cache.getMethodName = getMethodName;
-                    cache.field = field;
-                    sparseArray.put(columnIndex, cache);
-                }
-            }
+        if (sparseArray.size() == 0) {
+            resolveQueryInfo(supportedFields, cursor, sparseArray);
         }
-        if (foreignKeyAssociations != null) {
-            for (AssociationsInfo associationInfo : foreignKeyAssociations) {
-                String foreignKeyColumn = getForeignKeyColumnName(DBUtility
-                        .getTableNameByClassName(associationInfo.getAssociatedClassName()));
-                int columnIndex = cursor.getColumnIndex(foreignKeyColumn);
-                if (columnIndex != -1) {
-                    long associatedClassId = cursor.getLong(columnIndex);
-                    try {
-                        LitePalSupport associatedObj = (LitePalSupport) Operator.find(
-                                Class.forName(associationInfo.getAssociatedClassName()),
-                                associatedClassId);
-                        if (associatedObj != null) {
-                            setFieldValue((LitePalSupport) modelInstance,
-                                    associationInfo.getAssociateOtherModelFromSelf(), associatedObj);
-                        }
-                    } catch (ClassNotFoundException e) {
-                        e.printStackTrace();
-                    }
-                }
-            }
+        int cacheSize = sparseArray.size();
+        for (int i = 0; i < cacheSize; i++) {
+            int columnIndex = sparseArray.keyAt(i);
+            QueryInfoCache cache = sparseArray.valueAt(i);
+            setToModelByReflection(modelInstance, cache.field, columnIndex, cache.getMethodName, cursor);
+            recordFieldSnapshot((LitePalSupport) modelInstance, cache.field);
         }
     }
 
     /**
-     * Get generic value from generic tables, then set the value into the baseObj.
+     * Get generic values from generic tables, then set the values into the models. Each generic
+     * table is queried once for every 500 models, and the values are grouped by the id of model
+     * they belong to. Every instance of the same row gets the values.
      *
-     * @param baseObj                The model to set into.
+     * @param baseObjs               The models to set into. All of them must be the same class.
      * @param supportedGenericFields List of all supported generic fields.
-     * @param genericModelMap        Use HashMap to cache the query information at first loop. Then the rest loop can
-     *                               get query information directly to speed up.
+     * @param genericModelMap        Use HashMap to cache the query information. Then the following
+     *                               calls can get query information directly to speed up.
      * @throws NoSuchMethodException
      * @throws IllegalAccessException
      * @throws InvocationTargetException
      */
-    protected void setGenericValueToModel(LitePalSupport baseObj, List<Field> supportedGenericFields,
-                                          Map<Field, GenericModel> genericModelMap) throws NoSuchMethodException, IllegalAccessException, InvocationTargetException {
+    protected void setGenericValueToModels(List<? extends LitePalSupport> baseObjs, List<Field> supportedGenericFields,
+                                           Map<Field, GenericModel> genericModelMap) throws NoSuchMethodException, IllegalAccessException, InvocationTargetException {
+        if (baseObjs.isEmpty() || supportedGenericFields.isEmpty()) {
+            return;
+        }
+        // eager loading may hold several instances of one row, such as the same associated model
+        // of different owners, and all of them must be filled.
+        Map<Long, List<LitePalSupport>> baseObjMap = new HashMap<Long, List<LitePalSupport>>();
+        for (LitePalSupport baseObj : baseObjs) {
+            List<LitePalSupport> rowObjs = baseObjMap.get(baseObj.getBaseObjId());
+            if (rowObjs == null) {
+                rowObjs = new ArrayList<LitePalSupport>(1);
+                baseObjMap.put(baseObj.getBaseObjId(), rowObjs);
+            }
+            if (!containsInstance(rowObjs, baseObj)) {
+                rowObjs.add(baseObj);
+            }
+        }
+        String className = baseObjs.get(0).getClassName();
         for (Field field : supportedGenericFields) {
-            String tableName, genericValueColumnName, genericValueIdColumnName, getMethodName;
-            Cursor cursor = null;
             GenericModel genericModel = genericModelMap.get(field);
             if (genericModel == null) {
+                String genericValueColumnName, getMethodName;
                 String genericTypeName = getGenericTypeName(field);
-                if (baseObj.getClassName().equals(genericTypeName)) {
+                if (className.equals(genericTypeName)) {
                     genericValueColumnName = DBUtility.getM2MSelfRefColumnName(field);
                     getMethodName = "getLong";
                 } else {
                     genericValueColumnName = DBUtility.convertToValidColumnName(field.getName());
                     getMethodName = genGetColumnMethod(field);
                 }
-                tableName = DBUtility.getGenericTableName(baseObj.getClassName(), field.getName());
-                genericValueIdColumnName = DBUtility.getGenericValueIdColumnName(baseObj.getClassName());
-                GenericModel model = new GenericModel();
-                model.setTableName(tableName);
-                model.setValueColumnName(genericValueColumnName);
-                model.setValueIdColumnName(genericValueIdColumnName);
-                model.setGetMethodName(getMethodName);
-                genericModelMap.put(field, model);
-            } else {
-                tableName = genericModel.getTableName();
-                genericValueColumnName = genericModel.getValueColumnName();
-                genericValueIdColumnName = genericModel.getValueIdColumnName();
-                getMethodName = genericModel.getGetMethodName();
+                genericModel = new GenericModel();
+                genericModel.setTableName(DBUtility.getGenericTableName(className, field.getName()));
+                genericModel.setValueColumnName(genericValueColumnName);
+                genericModel.setValueIdColumnName(DBUtility.getGenericValueIdColumnName(className));
+                genericModel.setGetMethodName(getMethodName);
+                genericModelMap.put(field, genericModel);
             }
-            try {
-                cursor = mDatabase.query(tableName, null, genericValueIdColumnName + " = ?",
-                        new String[]{String.valueOf(baseObj.getBaseObjId())}, null, null, null);
-                if (cursor.moveToFirst()) {
-                    do {
-                        int columnIndex = cursor.getColumnIndex(BaseUtility.changeCase(genericValueColumnName));
-                        if (columnIndex != -1) {
-                            setToModelByReflection(baseObj, field, columnIndex, getMethodName, cursor);
+            String genericValueIdColumnName = genericModel.getValueIdColumnName();
+            // the models referenced by a self-referencing field are loaded together afterwards.
+            boolean selfReference = className.equals(getGenericTypeName(field));
+            List<LitePalSupport> referenceOwners = new ArrayList<LitePalSupport>();
+            List<Long> referenceIds = new ArrayList<Long>();
+            for (String whereClause : getWhereOfIdsWithIn(genericValueIdColumnName, baseObjMap.keySet())) {
+                Cursor cursor = null;
+                try {
+                    cursor = mDatabase.query(genericModel.getTableName(), null, whereClause, null, null, null, null);
+                    if (cursor.moveToFirst()) {
+                        int columnIndex = cursor.getColumnIndex(BaseUtility.changeCase(genericModel.getValueColumnName()));
+                        int idColumnIndex = cursor.getColumnIndex(BaseUtility.changeCase(genericValueIdColumnName));
+                        if (columnIndex != -1 && idColumnIndex != -1) {
+                            do {
+                                List<LitePalSupport> rowObjs = baseObjMap.get(cursor.getLong(idColumnIndex));
+                                if (rowObjs != null) {
+                                    for (LitePalSupport baseObj : rowObjs) {
+                                        if (selfReference) {
+                                            referenceOwners.add(baseObj);
+                                            referenceIds.add(cursor.getLong(columnIndex));
+                                        } else {
+                                            setToModelByReflection(baseObj, field, columnIndex, genericModel.getGetMethodName(), cursor);
+                                        }
+                                    }
+                                }
+                            } while (cursor.moveToNext());
                         }
-                    } while (cursor.moveToNext());
+                    }
+                } finally {
+                    if (cursor != null) {
+                        cursor.close();
+                    }
                 }
-            } finally {
-                if (cursor != null) {
-                    cursor.close();
+            }
+            if (!referenceOwners.isEmpty()) {
+                setSelfReferences(field, referenceOwners, referenceIds);
+            }
+        }
+    }
+
+    /**
+     * Load the models referenced by a self-referencing generic field with one query for every 500
+     * ids, then add them into the collections of their owners in the order they are read. Out of
+     * a session, a model referenced more than once is copied for each reference after the first,
+     * so the owners don't share instances. An id whose row is gone adds null.
+     *
+     * @param field  The self-referencing generic field.
+     * @param owners The owner of each reference.
+     * @param ids    The id of each referenced model.
+     */
+    private void setSelfReferences(Field field, List<LitePalSupport> owners, List<Long> ids)
+            throws NoSuchMethodException, IllegalAccessException, InvocationTargetException {
+        Class<?> modelClass = owners.get(0).getClass();
+        String className = modelClass.getName();
+        Map<Long, LitePalSupport> referencedModels = new HashMap<Long, LitePalSupport>();
+        // a handler of its own, since this one is in the middle of a query.
+        QueryHandler queryHandler = new QueryHandler(mDatabase);
+        for (String whereClause : getWhereOfIdsWithIn("id", new HashSet<Long>(ids))) {
+            for (Object model : queryHandler.query(modelClass, null, whereClause, null, null, null, null, null, null)) {
+                referencedModels.put(((LitePalSupport) model).getBaseObjId(), (LitePalSupport) model);
+            }
+        }
+        boolean shared = Session.current() != null;
+        Set<Long> referenced = new HashSet<Long>();
+        for (int i = 0; i < owners.size(); i++) {
+            LitePalSupport model = referencedModels.get(ids.get(i));
+            if (model != null && !referenced.add(ids.get(i)) && !shared) {
+                try {
+                    model = copyModel(model, getSupportedFields(className), getSupportedGenericFields(className));
+                } catch (NoSuchFieldException e) {
+                    throw new LitePalSupportException(e.getMessage(), e);
                 }
             }
+            getOrCreateCollection(owners.get(i), field).add(model);
+        }
+    }
+
+    /**
+     * Check if the list holds the instance itself, no matter how equals is implemented.
+     *
+     * @param list     The list to check.
+     * @param instance The instance to find.
+     * @return True if the instance is in the list, false otherwise.
+     */
+    private boolean containsInstance(List<LitePalSupport> list, LitePalSupport instance) {
+        for (LitePalSupport item : list) {
+            if (item == instance) {
+                return true;
+            }
         }
+        return false;
     }
 
     /**
@@ -793,34 +1963,6 @@ abstract class DataHandler extends LitePalBase {
         return null;
     }
 
-    /**
-     * Get the types of parameters for {@link android.content.ContentValues#put}. Need two
-     * parameters. First is String type for key. Second is depend on field for
-     * value.
-     *
-     * @param field      The field to get parameter type.
-     * @param fieldValue Value of the field. Only used to convert to String when the
-     *                   field is char.
-     * @param parameters If the field is char, convert the value to String at index 1.
-     * @return The types of parameters for {@link android.content.ContentValues#put}.
-     */
-    protected Class<?>[] getParameterTypes(Field field, Object fieldValue, Object[] parameters) {
-        Class<?>[] parameterTypes;
-        if (isCharType(field)) {
-            parameters[1] = String.valueOf(fieldValue);
-            parameterTypes = new Class[]{String.class, String.class};
-        } else {
-            if (field.getType().isPrimitive()) {
-                parameterTypes = new Class[]{String.class, getObjectType(field.getType())};
-            } else if ("java.util.Date".equals(field.getType().getName())) {
-                parameterTypes = new Class[]{String.class, Long.class};
-            } else {
-                parameterTypes = new Class[]{String.class, field.getType()};
-            }
-        }
-        return parameterTypes;
-    }
-
     /**
      * Each primitive type has a corresponding object type. For example int and
      * Integer, boolean and Boolean. This method gives a way to turn primitive
@@ -1194,131 +2336,242 @@ abstract class DataHandler extends LitePalBase {
     }
 
     /**
-     * Finds the associated models of baseObj, then set them into baseObj.
+     * Read the foreign key values of the associations which hold foreign key in the current
+     * model, and group the model by foreign key value. So the associated models can be loaded
+     * with one query for each association after all the rows are read.
      *
-     * @param baseObj The class of base object.
+     * @param baseObj                The model which is read from current row.
+     * @param foreignKeyAssociations Associated classes which have foreign keys in the current
+     *                               model's table.
+     * @param foreignKeyModels       Map of foreign key value to models for each association.
+     * @param cursor                 Use to get foreign key value from database.
+     */
+    private void collectForeignKeyValues(LitePalSupport baseObj, List<AssociationsInfo> foreignKeyAssociations,
+                                         List<Map<Long, List<LitePalSupport>>> foreignKeyModels, Cursor cursor) {
+        for (int i = 0; i < foreignKeyAssociations.size(); i++) {
+            String foreignKeyColumn = getForeignKeyColumnName(DBUtility
+                    .getTableNameByClassName(foreignKeyAssociations.get(i).getAssociatedClassName()));
+            int columnIndex = cursor.getColumnIndex(foreignKeyColumn);
+            if (columnIndex != -1 && !cursor.isNull(columnIndex)) {
+                long associatedClassId = cursor.getLong(columnIndex);
+                Map<Long, List<LitePalSupport>> modelMap = foreignKeyModels.get(i);
+                List<LitePalSupport> models = modelMap.get(associatedClassId);
+                if (models == null) {
+                    models = new ArrayList<LitePalSupport>();
+                    modelMap.put(associatedClassId, models);
+                }
+                models.add(baseObj);
+            }
+        }
+    }
+
+    /**
+     * Load the associated models which current models hold foreign keys of, with one query for
+     * each association, then set them into the models which reference them.
+     *
+     * @param foreignKeyAssociations Associated classes which have foreign keys in the current
+     *                               model's table.
+     * @param foreignKeyModels       Map of foreign key value to models for each association.
+     */
+    private void setForeignKeyAssociatedModels(List<AssociationsInfo> foreignKeyAssociations,
+                                               List<Map<Long, List<LitePalSupport>>> foreignKeyModels)
+            throws NoSuchMethodException, IllegalAccessException, InvocationTargetException {
+        for (int i = 0; i < foreignKeyAssociations.size(); i++) {
+            AssociationsInfo info = foreignKeyAssociations.get(i);
+            Map<Long, List<LitePalSupport>> modelMap = foreignKeyModels.get(i);
+            if (modelMap.isEmpty()) {
+                continue;
+            }
+            Class<?> associatedClass = getModelMetadata(info.getAssociatedClassName()).getModelClass();
+            for (String whereClause : getWhereOfIdsWithIn("id", modelMap.keySet())) {
+                List<?> associatedModels = query(associatedClass, null, whereClause, null, null, null,
+                        null, null, null);
+                for (Object associatedModel : associatedModels) {
+                    LitePalSupport associatedObj = (LitePalSupport) associatedModel;
+                    List<LitePalSupport> models = modelMap.get(associatedObj.getBaseObjId());
+                    if (models != null) {
+                        for (LitePalSupport model : models) {
+                            setFieldValue(model, info.getAssociateOtherModelFromSelf(), associatedObj);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the associated models which hold foreign keys of the passed in models or are
+     * associated through intermediate join tables, then set them into the passed in models. Each
+     * association is loaded with one query for every 500 models.
+     *
+     * @param baseObjs The models to set associated models into.
      */
     @SuppressWarnings({"rawtypes", "unchecked"})
-    private void setAssociatedModel(LitePalSupport baseObj) {
-        if (fkInOtherModel == null) {
+    private void setAssociatedModels(List<LitePalSupport> baseObjs) {
+        if (fkInOtherModel == null || fkInOtherModel.isEmpty() || baseObjs.isEmpty()) {
             return;
         }
+        Map<Long, LitePalSupport> baseObjMap = new HashMap<Long, LitePalSupport>();
+        for (LitePalSupport baseObj : baseObjs) {
+            baseObjMap.put(baseObj.getBaseObjId(), baseObj);
+        }
+        String tableName = baseObjs.get(0).getTableName();
         for (AssociationsInfo info : fkInOtherModel) {
-            Cursor cursor = null;
             String associatedClassName = info.getAssociatedClassName();
             boolean isM2M = info.getAssociationType() == Const.Model.MANY_TO_MANY;
-            try {
-                List<Field> supportedFields = getSupportedFields(associatedClassName);
-                List<Field> supportedGenericFields = getSupportedGenericFields(associatedClassName);
-                if (isM2M) {
-                    String tableName = baseObj.getTableName();
-                    String associatedTableName = DBUtility
-                            .getTableNameByClassName(associatedClassName);
-                    String intermediateTableName = DBUtility.getIntermediateTableName(tableName,
-                            associatedTableName);
-                    StringBuilder sql = new StringBuilder();
-                    sql.append("select * from ").append(associatedTableName)
-                            .append(" a inner join ").append(intermediateTableName)
-                            .append(" b on a.id = b.").append(associatedTableName + "_id")
-                            .append(" where b.").append(tableName).append("_id = ?");
-                    cursor = Operator.findBySQL(BaseUtility.changeCase(sql.toString()),
-                            String.valueOf(baseObj.getBaseObjId()));
-                } else {
-                    String foreignKeyColumn = getForeignKeyColumnName(DBUtility
-                            .getTableNameByClassName(info.getSelfClassName()));
-                    String associatedTableName = DBUtility
-                            .getTableNameByClassName(associatedClassName);
-                    cursor = mDatabase.query(BaseUtility.changeCase(associatedTableName), null,
-                            foreignKeyColumn + "=?",
-                            new String[]{String.valueOf(baseObj.getBaseObjId())}, null, null,
-                            null, null);
-                }
-                if (cursor != null && cursor.moveToFirst()) {
-                    SparseArray<QueryInfoCache> queryInfoCacheSparseArray = new SparseArray<QueryInfoCache>();
-                    Map<Field, GenericModel> genericModelMap = new HashMap<Field, GenericModel>();
-                    do {
-                        LitePalSupport modelInstance = (LitePalSupport) createInstanceFromClass(Class.forName(associatedClassName));
-                        giveBaseObjIdValue(modelInstance,
-                                cursor.getLong(cursor.getColumnIndexOrThrow("id")));
-                        setValueToModel(modelInstance, supportedFields, null, cursor, queryInfoCacheSparseArray);
-                        setGenericValueToModel(modelInstance, supportedGenericFields, genericModelMap);
-                        if (info.getAssociationType() == Const.Model.MANY_TO_ONE || isM2M) {
-                            Field field = info.getAssociateOtherModelFromSelf();
-                            Collection collection = (Collection) getFieldValue(baseObj, field);
-                            if (collection == null) {
-                                if (isList(field.getType())) {
-                                    collection = new ArrayList();
-                                } else {
-                                    collection = new HashSet();
+            String associatedTableName = DBUtility.getTableNameByClassName(associatedClassName);
+            String ownerIdColumn;
+            List<String> whereClauses;
+            if (isM2M) {
+                ownerIdColumn = BaseUtility.changeCase(OWNER_ID_COLUMN);
+                whereClauses = getWhereOfIdsWithIn("b." + tableName + "_id", baseObjMap.keySet());
+            } else {
+                ownerIdColumn = getForeignKeyColumnName(DBUtility
+                        .getTableNameByClassName(info.getSelfClassName()));
+                whereClauses = getWhereOfIdsWithIn(ownerIdColumn, baseObjMap.keySet());
+            }
+            ModelMetadata metadata = getModelMetadata(associatedClassName);
+            List<Field> supportedFields = metadata.getSupportedFields();
+            List<Field> supportedGenericFields = metadata.getSupportedGenericFields();
+            SparseArray<QueryInfoCache> queryInfoCacheSparseArray = new SparseArray<QueryInfoCache>();
+            List<LitePalSupport> associatedModels = new ArrayList<LitePalSupport>();
+            for (String whereClause : whereClauses) {
+                Cursor cursor = null;
+                try {
+                    if (isM2M) {
+                        String intermediateTableName = DBUtility.getIntermediateTableName(tableName,
+                                associatedTableName);
+                        StringBuilder sql = new StringBuilder();
+                        sql.append("select a.*, b.").append(tableName).append("_id as ").append(OWNER_ID_COLUMN)
+                                .append(" from ").append(associatedTableName)
+                                .append(" a inner join ").append(intermediateTableName)
+                                .append(" b on a.id = b.").append(associatedTableName + "_id")
+                                .append(" where ").append(whereClause);
+                        cursor = mDatabase.rawQuery(BaseUtility.changeCase(sql.toString()), null);
+                    } else {
+                        cursor = mDatabase.query(BaseUtility.changeCase(associatedTableName), null,
+                                whereClause, null, null, null, null, null);
+                    }
+                    if (cursor != null && cursor.moveToFirst()) {
+                        int ownerIdIndex = cursor.getColumnIndexOrThrow(ownerIdColumn);
+                        do {
+                            LitePalSupport baseObj = baseObjMap.get(cursor.getLong(ownerIdIndex));
+                            if (baseObj == null) {
+                                continue;
+                            }
+                            LitePalSupport modelInstance = (LitePalSupport) createInstanceFromClass(metadata.getModelClass());
+                            giveBaseObjIdValue(modelInstance,
+                                    cursor.getLong(cursor.getColumnIndexOrThrow("id")));
+                            setValueToModel(modelInstance, supportedFields, cursor, queryInfoCacheSparseArray);
+                            associatedModels.add(modelInstance);
+                            if (info.getAssociationType() == Const.Model.MANY_TO_ONE || isM2M) {
+                                Field field = info.getAssociateOtherModelFromSelf();
+                                Collection collection = (Collection) getFieldValue(baseObj, field);
+                                if (collection == null) {
+                                    if (isList(field.getType())) {
+                                        collection = new ArrayList();
+                                    } else {
+                                        collection = new HashSet();
+                                    }
+                                    DynamicExecutor.setField(baseObj, field.getName(), collection, baseObj.getClass());
                                 }
-                                DynamicExecutor.setField(baseObj, field.getName(), collection, baseObj.getClass());
+                                collection.add(modelInstance);
+                            } else if (info.getAssociationType() == Const.Model.ONE_TO_ONE) {
+                                setFieldValue(baseObj,
+                                        info.getAssociateOtherModelFromSelf(), modelInstance);
                             }
-                            collection.add(modelInstance);
-                        } else if (info.getAssociationType() == Const.Model.ONE_TO_ONE) {
-                            setFieldValue(baseObj,
-                                    info.getAssociateOtherModelFromSelf(), modelInstance);
-                        }
-                    } while (cursor.moveToNext());
-                    queryInfoCacheSparseArray.clear();
-                    genericModelMap.clear();
+                        } while (cursor.moveToNext());
+                    }
+                } catch (Exception e) {
+                    throw new LitePalSupportException(e.getMessage(), e);
+                } finally {
+                    if (cursor != null) {
+                        cursor.close();
+                    }
                 }
+            }
+            try {
+                setGenericValueToModels(associatedModels, supportedGenericFields, new HashMap<Field, GenericModel>());
             } catch (Exception e) {
                 throw new LitePalSupportException(e.getMessage(), e);
-            } finally {
-                if (cursor != null) {
-                    cursor.close();
-                }
             }
         }
     }
 
-    @SuppressWarnings("unchecked")
+    /**
+     * Find the columns of the supported fields in cursor, and cache the query information of them
+     * by column index.
+     *
+     * @param supportedFields List of all supported fields.
+     * @param cursor          The cursor to read from.
+     * @param sparseArray     The SparseArray to put the query information into.
+     */
+    private void resolveQueryInfo(List<Field> supportedFields, Cursor cursor, SparseArray<QueryInfoCache> sparseArray) {
+        for (Field field : supportedFields) {
+            String columnName = isIdColumn(field.getName()) ? "id" : DBUtility.convertToValidColumnName(field.getName());
+            int columnIndex = cursor.getColumnIndex(BaseUtility.changeCase(columnName));
+            if (columnIndex != -1) {
+                QueryInfoCache cache = new QueryInfoCache();
+                cache.getMethodName = genGetColumnMethod(field);
+                cache.field = field;
+                sparseArray.put(columnIndex, cache);
+            }
+        }
+    }
+
     private void setToModelByReflection(Object modelInstance, Field field, int columnIndex, String getMethodName, Cursor cursor)
             throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
-        Class<?> cursorClass = cursor.getClass();
-        Method method = cursorClass.getMethod(getMethodName, int.class);
-        Object value = method.invoke(cursor, columnIndex);
-        if (field.getType() == boolean.class || field.getType() == Boolean.class) {
-            if ("0".equals(String.valueOf(value))) {
-                value = false;
-            } else if ("1".equals(String.valueOf(value))) {
-                value = true;
-            }
-        } else if (field.getType() == char.class || field.getType() == Character.class) {
-            value = ((String) value).charAt(0);
-        } else if (field.getType() == Date.class) {
-            long date = (long) value;
-            if (date == Long.MAX_VALUE) { // Long.MAX_VALUE is a date that will never reach, which represents null in our case.
-                value = null;
+        setColumnValueToModel(modelInstance, field, getCursorValue(cursor, columnIndex, getMethodName));
+    }
+
+    /**
+     * Get the collection of the generic field. Create an empty one and set it into the model if
+     * it's null.
+     *
+     * @param modelInstance The model to get from.
+     * @param field         The generic field.
+     * @return The collection of the field.
+     */
+    @SuppressWarnings("unchecked")
+    private Collection<Object> getOrCreateCollection(Object modelInstance, Field field)
+            throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+        Collection<Object> collection = (Collection<Object>) DynamicExecutor.getField(modelInstance, field.getName(), modelInstance.getClass());
+        if (collection == null) {
+            if (isList(field.getType())) {
+                collection = new ArrayList<Object>();
             } else {
-                value = new Date(date);
+                collection = new HashSet<Object>();
             }
+            DynamicExecutor.setField(modelInstance, field.getName(), collection, modelInstance.getClass());
         }
+        return collection;
+    }
+
+    /**
+     * Convert the value read from a column into the type of field, and set it into the model. If
+     * the field is a generic collection, the value is added into the collection.
+     *
+     * @param modelInstance The model to set into.
+     * @param field         The field to set.
+     * @param value         The value read from cursor.
+     */
+    @SuppressWarnings("unchecked")
+    private void setColumnValueToModel(Object modelInstance, Field field, Object value)
+            throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+        value = convertColumnValue(field.getType(), value);
         if (isCollection(field.getType())) {
-            Collection<Object> collection = (Collection<Object>) DynamicExecutor.getField(modelInstance, field.getName(), modelInstance.getClass());
-            if (collection == null) {
-                if (isList(field.getType())) {
-                    collection = new ArrayList<Object>();
-                } else {
-                    collection = new HashSet<Object>();
-                }
-                DynamicExecutor.setField(modelInstance, field.getName(), collection, modelInstance.getClass());
-            }
-            String genericTypeName = getGenericTypeName(field);
-            if ("java.lang.String".equals(genericTypeName)) {
+            Collection<Object> collection = getOrCreateCollection(modelInstance, field);
+            if ("java.lang.String".equals(getGenericTypeName(field))) {
                 Encrypt annotation = field.getAnnotation(Encrypt.class);
                 if (annotation != null) {
                     value = decryptValue(annotation.algorithm(), value);
                 }
-            } else if (modelInstance.getClass().getName().equals(genericTypeName)) {
-                if (value instanceof Long || value instanceof Integer) {
-                    value = Operator.find(modelInstance.getClass(), (long) value);
-                }
             }
             collection.add(value);
         } else {
             Encrypt annotation = field.getAnnotation(Encrypt.class);
-            if (annotation != null && "java.lang.String".equals(field.getType().getName())) {
+            if (annotation != null && "java.lang.String".equals(field.getType().getName())
+                    && !(deferDecryption && isAESEncrypted(field))) {
                 value = decryptValue(annotation.algorithm(), value);
             }
             DynamicExecutor.setField(modelInstance, field.getName(), value,
@@ -1326,6 +2579,105 @@ abstract class DataHandler extends LitePalBase {
         }
     }
 
+    /**
+     * Convert the value read by the getter of {@link #genGetColumnMethod(Class)} into the type,
+     * for the types which are stored in another form.
+     *
+     * @param type  The type to convert into.
+     * @param value The value read from cursor.
+     * @return The converted value.
+     */
+    private Object convertColumnValue(Class<?> type, Object value) {
+        if (type == boolean.class || type == Boolean.class) {
+            if ("0".equals(String.valueOf(value))) {
+                value = false;
+            } else if ("1".equals(String.valueOf(value))) {
+                value = true;
+            }
+        } else if (type == char.class || type == Character.class) {
+            value = ((String) value).charAt(0);
+        } else if (type == Date.class) {
+            long date = (long) value;
+            if (date == Long.MAX_VALUE) { // Long.MAX_VALUE is a date that will never reach, which represents null in our case.
+                value = null;
+            } else {
+                value = new Date(date);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Read the value of a column which is mapped to the field, converted into the type of field
+     * and decrypted the same way as it's set into a model.
+     *
+     * @param cursor      The cursor to read from.
+     * @param columnIndex The column index to read.
+     * @param field       The field which the column is mapped to. Can't be a collection field.
+     * @return The value of the column, or null if the column is null.
+     */
+    protected Object getColumnValue(Cursor cursor, int columnIndex, Field field)
+            throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+        if (cursor.isNull(columnIndex)) {
+            return null;
+        }
+        Object value = getColumnValue(cursor, columnIndex, field.getType());
+        Encrypt annotation = field.getAnnotation(Encrypt.class);
+        if (annotation != null && field.getType() == String.class) {
+            value = decryptValue(annotation.algorithm(), value);
+        }
+        return value;
+    }
+
+    /**
+     * Read the value of a column as the type.
+     *
+     * @param cursor      The cursor to read from.
+     * @param columnIndex The column index to read.
+     * @param type        The type to read as.
+     * @return The value of the column, or null if the column is null.
+     */
+    protected Object getColumnValue(Cursor cursor, int columnIndex, Class<?> type)
+            throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+        if (cursor.isNull(columnIndex)) {
+            return null;
+        }
+        return convertColumnValue(type, getCursorValue(cursor, columnIndex, genGetColumnMethod(type)));
+    }
+
+    /**
+     * Read the value at the column index by calling the typed getter of cursor directly. The getter
+     * is one of the names generated by {@link #genGetColumnMethod(Class)}. If the name is not a
+     * known one, fall back to invoke the getter by reflection.
+     *
+     * @param cursor        The cursor to read from.
+     * @param columnIndex   The column index to read.
+     * @param getMethodName The name of the cursor getter.
+     * @return The value of the column.
+     */
+    private Object getCursorValue(Cursor cursor, int columnIndex, String getMethodName)
+            throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+        switch (getMethodName) {
+            case "getInt":
+                return cursor.getInt(columnIndex);
+            case "getLong":
+                return cursor.getLong(columnIndex);
+            case "getString":
+                return cursor.getString(columnIndex);
+            case "getDouble":
+                return cursor.getDouble(columnIndex);
+            case "getFloat":
+                return cursor.getFloat(columnIndex);
+            case "getShort":
+                return cursor.getShort(columnIndex);
+            case "getBlob":
+                return cursor.getBlob(columnIndex);
+            default:
+                Method method = cursor.getClass().getMethod(getMethodName, int.class);
+                return method.invoke(cursor, columnIndex);
+        }
+    }
+
     /**
      * Decrypt the field value with targeted algorithm.
      *
@@ -3,7 +3,6 @@ package com.litepal.crud;
 import android.database.sqlite.SQLiteDatabase;
 import android.text.TextUtils;
 
-import com.litepal.Operator;
 import com.litepal.exceptions.LitePalSupportException;
 import com.litepal.crud.model.AssociationsInfo;
 import com.litepal.util.BaseUtility;
@@ -61,8 +60,9 @@ public class DeleteHandler extends DataHandler {
             deleteGenericData(baseObj.getClass(), supportedGenericFields, baseObj.getBaseObjId());
             Collection<AssociationsInfo> associationInfos = analyzeAssociations(baseObj);
             int rowsAffected = deleteCascade(baseObj);
-            rowsAffected += mDatabase.delete(baseObj.getTableName(), "id = "
-                    + baseObj.getBaseObjId(), null);
+            rowsAffected += executeDelete(baseObj.getTableName(), "id = ?",
+                    new String[]{String.valueOf(baseObj.getBaseObjId())});
+            onRowChanged(baseObj.getTableName(), baseObj.getBaseObjId());
             clearAssociatedModelSaveState(baseObj, associationInfos);
             return rowsAffected;
         }
@@ -85,8 +85,9 @@ public class DeleteHandler extends DataHandler {
         deleteGenericData(modelClass, supportedGenericFields, id);
         analyzeAssociations(modelClass);
         int rowsAffected = deleteCascade(modelClass, id);
-        rowsAffected += mDatabase.delete(getTableName(modelClass),
-                "id = " + id, null);
+        rowsAffected += executeDelete(getTableName(modelClass),
+                "id = ?", new String[]{String.valueOf(id)});
+        onRowChanged(getTableName(modelClass), id);
         getForeignKeyTableToDelete().clear();
         return rowsAffected;
     }
@@ -106,32 +107,31 @@ public class DeleteHandler extends DataHandler {
         if (conditions != null && conditions.length > 0) {
             conditions[0] = DBUtility.convertWhereClauseToColumnName(conditions[0]);
         }
-        return mDatabase.delete(tableName, getWhereClause(conditions),
+        int rowsAffected = executeDelete(tableName, getWhereClause(conditions),
                 getWhereArgs(conditions));
+        onTableChanged(tableName);
+        return rowsAffected;
     }
 
-    @SuppressWarnings("unchecked")
     public int onDeleteAll(Class<?> modelClass, String... conditions) {
         BaseUtility.checkConditionsCorrect(conditions);
         if (conditions != null && conditions.length > 0) {
             conditions[0] = DBUtility.convertWhereClauseToColumnName(conditions[0]);
         }
+        // the rows to delete must be the same ones queried for generic data.
+        conditions = convertBlindIndexConditions(modelClass, conditions);
         List<Field> supportedGenericFields = getSupportedGenericFields(modelClass.getName());
         if (!supportedGenericFields.isEmpty()) {
-            List<LitePalSupport> list = (List<LitePalSupport>) Operator.select("id").where(conditions).find(modelClass);
-            if (list.size() > 0) {
-                long[] ids = new long[list.size()];
-                for (int i = 0; i < ids.length; i++) {
-                    LitePalSupport dataSupport = list.get(i);
-                    ids[i] = dataSupport.getBaseObjId();
-                }
+            long[] ids = new QueryHandler(mDatabase).onFindIds(modelClass, conditions, null, null);
+            if (ids.length > 0) {
                 deleteGenericData(modelClass, supportedGenericFields, ids);
             }
         }
         analyzeAssociations(modelClass);
         int rowsAffected = deleteAllCascade(modelClass, conditions);
-        rowsAffected += mDatabase.delete(getTableName(modelClass), getWhereClause(conditions),
+        rowsAffected += executeDelete(getTableName(modelClass), getWhereClause(conditions),
                 getWhereArgs(conditions));
+        onTableChanged(getTableName(modelClass));
         getForeignKeyTableToDelete().clear();
         return rowsAffected;
     }
@@ -182,8 +182,9 @@ public class DeleteHandler extends DataHandler {
         int rowsAffected = 0;
         for (String associatedTableName : getForeignKeyTableToDelete()) {
             String fkName = getForeignKeyColumnName(getTableName(modelClass));
-            rowsAffected += mDatabase.delete(associatedTableName, fkName
-                    + " = " + id, null);
+            rowsAffected += executeDelete(associatedTableName, fkName + " = ?",
+                    new String[]{String.valueOf(id)});
+            onTableChanged(associatedTableName);
         }
         return rowsAffected;
     }
@@ -202,6 +203,7 @@ public class DeleteHandler extends DataHandler {
             whereClause.append(")");
             rowsAffected += mDatabase.delete(associatedTableName,
                     BaseUtility.changeCase(whereClause.toString()), null);
+            onTableChanged(associatedTableName);
         }
         return rowsAffected;
     }
@@ -300,8 +302,9 @@ public class DeleteHandler extends DataHandler {
                 .getAssociatedModelsMapWithFK();
         for (String associatedTableName : associatedModelMap.keySet()) {
             String fkName = getForeignKeyColumnName(baseObj.getTableName());
-            rowsAffected += mDatabase.delete(associatedTableName, fkName
-                    + " = " + baseObj.getBaseObjId(), null);
+            rowsAffected += executeDelete(associatedTableName, fkName + " = ?",
+                    new String[]{String.valueOf(baseObj.getBaseObjId())});
+            onTableChanged(associatedTableName);
         }
         return rowsAffected;
     }
@@ -321,8 +324,9 @@ public class DeleteHandler extends DataHandler {
             String joinTableName = DBUtility.getIntermediateTableName(
                     baseObj.getTableName(), associatedTableName);
             String fkName = getForeignKeyColumnName(baseObj.getTableName());
-            rowsAffected += mDatabase.delete(joinTableName, fkName + " = "
-                    + baseObj.getBaseObjId(), null);
+            rowsAffected += executeDelete(joinTableName, fkName + " = ?",
+                    new String[]{String.valueOf(baseObj.getBaseObjId())});
+            onTableChanged(joinTableName);
         }
         return rowsAffected;
     }
@@ -372,6 +376,7 @@ public class DeleteHandler extends DataHandler {
                     mDatabase.delete(tableName, whereClause.toString(), null);
                 }
             }
+            onTableChanged(tableName);
         }
     }
 }
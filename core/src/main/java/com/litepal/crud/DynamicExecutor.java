@@ -5,6 +5,8 @@ import com.litepal.exceptions.LitePalSupportException;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This provides a send method to allow calling method in dynamic way. (Just
@@ -14,6 +16,17 @@ import java.lang.reflect.Method;
  * @since 1.1
  */
 class DynamicExecutor {
+    /**
+     * Cache of the fields which are resolved through the class hierarchy. Key is the class of the
+     * object, value is the map of field name to the accessible field. Resolving a field walks up the
+     * super classes with exceptions thrown, so it only happens once for each class and field name.
+     */
+    private static final Map<Class<?>, Map<String, Field>> resolvedFields = new ConcurrentHashMap<Class<?>, Map<String, Field>>();
+    /**
+     * Cache of the fields declared in the class exactly. Used by {@link #set(Object, String, Object, Class)}.
+     */
+    private static final Map<Class<?>, Map<String, Field>> declaredFields = new ConcurrentHashMap<Class<?>, Map<String, Field>>();
+
     /**
      * Disable to create an instance of DynamicExecutor.
      */
@@ -57,8 +70,13 @@ class DynamicExecutor {
 
     static void set(Object object, String fieldName, Object value, Class<?> objectClass)
             throws SecurityException, IllegalArgumentException, IllegalAccessException, NoSuchFieldException {
-        Field objectField = objectClass.getDeclaredField(fieldName);
-        objectField.setAccessible(true);
+        Map<String, Field> fields = getFieldMap(declaredFields, objectClass);
+        Field objectField = fields.get(fieldName);
+        if (objectField == null) {
+            objectField = objectClass.getDeclaredField(fieldName);
+            objectField.setAccessible(true);
+            fields.put(fieldName, objectField);
+        }
         objectField.set(object, value);
     }
 
@@ -77,15 +95,7 @@ class DynamicExecutor {
      */
     static void setField(Object object, String fieldName, Object value, Class<?> objectClass)
             throws SecurityException, IllegalArgumentException, IllegalAccessException {
-        if (objectClass == LitePalSupport.class || objectClass == Object.class) {
-            throw new LitePalSupportException(LitePalSupportException.noSuchFieldExceptioin(
-                    objectClass.getSimpleName(), fieldName));
-        }
-        try {
-            set(object, fieldName, value, objectClass);
-        } catch (NoSuchFieldException e) {
-            setField(object, fieldName, value, objectClass.getSuperclass());
-        }
+        findField(fieldName, objectClass).set(object, value);
     }
 
     /**
@@ -102,16 +112,55 @@ class DynamicExecutor {
      */
     static Object getField(Object object, String fieldName, Class<?> objectClass)
             throws IllegalArgumentException, IllegalAccessException {
-        if (objectClass == LitePalSupport.class || objectClass == Object.class) {
-            throw new LitePalSupportException(LitePalSupportException.noSuchFieldExceptioin(
-                    objectClass.getSimpleName(), fieldName));
-        }
-        try {
-            Field objectField = objectClass.getDeclaredField(fieldName);
+        return findField(fieldName, objectClass).get(object);
+    }
+
+    /**
+     * Find the accessible field by name in the class or its super classes. The super classes
+     * are searched until {@link LitePalSupport} or Object is reached. The found field is cached,
+     * so the following calls with the same class and field name are only a map lookup.
+     *
+     * @param fieldName   The field name to find.
+     * @param objectClass The class to start searching from.
+     * @return The accessible field.
+     * @throws LitePalSupportException if the field can not be found.
+     */
+    static Field findField(String fieldName, Class<?> objectClass) {
+        Map<String, Field> fields = getFieldMap(resolvedFields, objectClass);
+        Field objectField = fields.get(fieldName);
+        if (objectField == null) {
+            Class<?> clazz = objectClass;
+            while (clazz != null && clazz != LitePalSupport.class && clazz != Object.class) {
+                try {
+                    objectField = clazz.getDeclaredField(fieldName);
+                    break;
+                } catch (NoSuchFieldException e) {
+                    clazz = clazz.getSuperclass();
+                }
+            }
+            if (objectField == null) {
+                throw new LitePalSupportException(LitePalSupportException.noSuchFieldExceptioin(
+                        objectClass.getSimpleName(), fieldName));
+            }
             objectField.setAccessible(true);
-            return objectField.get(object);
-        } catch (NoSuchFieldException e) {
-            return getField(object, fieldName, objectClass.getSuperclass());
+            fields.put(fieldName, objectField);
+        }
+        return objectField;
+    }
+
+    /**
+     * Get the field map of the class from the passed in cache. Create one if not exists.
+     *
+     * @param cache       The cache to get field map from.
+     * @param objectClass The class which the field map belongs to.
+     * @return The field map of the class.
+     */
+    private static Map<String, Field> getFieldMap(Map<Class<?>, Map<String, Field>> cache, Class<?> objectClass) {
+        Map<String, Field> fields = cache.get(objectClass);
+        if (fields == null) {
+            fields = new ConcurrentHashMap<String, Field>();
+            cache.put(objectClass, fields);
         }
+        return fields;
     }
 }
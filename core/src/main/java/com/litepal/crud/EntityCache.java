@@ -0,0 +1,202 @@
+package com.litepal.crud;
+
+import android.util.LruCache;
+
+import com.litepal.annotation.Cacheable;
+import com.litepal.parser.LitePalAttr;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A process-wide cache of models by id, for the classes declared with {@link Cacheable} or
+ * configured by the cache node in litepal.xml. Each table has its own LRU cache bounded by the
+ * configured size.
+ * <p>
+ * The cached models are private copies. Handlers put a copy of each freshly loaded model in, and
+ * hand a new copy out on every hit, so the cached state can never be changed by callers. Writes
+ * through the handlers drop the rows they touch, or the whole table when rows are written by
+ * conditions. As the writes inside a transaction are not visible to other threads until it
+ * commits, the written tables are dropped once more when the outermost transaction ends through
+ * {@link com.litepal.util.DBUtility#endTransaction}.
+ * <p>
+ * Each table has a generation which is increased whenever its models are dropped. A query
+ * captures it before running, and its models are only put in if nothing is dropped meanwhile, so
+ * a query which read the rows before a write committed can't cache them after the write.
+ *
+ * @author Tony Green
+ * @since 3.0
+ */
+public final class EntityCache {
+    /**
+     * The cached models. Key is the table name in lower case.
+     */
+    private static final Map<String, LruCache<Long, LitePalSupport>> caches = new HashMap<String, LruCache<Long, LitePalSupport>>();
+    /**
+     * The resolved cache sizes. Key is the full class name, and 0 means the class is not cached.
+     */
+    private static final Map<String, Integer> cacheSizes = new HashMap<String, Integer>();
+    /**
+     * The generations of tables. Key is the table name in lower case.
+     */
+    private static final Map<String, Long> generations = new HashMap<String, Long>();
+    /**
+     * The tables written in the transaction of current thread.
+     */
+    private static final ThreadLocal<Set<String>> tablesInTransaction = new ThreadLocal<Set<String>>();
+
+    /**
+     * Disable to create an instance of EntityCache.
+     */
+    private EntityCache() {
+    }
+
+    /**
+     * Get the max number of models to cache for the class. The annotation takes priority over
+     * litepal.xml.
+     *
+     * @param modelClass The model class.
+     * @return The cache size, or 0 if the class is not cached.
+     */
+    static synchronized int getCacheSize(Class<?> modelClass) {
+        Integer size = cacheSizes.get(modelClass.getName());
+        if (size == null) {
+            Cacheable cacheable = modelClass.getAnnotation(Cacheable.class);
+            if (cacheable != null) {
+                size = cacheable.size();
+            } else {
+                size = LitePalAttr.getInstance().getCacheSizes().get(modelClass.getName());
+            }
+            if (size == null || size < 0) {
+                size = 0;
+            }
+            cacheSizes.put(modelClass.getName(), size);
+        }
+        return size;
+    }
+
+    /**
+     * Get the cached model of the row.
+     *
+     * @param tableName The table name.
+     * @param id        The id of row.
+     * @return The cached model which must not be handed out directly, or null if not cached.
+     */
+    static synchronized LitePalSupport get(String tableName, long id) {
+        LruCache<Long, LitePalSupport> cache = caches.get(getKey(tableName));
+        if (cache != null) {
+            return cache.get(id);
+        }
+        return null;
+    }
+
+    /**
+     * Get the current generation of the table. Call it before running the query whose models
+     * will be cached.
+     *
+     * @param tableName The table name.
+     * @return The generation of the table.
+     */
+    static synchronized long getGeneration(String tableName) {
+        Long generation = generations.get(getKey(tableName));
+        return generation == null ? 0 : generation;
+    }
+
+    /**
+     * Cache the model of the row, replacing the existing one, unless the models of the table are
+     * dropped since the generation is captured.
+     *
+     * @param tableName  The table name.
+     * @param size       The max number of models to cache for the table.
+     * @param generation The generation of the table captured before the query.
+     * @param model      The copy of model to cache, which must not be referenced by others.
+     */
+    static synchronized void put(String tableName, int size, long generation, LitePalSupport model) {
+        if (getGeneration(tableName) != generation) {
+            return;
+        }
+        String key = getKey(tableName);
+        LruCache<Long, LitePalSupport> cache = caches.get(key);
+        if (cache == null) {
+            cache = new LruCache<Long, LitePalSupport>(size);
+            caches.put(key, cache);
+        }
+        cache.put(model.getBaseObjId(), model);
+    }
+
+    /**
+     * Drop the cached model of the row.
+     *
+     * @param tableName The table name.
+     * @param id        The id of row.
+     */
+    static synchronized void remove(String tableName, long id) {
+        nextGeneration(tableName);
+        LruCache<Long, LitePalSupport> cache = caches.get(getKey(tableName));
+        if (cache != null) {
+            cache.remove(id);
+        }
+    }
+
+    /**
+     * Drop all the cached models of the table.
+     *
+     * @param tableName The table name.
+     */
+    static synchronized void removeAll(String tableName) {
+        nextGeneration(tableName);
+        LruCache<Long, LitePalSupport> cache = caches.get(getKey(tableName));
+        if (cache != null) {
+            cache.evictAll();
+        }
+    }
+
+    /**
+     * Remember that the table is written in the transaction of current thread, so that it can be
+     * dropped again when the transaction ends.
+     *
+     * @param tableName The table name.
+     */
+    static void removeAllOnTransactionEnd(String tableName) {
+        Set<String> tables = tablesInTransaction.get();
+        if (tables == null) {
+            tables = new HashSet<String>();
+            tablesInTransaction.set(tables);
+        }
+        tables.add(tableName);
+    }
+
+    /**
+     * Drop the tables written in the transaction of current thread. Called by
+     * {@link com.litepal.util.DBUtility#endTransaction} after the outermost transaction ends.
+     */
+    public static void onTransactionEnd() {
+        Set<String> tables = tablesInTransaction.get();
+        if (tables != null) {
+            tablesInTransaction.remove();
+            for (String tableName : tables) {
+                removeAll(tableName);
+            }
+        }
+    }
+
+    /**
+     * Drop all the cached models and the resolved cache sizes. Should be called when the using
+     * database is switched or closed.
+     */
+    public static synchronized void clear() {
+        caches.clear();
+        cacheSizes.clear();
+    }
+
+    private static void nextGeneration(String tableName) {
+        generations.put(getKey(tableName), getGeneration(tableName) + 1);
+    }
+
+    private static String getKey(String tableName) {
+        return tableName.toLowerCase(Locale.US);
+    }
+}
@@ -2,18 +2,24 @@ package com.litepal.crud;
 
 import android.database.sqlite.SQLiteDatabase;
 
+import com.litepal.crud.async.AsyncExecutor;
+import com.litepal.crud.async.AsyncResult;
 import com.litepal.exceptions.LitePalSupportException;
 import com.litepal.tablemanager.Connector;
+import com.litepal.tablemanager.DatabaseLock;
 import com.litepal.Operator;
 import com.litepal.util.BaseUtility;
 import com.litepal.util.DBUtility;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.locks.Lock;
 
 /**
  * LitePalSupport connects classes to SQLite database tables to establish an almost
@@ -94,6 +100,11 @@ public class LitePalSupport {
      * value of model.
      */
     private List<String> fieldsToSetToDefault;
+    /**
+     * The field values which are known to be the same as in database, recorded when the model is
+     * loaded or written. Field name as key. Used to write only the changed fields when updating.
+     */
+    private Map<String, Object> fieldsSnapshot;
 
     /**
      * Deletes the record in the database. The record must be saved already.<br>
@@ -111,18 +122,23 @@ public class LitePalSupport {
      * @return The number of rows affected. Including cascade delete rows.
      */
     public int delete() {
-        synchronized (LitePalSupport.class) {
+        Lock lock = DatabaseLock.writeLock();
+        lock.lock();
+        try {
             SQLiteDatabase db = Connector.getDatabase();
             db.beginTransaction();
             try {
                 DeleteHandler deleteHandler = new DeleteHandler(db);
                 int rowsAffected = deleteHandler.onDelete(this);
                 baseObjId = 0;
+                fieldsSnapshot = null;
                 db.setTransactionSuccessful();
                 return rowsAffected;
             } finally {
-                db.endTransaction();
+                DBUtility.endTransaction(db);
             }
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -147,7 +163,9 @@ public class LitePalSupport {
      * @return The number of rows affected.
      */
     public int update(long id) {
-        synchronized (LitePalSupport.class) {
+        Lock lock = DatabaseLock.writeLock();
+        lock.lock();
+        try {
             SQLiteDatabase db = Connector.getDatabase();
             db.beginTransaction();
             try {
@@ -159,8 +177,10 @@ public class LitePalSupport {
             } catch (Exception e) {
                 throw new LitePalSupportException(e.getMessage(), e);
             } finally {
-                db.endTransaction();
+                DBUtility.endTransaction(db);
             }
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -193,7 +213,9 @@ public class LitePalSupport {
      * @return The number of rows affected.
      */
     public int updateAll(String... conditions) {
-        synchronized (LitePalSupport.class) {
+        Lock lock = DatabaseLock.writeLock();
+        lock.lock();
+        try {
             SQLiteDatabase db = Connector.getDatabase();
             db.beginTransaction();
             try {
@@ -205,8 +227,10 @@ public class LitePalSupport {
             } catch (Exception e) {
                 throw new LitePalSupportException(e.getMessage(), e);
             } finally {
-                db.endTransaction();
+                DBUtility.endTransaction(db);
             }
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -269,7 +293,9 @@ public class LitePalSupport {
      * @throws LitePalSupportException
      */
     public void saveThrows() {
-        synchronized (LitePalSupport.class) {
+        Lock lock = DatabaseLock.writeLock();
+        lock.lock();
+        try {
             SQLiteDatabase db = Connector.getDatabase();
             db.beginTransaction();
             try {
@@ -280,8 +306,10 @@ public class LitePalSupport {
             } catch (Exception e) {
                 throw new LitePalSupportException(e.getMessage(), e);
             } finally {
-                db.endTransaction();
+                DBUtility.endTransaction(db);
             }
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -317,20 +345,25 @@ public class LitePalSupport {
      */
     @SuppressWarnings("unchecked")
     public boolean saveOrUpdate(String... conditions) {
-        synchronized (LitePalSupport.class) {
+        Lock lock = DatabaseLock.writeLock();
+        lock.lock();
+        try {
             if (conditions == null) {
                 return save();
             }
-            List<LitePalSupport> list = (List<LitePalSupport>) Operator.where(conditions).find(getClass());
+            // only ids are needed to locate the rows, don't load the whole models.
+            List<LitePalSupport> list = (List<LitePalSupport>) Operator.select("id").where(conditions).find(getClass());
             if (list.isEmpty()) {
                 return save();
             } else {
                 SQLiteDatabase db = Connector.getDatabase();
                 db.beginTransaction();
                 try {
+                    SaveHandler saveHandler = new SaveHandler(db);
                     for (LitePalSupport support : list) {
                         baseObjId = support.getBaseObjId();
-                        SaveHandler saveHandler = new SaveHandler(db);
+                        // the snapshot belongs to another row, write all fields into this row.
+                        fieldsSnapshot = null;
                         saveHandler.onSave(this);
                         clearAssociatedData();
                     }
@@ -340,12 +373,120 @@ public class LitePalSupport {
                     e.printStackTrace();
                     return false;
                 } finally {
-                    db.endTransaction();
+                    DBUtility.endTransaction(db);
                 }
             }
+        } finally {
+            lock.unlock();
         }
     }
 
+    /**
+     * Inserts the model, or updates the existing row which has the same values of conflict
+     * columns.<br>
+     *
+     * <pre>
+     * Person person = new Person();
+     * person.setRemoteId(1001);
+     * person.setName(&quot;Tom&quot;);
+     * person.upsert(&quot;remoteId&quot;);
+     * </pre>
+     * <p>
+     * Unlike {@link #saveOrUpdate(String...)}, the existing row is not loaded at all. See
+     * {@link Operator#upsertAll(java.util.Collection, String...)} for details.
+     *
+     * @param conflictColumns The columns which identify a row, such as a remote id.
+     * @return If the model is upserted successfully, return true. Otherwise return false.
+     */
+    public boolean upsert(String... conflictColumns) {
+        return Operator.upsertAll(Collections.singletonList(this), conflictColumns);
+    }
+
+    /**
+     * Put the model into the write-behind queue instead of saving it right now. It's written
+     * together with other pending models in one transaction later, see
+     * {@link Operator#writeBehind(int, long)}. The id is assigned only after it's written, and
+     * the model should not be changed until then, since its state at that time is saved.
+     */
+    public void saveLater() {
+        WriteBehindQueue.enqueue(this);
+    }
+
+    /**
+     * It is mostly same as {@link #save()} but runs on the write lane of
+     * {@link AsyncExecutor} and returns immediately. The model should not be touched until the
+     * result is delivered.
+     *
+     * @return The pending result, true if the model is saved successfully.
+     */
+    public AsyncResult<Boolean> saveAsync() {
+        return AsyncExecutor.write(new Callable<Boolean>() {
+            @Override
+            public Boolean call() {
+                return save();
+            }
+        });
+    }
+
+    /**
+     * Asynchronous version of {@link #update(long)}.
+     *
+     * @param id Which record to update.
+     * @return The pending number of rows affected.
+     */
+    public AsyncResult<Integer> updateAsync(final long id) {
+        return AsyncExecutor.write(new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                return update(id);
+            }
+        });
+    }
+
+    /**
+     * Asynchronous version of {@link #updateAll(String...)}.
+     *
+     * @param conditions A string array representing the WHERE part of an SQL statement.
+     * @return The pending number of rows affected.
+     */
+    public AsyncResult<Integer> updateAllAsync(final String... conditions) {
+        return AsyncExecutor.write(new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                return updateAll(conditions);
+            }
+        });
+    }
+
+    /**
+     * Asynchronous version of {@link #saveOrUpdate(String...)}.
+     *
+     * @param conditions A string array representing the WHERE part of an SQL statement.
+     * @return The pending result, true if the model is saved or updated successfully.
+     */
+    public AsyncResult<Boolean> saveOrUpdateAsync(final String... conditions) {
+        return AsyncExecutor.write(new Callable<Boolean>() {
+            @Override
+            public Boolean call() {
+                return saveOrUpdate(conditions);
+            }
+        });
+    }
+
+    /**
+     * Asynchronous version of {@link #delete()}.
+     *
+     * @return The pending number of rows affected, including cascade delete rows.
+     */
+    public AsyncResult<Integer> deleteAsync() {
+        return AsyncExecutor.write(new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                return delete();
+            }
+        });
+    }
+
     /**
      * Current model is saved or not.
      *
@@ -360,6 +501,7 @@ public class LitePalSupport {
      */
     public void clearSavedState() {
         baseObjId = 0;
+        fieldsSnapshot = null;
     }
 
     /**
@@ -381,6 +523,7 @@ public class LitePalSupport {
      */
     public void assignBaseObjId(long baseObjId) {
         this.baseObjId = baseObjId;
+        fieldsSnapshot = null;
     }
 
     /**
@@ -432,6 +575,35 @@ public class LitePalSupport {
         return fieldsToSetToDefault;
     }
 
+    /**
+     * Get the snapshot of field values which are the same as in database.
+     *
+     * @return The snapshot with field name as key, or null if nothing is recorded.
+     */
+    Map<String, Object> getFieldsSnapshot() {
+        return fieldsSnapshot;
+    }
+
+    /**
+     * Clear the snapshot of field values, then all the fields are considered changed.
+     */
+    void clearFieldsSnapshot() {
+        fieldsSnapshot = null;
+    }
+
+    /**
+     * Record the value of a field which is the same as in database.
+     *
+     * @param fieldName The name of field.
+     * @param value     The value of field, in the form of {@link DataHandler} compares with.
+     */
+    void putFieldSnapshot(String fieldName, Object value) {
+        if (fieldsSnapshot == null) {
+            fieldsSnapshot = new HashMap<String, Object>();
+        }
+        fieldsSnapshot.put(fieldName, value);
+    }
+
     /**
      * Add the id of an associated model into self model's associatedIdsWithFK
      * map. The associated model has a foreign key column in the corresponding
@@ -20,6 +20,11 @@ import android.database.sqlite.SQLiteDatabase;
  * @since 1.1
  */
 public class Many2ManyAnalyzer extends AssociationsAnalyzer {
+
+    Many2ManyAnalyzer(ReverseAssociations reverseAssociations) {
+        super(reverseAssociations);
+    }
+
     /**
      * Analyzing the AssociationInfo. It will help baseObj assign the necessary
      * values automatically. If the two associated models have bidirectional
@@ -45,13 +50,7 @@ public class Many2ManyAnalyzer extends AssociationsAnalyzer {
         declareAssociations(baseObj, associationInfo);
         if (associatedModels != null) {
             for (LitePalSupport associatedModel : associatedModels) {
-                Collection<LitePalSupport> tempCollection = getReverseAssociatedModels(
-                        associatedModel, associationInfo);
-                Collection<LitePalSupport> reverseAssociatedModels = checkAssociatedModelCollection(
-                        tempCollection, associationInfo.getAssociateSelfFromOtherModel());
-                addNewModelForAssociatedModel(reverseAssociatedModels, baseObj);
-                setReverseAssociatedModels(associatedModel, associationInfo,
-                        reverseAssociatedModels);
+                addReverseAssociatedModel(associatedModel, associationInfo, baseObj);
                 dealAssociatedModel(baseObj, associatedModel);
             }
         }
@@ -68,21 +67,6 @@ public class Many2ManyAnalyzer extends AssociationsAnalyzer {
         baseObj.addEmptyModelForJoinTable(getAssociatedTableName(associationInfo));
     }
 
-    /**
-     * Force to build bidirectional associations for the associated model. If it
-     * has already built, ignoring the rest process.
-     *
-     * @param associatedModelCollection The associated models collection of the associated model. Add
-     *                                  self model into it if it doesn't contain self model yet.
-     * @param baseObj                   The baseObj currently want to persist or update.
-     */
-    private void addNewModelForAssociatedModel(Collection<LitePalSupport> associatedModelCollection,
-                                               LitePalSupport baseObj) {
-        if (!associatedModelCollection.contains(baseObj)) {
-            associatedModelCollection.add(baseObj);
-        }
-    }
-
     /**
      * First of all the associated model need to be saved already, or nothing
      * will be executed below. Then add the id of associated model into
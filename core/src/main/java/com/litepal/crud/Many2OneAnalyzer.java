@@ -15,6 +15,10 @@ import com.litepal.util.DBUtility;
  * @since 1.1
  */
 class Many2OneAnalyzer extends AssociationsAnalyzer {
+
+    Many2OneAnalyzer(ReverseAssociations reverseAssociations) {
+        super(reverseAssociations);
+    }
     /**
      * Analyzing the AssociationInfo. It will help baseObj assign the necessary
      * values automatically. If the two associated models have bidirectional
@@ -50,7 +54,7 @@ class Many2OneAnalyzer extends AssociationsAnalyzer {
      * collection by calling
      * {@link #checkAssociatedModelCollection(java.util.Collection, java.lang.reflect.Field)}
      * and calling
-     * {@link #dealAssociatedModelOnManySide(java.util.Collection, LitePalSupport, LitePalSupport)}
+     * {@link #dealAssociatedModelOnManySide(LitePalSupport, LitePalSupport)}
      * to set foreign key.
      *
      * @param baseObj         The baseObj currently want to persist or update.
@@ -68,12 +72,8 @@ class Many2OneAnalyzer extends AssociationsAnalyzer {
         LitePalSupport associatedModel = getAssociatedModel(baseObj, associationInfo);
         if (associatedModel != null) {
             // now it's m2o bidirectional association.
-            Collection<LitePalSupport> tempCollection = getReverseAssociatedModels(associatedModel,
-                    associationInfo);
-            Collection<LitePalSupport> reverseAssociatedModels = checkAssociatedModelCollection(
-                    tempCollection, associationInfo.getAssociateSelfFromOtherModel());
-            setReverseAssociatedModels(associatedModel, associationInfo, reverseAssociatedModels);
-            dealAssociatedModelOnManySide(reverseAssociatedModels, baseObj, associatedModel);
+            addReverseAssociatedModel(associatedModel, associationInfo, baseObj);
+            dealAssociatedModelOnManySide(baseObj, associatedModel);
         } else {
             mightClearFKValue(baseObj, associationInfo);
         }
@@ -113,21 +113,14 @@ class Many2OneAnalyzer extends AssociationsAnalyzer {
     }
 
     /**
-     * Check if the baseObj is already existed in the associatedModels
-     * collection. If not add baseObj into the collection. Then if the
-     * associated model is saved, add its' name and id to baseObj by calling
-     * {@link LitePalSupport#addAssociatedModelWithFK(String, long)}.
+     * If the associated model is saved, add its' name and id to baseObj by
+     * calling {@link LitePalSupport#addAssociatedModelWithoutFK(String, long)}.
      *
-     * @param associatedModels The associated model collection.
-     * @param baseObj          The baseObj currently want to persist.
-     * @param associatedModel  The associated info analyzed by
-     *                         {@link LitePalBase#getAssociationInfo(String)}.
+     * @param baseObj         The baseObj currently want to persist.
+     * @param associatedModel The associated info analyzed by
+     *                        {@link LitePalBase#getAssociationInfo(String)}.
      */
-    private void dealAssociatedModelOnManySide(Collection<LitePalSupport> associatedModels,
-                                               LitePalSupport baseObj, LitePalSupport associatedModel) {
-        if (!associatedModels.contains(baseObj)) {
-            associatedModels.add(baseObj);
-        }
+    private void dealAssociatedModelOnManySide(LitePalSupport baseObj, LitePalSupport associatedModel) {
         if (associatedModel.isSaved()) {
             baseObj.addAssociatedModelWithoutFK(associatedModel.getTableName(),
                     associatedModel.getBaseObjId());
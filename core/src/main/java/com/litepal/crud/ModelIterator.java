@@ -0,0 +1,191 @@
+package com.litepal.crud;
+
+import android.database.Cursor;
+import android.util.SparseArray;
+
+import com.litepal.tablemanager.DatabaseLock;
+import com.litepal.tablemanager.model.GenericModel;
+
+import java.io.Closeable;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates the query result row by row. Each model is created from the current row of the
+ * underlying cursor only when {@link #next()} is called, so the memory usage won't grow with the
+ * size of result set. The cursor is closed automatically after the last row is read, but you
+ * should always call {@link #close()} if you stop iterating in the middle. The generic values are
+ * loaded for all the rows of the cursor window at a time, so each generic table is queried once
+ * per window rather than once per row.
+ * <p>
+ * If the iterator is created with instance reusing, {@link #next()} always returns the same model
+ * instance filled with the data of current row. Don't keep the returned model in this case, copy
+ * what you need before calling {@link #next()} again.
+ * <p>
+ * Note that the cursor is not guarded by LitePal, so don't write the same table while iterating.
+ * The database can't be switched while an iterator is open, so always close the iterators which
+ * are not read to the end.
+ *
+ * @author Tony Green
+ * @since 3.0
+ */
+public class ModelIterator<T> implements Iterator<T>, Closeable {
+    /**
+     * The handler which knows how to read a model from cursor.
+     */
+    private final DataHandler handler;
+    /**
+     * The model class to create instances from.
+     */
+    private final Class<T> modelClass;
+    /**
+     * The cursor of query result.
+     */
+    private final Cursor cursor;
+    /**
+     * Supported fields of the model class.
+     */
+    private final List<Field> supportedFields;
+    /**
+     * Supported generic fields of the model class.
+     */
+    private final List<Field> supportedGenericFields;
+    /**
+     * Indicates that return the same model instance for each row or not.
+     */
+    private final boolean reuseInstance;
+    /**
+     * Cache the query information at the first row, then the rest rows can use it directly.
+     */
+    private final SparseArray<DataHandler.QueryInfoCache> queryInfoCacheSparseArray = new SparseArray<DataHandler.QueryInfoCache>();
+    /**
+     * Cache the generic table information at the first row, then the rest rows can use it directly.
+     */
+    private final Map<Field, GenericModel> genericModelMap = new HashMap<Field, GenericModel>();
+    /**
+     * The models which hold the loaded generic values, from the row at {@link #genericStart}.
+     */
+    private final List<LitePalSupport> genericHolders = new ArrayList<LitePalSupport>();
+    /**
+     * The cursor position of the first row whose generic values are loaded.
+     */
+    private int genericStart;
+    /**
+     * The number of rows whose generic values are loaded.
+     */
+    private int genericCount;
+    /**
+     * The reused model instance.
+     */
+    private T instance;
+    /**
+     * Indicates that cursor has been moved to the row which next() should return.
+     */
+    private boolean moved;
+    /**
+     * Indicates that there is a row to return by next().
+     */
+    private boolean hasRow;
+    /**
+     * Indicates that cursor is closed.
+     */
+    private boolean closed;
+
+    ModelIterator(DataHandler handler, Class<T> modelClass, Cursor cursor, List<Field> supportedFields,
+                  List<Field> supportedGenericFields, boolean reuseInstance) {
+        this.handler = handler;
+        this.modelClass = modelClass;
+        this.cursor = cursor;
+        this.supportedFields = supportedFields;
+        this.supportedGenericFields = supportedGenericFields;
+        this.reuseInstance = reuseInstance;
+        DatabaseLock.openIterator();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (closed) {
+            return false;
+        }
+        if (!moved) {
+            hasRow = cursor.moveToNext();
+            moved = true;
+            if (!hasRow) {
+                close();
+            }
+        }
+        return hasRow;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        moved = false;
+        T model;
+        if (supportedGenericFields.isEmpty()) {
+            model = handler.readModel(modelClass, reuseInstance ? instance : null, cursor, supportedFields,
+                    queryInfoCacheSparseArray);
+        } else {
+            LitePalSupport holder = getGenericHolder();
+            if (reuseInstance) {
+                model = handler.readModel(modelClass, instance, cursor, supportedFields, queryInfoCacheSparseArray);
+                handler.copyGenericValues(holder, (LitePalSupport) model, supportedGenericFields);
+            } else {
+                // the holder is a new instance with generic values loaded, fill the rest into it.
+                model = handler.readModel(modelClass, modelClass.cast(holder), cursor, supportedFields,
+                        queryInfoCacheSparseArray);
+            }
+        }
+        if (reuseInstance) {
+            instance = model;
+        }
+        return model;
+    }
+
+    /**
+     * Get the holder of generic values of the current row. Loads the rows to the end of cursor
+     * window if the current row is not loaded yet.
+     *
+     * @return The holder of current row.
+     */
+    private LitePalSupport getGenericHolder() {
+        int position = cursor.getPosition();
+        if (position < genericStart || position >= genericStart + genericCount) {
+            genericStart = position;
+            genericCount = handler.readGenericValues(modelClass, cursor, supportedGenericFields,
+                    genericModelMap, genericHolders, reuseInstance);
+        }
+        return genericHolders.get(position - genericStart);
+    }
+
+    /**
+     * Removing is not supported. Use {@link com.litepal.Operator#delete(Class, long)} instead.
+     */
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("remove");
+    }
+
+    /**
+     * Close the underlying cursor. It's safe to call this method more than once.
+     */
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            cursor.close();
+            DatabaseLock.closeIterator();
+            queryInfoCacheSparseArray.clear();
+            genericModelMap.clear();
+            genericHolders.clear();
+            genericCount = 0;
+        }
+    }
+}
@@ -14,6 +14,10 @@ import com.litepal.util.DBUtility;
  * @since 1.1
  */
 public class One2OneAnalyzer extends AssociationsAnalyzer {
+
+    One2OneAnalyzer(ReverseAssociations reverseAssociations) {
+        super(reverseAssociations);
+    }
     /**
      * Analyzing the AssociationInfo. It will help baseObj assign the necessary
      * values automatically. If the two associated models have bidirectional
@@ -0,0 +1,96 @@
+package com.litepal.crud;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Settings and threads of parallel hydration. When a query returns at least the threshold number
+ * of rows, the raw values are read from cursor on the querying thread, and the models are built
+ * from them on a pool with one thread per core. Only used on devices with more than one core.
+ *
+ * @author Tony Green
+ * @since 3.0
+ */
+public final class ParallelHydration {
+    /**
+     * Default number of rows to hydrate in parallel.
+     */
+    private static final int DEFAULT_THRESHOLD = 5000;
+    /**
+     * The min number of rows in a chunk, so that a chunk is worth a task.
+     */
+    private static final int MIN_CHUNK_SIZE = 256;
+    /**
+     * The number of threads to hydrate.
+     */
+    private static final int PARALLELISM = Runtime.getRuntime().availableProcessors();
+    /**
+     * The min number of rows to hydrate in parallel. 0 means disabled.
+     */
+    private static volatile int threshold = DEFAULT_THRESHOLD;
+    /**
+     * The threads to hydrate, created on first use.
+     */
+    private static ExecutorService executor;
+
+    /**
+     * Disable to create an instance of ParallelHydration.
+     */
+    private ParallelHydration() {
+    }
+
+    /**
+     * Set the min number of rows to hydrate in parallel.
+     *
+     * @param rowThreshold The min number of rows. Pass 0 to disable parallel hydration.
+     */
+    public static void setThreshold(int rowThreshold) {
+        threshold = Math.max(0, rowThreshold);
+    }
+
+    /**
+     * Check if the rows should be hydrated in parallel.
+     *
+     * @param rowCount The number of rows.
+     * @return True to hydrate in parallel, false otherwise.
+     */
+    static boolean isEnabledFor(int rowCount) {
+        int rowThreshold = threshold;
+        return PARALLELISM > 1 && rowThreshold > 0 && rowCount >= rowThreshold;
+    }
+
+    /**
+     * Get the number of rows in each chunk. Rows are split into a few chunks per thread, so that
+     * a thread which finishes early can take another one.
+     *
+     * @param rowCount The number of rows.
+     * @return The number of rows in each chunk.
+     */
+    static int getChunkSize(int rowCount) {
+        return Math.max(MIN_CHUNK_SIZE, (rowCount + PARALLELISM * 4 - 1) / (PARALLELISM * 4));
+    }
+
+    /**
+     * Get the threads to hydrate. They are separated from the executors of asynchronous
+     * operations, so a query running there never waits for its own threads.
+     *
+     * @return The executor to hydrate.
+     */
+    static synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(PARALLELISM, new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "LitePal-hydrate-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return executor;
+    }
+}
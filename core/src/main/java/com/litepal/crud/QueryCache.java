@@ -0,0 +1,217 @@
+package com.litepal.crud;
+
+import android.util.LruCache;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A process-wide LRU cache of query results, for the queries declared with
+ * {@link com.litepal.FluentQuery#cached()}. The key is the shape of a query, which contains the
+ * query type, the table, the columns, the where clause with its arguments, the order and the limit.
+ * <p>
+ * Each table has a version which is increased whenever the table is written through LitePal. A
+ * result remembers the versions of the tables it's read from, and it's discarded once any of them
+ * changes. As the writes inside a transaction are not visible to other threads until it commits,
+ * the written tables are changed once more when the outermost transaction ends through
+ * {@link com.litepal.util.DBUtility#endTransaction}.
+ * <p>
+ * The versions of a result are captured before the query runs, by {@link #getVersions(String[])}.
+ * So if a table is written while the query runs, the result is never cached, even when the
+ * query read the data before the write committed.
+ * <p>
+ * Only the tables of the query model and its generic collections are tracked. If a where clause
+ * reads other tables by sub queries, the result won't be discarded when those tables change.
+ *
+ * @author Tony Green
+ * @since 3.0
+ */
+public final class QueryCache {
+    /**
+     * The max number of results to cache.
+     */
+    private static final int MAX_SIZE = 64;
+    /**
+     * Separates the parts of key, which is not expected to appear in SQL.
+     */
+    private static final char KEY_SEPARATOR = '\u0001';
+    /**
+     * The cached results by key.
+     */
+    private static final LruCache<String, Result> results = new LruCache<String, Result>(MAX_SIZE);
+    /**
+     * The versions of tables. Key is the table name in lower case.
+     */
+    private static final Map<String, Long> tableVersions = new HashMap<String, Long>();
+    /**
+     * The tables written in the transaction of current thread.
+     */
+    private static final ThreadLocal<Set<String>> tablesInTransaction = new ThreadLocal<Set<String>>();
+
+    /**
+     * A cached result with the versions of the tables it's read from.
+     */
+    private static class Result {
+        final String[] tables;
+        final long[] versions;
+        final Object value;
+
+        Result(String[] tables, long[] versions, Object value) {
+            this.tables = tables;
+            this.versions = versions;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Disable to create an instance of QueryCache.
+     */
+    private QueryCache() {
+    }
+
+    /**
+     * Build the key of a query.
+     *
+     * @param type       The query type, such as find or count.
+     * @param name       The model class name or the table name.
+     * @param columns    The columns to query, or the column to calculate on.
+     * @param conditions The where clause and its arguments.
+     * @param orderBy    The order by clause.
+     * @param limit      The limit clause.
+     * @return The key of the query.
+     */
+    static String getKey(String type, String name, String[] columns, String[] conditions, String orderBy,
+                         String limit) {
+        StringBuilder key = new StringBuilder(type);
+        key.append(KEY_SEPARATOR).append(name);
+        appendArray(key, columns);
+        appendArray(key, conditions);
+        key.append(KEY_SEPARATOR).append(orderBy);
+        key.append(KEY_SEPARATOR).append(limit);
+        return key.toString();
+    }
+
+    /**
+     * Get the cached result of the query.
+     *
+     * @param key The key of the query.
+     * @return The cached result, or null if it's not cached or out of date.
+     */
+    static synchronized Object get(String key) {
+        Result result = results.get(key);
+        if (result == null) {
+            return null;
+        }
+        for (int i = 0; i < result.tables.length; i++) {
+            if (getVersion(result.tables[i]) != result.versions[i]) {
+                results.remove(key);
+                return null;
+            }
+        }
+        return result.value;
+    }
+
+    /**
+     * Get the current versions of the tables. Call it before running the query whose result will
+     * be cached.
+     *
+     * @param tables The tables which the result is read from.
+     * @return The versions of tables.
+     */
+    static synchronized long[] getVersions(String[] tables) {
+        long[] versions = new long[tables.length];
+        for (int i = 0; i < tables.length; i++) {
+            versions[i] = getVersion(tables[i]);
+        }
+        return versions;
+    }
+
+    /**
+     * Cache the result of the query, unless any of the tables is changed since the versions are
+     * captured.
+     *
+     * @param key      The key of the query.
+     * @param tables   The tables which the result is read from.
+     * @param versions The versions of tables captured before the query.
+     * @param value    The result, which must not be changed later.
+     */
+    static synchronized void put(String key, String[] tables, long[] versions, Object value) {
+        for (int i = 0; i < tables.length; i++) {
+            if (getVersion(tables[i]) != versions[i]) {
+                return;
+            }
+        }
+        results.put(key, new Result(tables, versions, value));
+    }
+
+    /**
+     * Discard all the cached results which are read from the table.
+     *
+     * @param tableName The table which is written.
+     */
+    static synchronized void invalidate(String tableName) {
+        String key = getTableKey(tableName);
+        Long version = tableVersions.get(key);
+        tableVersions.put(key, version == null ? 1 : version + 1);
+    }
+
+    /**
+     * Remember that the table is written in the transaction of current thread, so that it can be
+     * invalidated again when the transaction ends.
+     *
+     * @param tableName The table which is written.
+     */
+    static void invalidateOnTransactionEnd(String tableName) {
+        Set<String> tables = tablesInTransaction.get();
+        if (tables == null) {
+            tables = new HashSet<String>();
+            tablesInTransaction.set(tables);
+        }
+        tables.add(tableName);
+    }
+
+    /**
+     * Invalidate the tables written in the transaction of current thread. Called by
+     * {@link com.litepal.util.DBUtility#endTransaction} after the outermost transaction ends.
+     */
+    public static void onTransactionEnd() {
+        Set<String> tables = tablesInTransaction.get();
+        if (tables != null) {
+            tablesInTransaction.remove();
+            for (String tableName : tables) {
+                invalidate(tableName);
+            }
+        }
+    }
+
+    /**
+     * Discard all the cached results. Should be called when the using database is switched or
+     * closed.
+     */
+    public static synchronized void clear() {
+        // versions only grow, so a result whose versions were captured earlier is never cached.
+        results.evictAll();
+    }
+
+    private static long getVersion(String tableName) {
+        Long version = tableVersions.get(getTableKey(tableName));
+        return version == null ? 0 : version;
+    }
+
+    private static String getTableKey(String tableName) {
+        return tableName.toLowerCase(Locale.US);
+    }
+
+    private static void appendArray(StringBuilder key, String[] array) {
+        key.append(KEY_SEPARATOR);
+        if (array != null) {
+            key.append(array.length);
+            for (String item : array) {
+                key.append(KEY_SEPARATOR).append(item);
+            }
+        }
+    }
+}
@@ -1,11 +1,23 @@
 package com.litepal.crud;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
+import com.litepal.exceptions.LitePalSupportException;
 import com.litepal.util.BaseUtility;
 import com.litepal.util.DBUtility;
 
+import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteQueryBuilder;
+import android.text.TextUtils;
 
 /**
  * This is a component under LitePalSupport. It deals with query stuff as primary
@@ -15,6 +27,11 @@ import android.database.sqlite.SQLiteDatabase;
  * @since 1.1
  */
 public class QueryHandler extends DataHandler {
+    /**
+     * Indicates that the results of finding by conditions and calculating should be cached.
+     */
+    private final boolean cacheResult;
+
     /**
      * Initialize {@link DataHandler#mDatabase} for operating database. Do not
      * allow to create instance of QueryHandler out of CRUD package.
@@ -22,7 +39,19 @@ public class QueryHandler extends DataHandler {
      * @param db The instance of SQLiteDatabase.
      */
     public QueryHandler(SQLiteDatabase db) {
+        this(db, false);
+    }
+
+    /**
+     * Initialize {@link DataHandler#mDatabase} for operating database, with the results of
+     * finding by conditions and calculating cached in {@link QueryCache} or not.
+     *
+     * @param db          The instance of SQLiteDatabase.
+     * @param cacheResult True to cache the results, false not.
+     */
+    public QueryHandler(SQLiteDatabase db, boolean cacheResult) {
         mDatabase = db;
+        this.cacheResult = cacheResult;
     }
 
     /**
@@ -35,6 +64,12 @@ public class QueryHandler extends DataHandler {
      * @return An object with found data from database, or null.
      */
     public <T> T onFind(Class<T> modelClass, long id, boolean isEager) {
+        if (!isEager) {
+            T model = findInMemory(modelClass, id);
+            if (model != null) {
+                return model;
+            }
+        }
         List<T> dataList = query(modelClass, null, "id = ?", new String[]{String.valueOf(id)},
                 null, null, null, null, getForeignKeyAssociations(modelClass.getName(), isEager));
         if (dataList.size() > 0) {
@@ -91,6 +126,8 @@ public class QueryHandler extends DataHandler {
         if (isAffectAllLines(ids)) {
             dataList = query(modelClass, null, null, null, null, null, "id", null,
                     getForeignKeyAssociations(modelClass.getName(), isEager));
+        } else if (!isEager && getEntityCacheSize(modelClass) > 0) {
+            dataList = findAllByIds(modelClass, ids);
         } else {
             dataList = query(modelClass, null, getWhereOfIdsWithOr(ids), null, null, null, "id",
                     null, getForeignKeyAssociations(modelClass.getName(), isEager));
@@ -117,14 +154,267 @@ public class QueryHandler extends DataHandler {
      */
     public <T> List<T> onFind(Class<T> modelClass, String[] columns, String[] conditions, String orderBy,
                               String limit, boolean isEager) {
-        BaseUtility.checkConditionsCorrect(conditions);
-        if (conditions != null && conditions.length > 0) {
-            conditions[0] = DBUtility.convertWhereClauseToColumnName(conditions[0]);
-        }
+        conditions = prepareConditions(modelClass, conditions);
         orderBy = DBUtility.convertOrderByClauseToValidName(orderBy);
-        return query(modelClass, columns, getWhereClause(conditions),
+        String key = null;
+        String[] tables = null;
+        long[] versions = null;
+        // eager results depend on associated tables, and session needs the instances it holds.
+        if (cacheResult && !isEager && Session.current() == null) {
+            key = QueryCache.getKey("find", modelClass.getName(), columns, conditions, orderBy, limit);
+            List<T> cachedList = getCachedModels(modelClass, key);
+            if (cachedList != null) {
+                return cachedList;
+            }
+            tables = getCachedTables(modelClass);
+            versions = QueryCache.getVersions(tables);
+        }
+        List<T> dataList = query(modelClass, columns, getWhereClause(conditions),
                 getWhereArgs(conditions), null, null, orderBy, limit,
                 getForeignKeyAssociations(modelClass.getName(), isEager));
+        if (key != null) {
+            putCachedModels(modelClass, key, tables, versions, dataList);
+        }
+        return dataList;
+    }
+
+    /**
+     * The open interface for other classes in CRUD package to iterate multiple
+     * records by parameters. Models are created lazily while iterating.
+     *
+     * @param modelClass    Which table to query and the object type to return.
+     * @param columns       A String array of which columns to return. Passing null will
+     *                      return all columns.
+     * @param conditions    A filter declaring which rows to return, formatted as an SQL
+     *                      WHERE clause. Passing null will return all rows.
+     * @param orderBy       How to order the rows, formatted as an SQL ORDER BY clause.
+     *                      Passing null will use the default sort order, which may be
+     *                      unordered.
+     * @param limit         Limits the number of rows returned by the query, formatted as
+     *                      LIMIT clause.
+     * @param reuseInstance True to return the same model instance for each row.
+     * @return An iterator over the found records.
+     */
+    public <T> ModelIterator<T> onIterate(Class<T> modelClass, String[] columns, String[] conditions, String orderBy,
+                                          String limit, boolean reuseInstance) {
+        conditions = prepareConditions(modelClass, conditions);
+        orderBy = DBUtility.convertOrderByClauseToValidName(orderBy);
+        return iterate(modelClass, columns, getWhereClause(conditions), getWhereArgs(conditions),
+                orderBy, limit, reuseInstance);
+    }
+
+    /**
+     * The open interface for other classes in CRUD package to query the ids of
+     * records by parameters, without creating models.
+     *
+     * @param modelClass Which table to query.
+     * @param conditions A filter declaring which rows to return, formatted as an SQL
+     *                   WHERE clause. Passing null will return all rows.
+     * @param orderBy    How to order the rows, formatted as an SQL ORDER BY clause.
+     * @param limit      Limits the number of rows returned by the query, formatted as
+     *                   LIMIT clause.
+     * @return The ids of found records, or an empty array.
+     */
+    public long[] onFindIds(Class<?> modelClass, String[] conditions, String orderBy, String limit) {
+        conditions = prepareConditions(modelClass, conditions);
+        Cursor cursor = null;
+        try {
+            cursor = mDatabase.query(getTableName(modelClass), new String[]{"id"}, getWhereClause(conditions),
+                    getWhereArgs(conditions), null, null, DBUtility.convertOrderByClauseToValidName(orderBy), limit);
+            long[] ids = new long[cursor.getCount()];
+            for (int i = 0; i < ids.length && cursor.moveToNext(); i++) {
+                ids[i] = cursor.getLong(0);
+            }
+            return ids;
+        } catch (Exception e) {
+            throw new LitePalSupportException(e.getMessage(), e);
+        } finally {
+            if (cursor != null) {
+                cursor.close();
+            }
+        }
+    }
+
+    /**
+     * The open interface for other classes in CRUD package to query the values
+     * of one column by parameters, without creating models. If the column is
+     * mapped to a field of model, the values are converted and decrypted as
+     * the field.
+     *
+     * @param modelClass Which table to query.
+     * @param column     The column or field name to query.
+     * @param type       The type of values.
+     * @param conditions A filter declaring which rows to return, formatted as an SQL
+     *                   WHERE clause. Passing null will return all rows.
+     * @param orderBy    How to order the rows, formatted as an SQL ORDER BY clause.
+     * @param limit      Limits the number of rows returned by the query, formatted as
+     *                   LIMIT clause.
+     * @return The values of found records, null for null columns, or an empty list.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> onPluck(Class<?> modelClass, String column, Class<T> type, String[] conditions,
+                               String orderBy, String limit) {
+        conditions = prepareConditions(modelClass, conditions);
+        Field field = findFieldByColumn(getSupportedFields(modelClass.getName()), column);
+        String columnName = field == null ? column : getColumnName(field);
+        Cursor cursor = null;
+        try {
+            cursor = mDatabase.query(getTableName(modelClass), new String[]{columnName}, getWhereClause(conditions),
+                    getWhereArgs(conditions), null, null, DBUtility.convertOrderByClauseToValidName(orderBy), limit);
+            List<T> values = new ArrayList<T>(cursor.getCount());
+            while (cursor.moveToNext()) {
+                values.add((T) (field == null ? getColumnValue(cursor, 0, type) : getColumnValue(cursor, 0, field)));
+            }
+            return values;
+        } catch (Exception e) {
+            throw new LitePalSupportException(e.getMessage(), e);
+        } finally {
+            if (cursor != null) {
+                cursor.close();
+            }
+        }
+    }
+
+    /**
+     * The open interface for other classes in CRUD package to query records
+     * by parameters into instances of a plain class. Each field of the result
+     * class is filled with the column of the model field which has the same
+     * name, and only these columns are queried. Fields without such a column
+     * are left untouched.
+     *
+     * @param modelClass  Which table to query.
+     * @param resultClass The class to map rows into. Doesn't need to extend LitePalSupport.
+     * @param columns     Limits the fields to fill to these columns. Passing null will
+     *                    fill all the fields with a column.
+     * @param conditions  A filter declaring which rows to return, formatted as an SQL
+     *                    WHERE clause. Passing null will return all rows.
+     * @param orderBy     How to order the rows, formatted as an SQL ORDER BY clause.
+     * @param limit       Limits the number of rows returned by the query, formatted as
+     *                    LIMIT clause.
+     * @return The mapped instances of found records, or an empty list.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> onFindAs(Class<?> modelClass, Class<T> resultClass, String[] columns, String[] conditions,
+                                String orderBy, String limit) {
+        conditions = prepareConditions(modelClass, conditions);
+        List<Field> supportedFields = getSupportedFields(modelClass.getName());
+        List<Field> modelFields = new ArrayList<Field>();
+        List<Field> resultFields = new ArrayList<Field>();
+        for (Class<?> clazz = resultClass; clazz != null && clazz != Object.class && clazz != LitePalSupport.class;
+             clazz = clazz.getSuperclass()) {
+            for (Field resultField : clazz.getDeclaredFields()) {
+                int modifiers = resultField.getModifiers();
+                if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || resultField.isSynthetic()) {
+                    continue;
+                }
+                Field modelField = findFieldByColumn(supportedFields, resultField.getName());
+                if (modelField != null && (columns == null || findColumn(columns, getColumnName(modelField)))) {
+                    resultField.setAccessible(true);
+                    modelFields.add(modelField);
+                    resultFields.add(resultField);
+                }
+            }
+        }
+        if (modelFields.isEmpty()) {
+            throw new LitePalSupportException(LitePalSupportException.noMappedFields(resultClass.getName(),
+                    modelClass.getName()));
+        }
+        String[] columnNames = new String[modelFields.size()];
+        for (int i = 0; i < columnNames.length; i++) {
+            columnNames[i] = getColumnName(modelFields.get(i));
+        }
+        Cursor cursor = null;
+        try {
+            cursor = mDatabase.query(getTableName(modelClass), columnNames, getWhereClause(conditions),
+                    getWhereArgs(conditions), null, null, DBUtility.convertOrderByClauseToValidName(orderBy), limit);
+            List<T> results = new ArrayList<T>(cursor.getCount());
+            while (cursor.moveToNext()) {
+                T result = (T) createInstanceFromClass(resultClass);
+                for (int i = 0; i < columnNames.length; i++) {
+                    Field resultField = resultFields.get(i);
+                    Object value = getColumnValue(cursor, i, modelFields.get(i));
+                    // primitive fields keep their default value for null columns.
+                    if (value != null || !resultField.getType().isPrimitive()) {
+                        resultField.set(result, value);
+                    }
+                }
+                results.add(result);
+            }
+            return results;
+        } catch (Exception e) {
+            throw new LitePalSupportException(e.getMessage(), e);
+        } finally {
+            if (cursor != null) {
+                cursor.close();
+            }
+        }
+    }
+
+    /**
+     * Works as {@link #onCount(String, String[])}, with the equality filters
+     * on blind indexed fields of model class rewritten.
+     *
+     * @param modelClass Which table to query from by class.
+     * @param conditions A filter declaring which rows to return.
+     * @return Count of the specified table.
+     */
+    public int onCount(Class<?> modelClass, String[] conditions) {
+        return onCount(getTableName(modelClass), prepareConditions(modelClass, conditions));
+    }
+
+    /**
+     * Works as {@link #onAverage(String, String, String[])}, with the equality
+     * filters on blind indexed fields of model class rewritten.
+     *
+     * @param modelClass Which table to query from by class.
+     * @param column     The based on column to calculate.
+     * @param conditions A filter declaring which rows to calculate on.
+     * @return The average value on a given column.
+     */
+    public double onAverage(Class<?> modelClass, String column, String[] conditions) {
+        return onAverage(getTableName(modelClass), column, prepareConditions(modelClass, conditions));
+    }
+
+    /**
+     * Works as {@link #onMax(String, String, String[], Class)}, with the
+     * equality filters on blind indexed fields of model class rewritten.
+     *
+     * @param modelClass Which table to query from by class.
+     * @param column     The based on column to calculate.
+     * @param conditions A filter declaring which rows to calculate on.
+     * @param type       The type of the based on column.
+     * @return The maximum value on a given column.
+     */
+    public <T> T onMax(Class<?> modelClass, String column, String[] conditions, Class<T> type) {
+        return onMax(getTableName(modelClass), column, prepareConditions(modelClass, conditions), type);
+    }
+
+    /**
+     * Works as {@link #onMin(String, String, String[], Class)}, with the
+     * equality filters on blind indexed fields of model class rewritten.
+     *
+     * @param modelClass Which table to query from by class.
+     * @param column     The based on column to calculate.
+     * @param conditions A filter declaring which rows to calculate on.
+     * @param type       The type of the based on column.
+     * @return The minimum value on a given column.
+     */
+    public <T> T onMin(Class<?> modelClass, String column, String[] conditions, Class<T> type) {
+        return onMin(getTableName(modelClass), column, prepareConditions(modelClass, conditions), type);
+    }
+
+    /**
+     * Works as {@link #onSum(String, String, String[], Class)}, with the
+     * equality filters on blind indexed fields of model class rewritten.
+     *
+     * @param modelClass Which table to query from by class.
+     * @param column     The based on column to calculate.
+     * @param conditions A filter declaring which rows to calculate on.
+     * @param type       The type of the based on column.
+     * @return The sum value on a given column.
+     */
+    public <T> T onSum(Class<?> modelClass, String column, String[] conditions, Class<T> type) {
+        return onSum(getTableName(modelClass), column, prepareConditions(modelClass, conditions), type);
     }
 
     /**
@@ -141,7 +431,7 @@ public class QueryHandler extends DataHandler {
         if (conditions != null && conditions.length > 0) {
             conditions[0] = DBUtility.convertWhereClauseToColumnName(conditions[0]);
         }
-        return mathQuery(tableName, new String[]{"count(1)"}, conditions, int.class);
+        return calculate(tableName, "count(1)", conditions, int.class);
     }
 
     /**
@@ -159,8 +449,7 @@ public class QueryHandler extends DataHandler {
         if (conditions != null && conditions.length > 0) {
             conditions[0] = DBUtility.convertWhereClauseToColumnName(conditions[0]);
         }
-        return mathQuery(tableName, new String[]{"avg(" + column + ")"}, conditions,
-                double.class);
+        return calculate(tableName, "avg(" + column + ")", conditions, double.class);
     }
 
     /**
@@ -179,7 +468,7 @@ public class QueryHandler extends DataHandler {
         if (conditions != null && conditions.length > 0) {
             conditions[0] = DBUtility.convertWhereClauseToColumnName(conditions[0]);
         }
-        return mathQuery(tableName, new String[]{"max(" + column + ")"}, conditions, type);
+        return calculate(tableName, "max(" + column + ")", conditions, type);
     }
 
     /**
@@ -198,7 +487,7 @@ public class QueryHandler extends DataHandler {
         if (conditions != null && conditions.length > 0) {
             conditions[0] = DBUtility.convertWhereClauseToColumnName(conditions[0]);
         }
-        return mathQuery(tableName, new String[]{"min(" + column + ")"}, conditions, type);
+        return calculate(tableName, "min(" + column + ")", conditions, type);
     }
 
     /**
@@ -217,6 +506,326 @@ public class QueryHandler extends DataHandler {
         if (conditions != null && conditions.length > 0) {
             conditions[0] = DBUtility.convertWhereClauseToColumnName(conditions[0]);
         }
-        return mathQuery(tableName, new String[]{"sum(" + column + ")"}, conditions, type);
+        return calculate(tableName, "sum(" + column + ")", conditions, type);
+    }
+
+    /**
+     * The open interface for other classes in CRUD package to calculate several
+     * aggregates in one query, grouped by the columns if there are any.
+     *
+     * @param modelClass  Which table to query from.
+     * @param groupBy     The columns to group by. Passing null or empty won't group.
+     * @param expressions The SQL expressions of aggregates.
+     * @param names       The names of aggregates.
+     * @param conditions  A filter declaring which rows to calculate on, formatted as an SQL
+     *                    WHERE clause. Passing null will calculate on all rows.
+     * @param having      A filter declaring which groups to return, formatted as an SQL
+     *                    HAVING clause. Passing null will return all groups.
+     * @param orderBy     How to order the groups, formatted as an SQL ORDER BY clause.
+     * @param limit       Limits the number of groups returned, formatted as LIMIT clause.
+     * @return The aggregate values of each group.
+     */
+    public AggregateResult onAggregate(Class<?> modelClass, String[] groupBy, String[] expressions, String[] names,
+                                       String[] conditions, String[] having, String orderBy, String limit) {
+        return aggregate(getTableName(modelClass), groupBy, expressions, names,
+                prepareConditions(modelClass, conditions), having, orderBy, limit);
+    }
+
+    /**
+     * The open interface for other classes in CRUD package to calculate several
+     * aggregates in one query on a table, grouped by the columns if there are
+     * any. Works as {@link #onAggregate(Class, String[], String[], String[], String[], String[], String, String)}.
+     *
+     * @param tableName   Which table to query from.
+     * @param groupBy     The columns to group by. Passing null or empty won't group.
+     * @param expressions The SQL expressions of aggregates.
+     * @param names       The names of aggregates.
+     * @param conditions  A filter declaring which rows to calculate on.
+     * @param having      A filter declaring which groups to return.
+     * @param orderBy     How to order the groups.
+     * @param limit       Limits the number of groups returned.
+     * @return The aggregate values of each group.
+     */
+    public AggregateResult onAggregate(String tableName, String[] groupBy, String[] expressions, String[] names,
+                                       String[] conditions, String[] having, String orderBy, String limit) {
+        BaseUtility.checkConditionsCorrect(conditions);
+        if (conditions != null && conditions.length > 0) {
+            conditions[0] = DBUtility.convertWhereClauseToColumnName(conditions[0]);
+        }
+        return aggregate(tableName, groupBy, expressions, names, conditions, having, orderBy, limit);
+    }
+
+    /**
+     * Calculate the aggregates by one query with converted conditions, and cache the result if
+     * required.
+     */
+    private AggregateResult aggregate(String tableName, String[] groupBy, String[] expressions, String[] names,
+                                      String[] conditions, String[] having, String orderBy, String limit) {
+        BaseUtility.checkConditionsCorrect(having);
+        if (having != null && having.length > 0) {
+            // convert a copy, the array belongs to the caller.
+            having = having.clone();
+            having[0] = DBUtility.convertWhereClauseToColumnName(having[0]);
+        }
+        String[] groupColumns = groupBy == null ? new String[0] : groupBy;
+        String[] columns = new String[groupColumns.length + expressions.length];
+        for (int i = 0; i < groupColumns.length; i++) {
+            columns[i] = DBUtility.convertToValidColumnName(groupColumns[i]);
+        }
+        System.arraycopy(expressions, 0, columns, groupColumns.length, expressions.length);
+        orderBy = DBUtility.convertOrderByClauseToValidName(orderBy);
+        String key = null;
+        if (cacheResult) {
+            String[] keyColumns = new String[columns.length + names.length + (having == null ? 0 : having.length)];
+            System.arraycopy(columns, 0, keyColumns, 0, columns.length);
+            System.arraycopy(names, 0, keyColumns, columns.length, names.length);
+            if (having != null) {
+                System.arraycopy(having, 0, keyColumns, columns.length + names.length, having.length);
+            }
+            key = QueryCache.getKey("aggregate" + groupColumns.length, tableName, keyColumns, conditions, orderBy, limit);
+            AggregateResult cached = (AggregateResult) QueryCache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        String[] tables = new String[]{tableName};
+        long[] versions = key == null ? null : QueryCache.getVersions(tables);
+        String groupByClause = groupColumns.length == 0 ? null : TextUtils.join(",", Arrays.copyOf(columns, groupColumns.length));
+        String sql = SQLiteQueryBuilder.buildQueryString(false, tableName, columns, getWhereClause(conditions),
+                groupByClause, getWhereClause(having), orderBy, limit);
+        String[] whereArgs = getWhereArgs(conditions);
+        String[] havingArgs = getWhereArgs(having);
+        String[] args = whereArgs;
+        if (havingArgs != null) {
+            args = new String[(whereArgs == null ? 0 : whereArgs.length) + havingArgs.length];
+            if (whereArgs != null) {
+                System.arraycopy(whereArgs, 0, args, 0, whereArgs.length);
+            }
+            System.arraycopy(havingArgs, 0, args, args.length - havingArgs.length, havingArgs.length);
+        }
+        Cursor cursor = null;
+        try {
+            cursor = mDatabase.rawQuery(sql, args);
+            AggregateResult result = new AggregateResult(groupColumns, names, cursor.getCount());
+            while (cursor.moveToNext()) {
+                result.read(cursor);
+            }
+            if (key != null && !mDatabase.inTransaction()) {
+                QueryCache.put(key, tables, versions, result);
+            }
+            return result;
+        } catch (Exception e) {
+            throw new LitePalSupportException(e.getMessage(), e);
+        } finally {
+            if (cursor != null) {
+                cursor.close();
+            }
+        }
+    }
+
+    /**
+     * Check and convert the conditions into the form to query the table of model class.
+     *
+     * @param modelClass The model class to query.
+     * @param conditions The conditions passed in.
+     * @return The converted conditions.
+     */
+    private String[] prepareConditions(Class<?> modelClass, String[] conditions) {
+        BaseUtility.checkConditionsCorrect(conditions);
+        if (conditions != null && conditions.length > 0) {
+            conditions[0] = DBUtility.convertWhereClauseToColumnName(conditions[0]);
+        }
+        return convertBlindIndexConditions(modelClass, conditions);
+    }
+
+    /**
+     * Find the field which is mapped to the column.
+     *
+     * @param supportedFields List of all supported fields.
+     * @param column          The column or field name.
+     * @return The field mapped to the column, or null if there isn't one.
+     */
+    private Field findFieldByColumn(List<Field> supportedFields, String column) {
+        for (Field field : supportedFields) {
+            if (field.getName().equalsIgnoreCase(column) || getColumnName(field).equalsIgnoreCase(column)) {
+                return field;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the column name of the field.
+     *
+     * @param field The field of model.
+     * @return The column name of the field.
+     */
+    private String getColumnName(Field field) {
+        return isIdColumn(field.getName()) ? "id" : DBUtility.convertToValidColumnName(field.getName());
+    }
+
+    /**
+     * Check if the column is one of the passed in columns, which may be field names as well.
+     *
+     * @param columns    The columns passed in.
+     * @param columnName The column name to find.
+     * @return True if the column is found, false otherwise.
+     */
+    private boolean findColumn(String[] columns, String columnName) {
+        for (String column : columns) {
+            if (columnName.equalsIgnoreCase(column)
+                    || columnName.equalsIgnoreCase(DBUtility.convertToValidColumnName(column))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Calculate by the expression, and cache the result if required.
+     *
+     * @param tableName  Which table to query from.
+     * @param expression The aggregate expression to calculate.
+     * @param conditions A filter declaring which rows to calculate on.
+     * @param type       The type of the result.
+     * @return The result of calculation.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T calculate(String tableName, String expression, String[] conditions, Class<T> type) {
+        if (!cacheResult) {
+            return mathQuery(tableName, new String[]{expression}, conditions, type);
+        }
+        String key = QueryCache.getKey("calculate", tableName, new String[]{expression, type.getName()},
+                conditions, null, null);
+        Object result = QueryCache.get(key);
+        if (result == null) {
+            String[] tables = new String[]{tableName};
+            long[] versions = QueryCache.getVersions(tables);
+            result = mathQuery(tableName, new String[]{expression}, conditions, type);
+            if (result != null && !mDatabase.inTransaction()) {
+                QueryCache.put(key, tables, versions, result);
+            }
+        }
+        return (T) result;
+    }
+
+    /**
+     * Get copies of the cached models found by the query.
+     *
+     * @param modelClass The model class.
+     * @param key        The key of the query.
+     * @return A new list of copied models, or null if the result is not cached.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> List<T> getCachedModels(Class<T> modelClass, String key) {
+        List<LitePalSupport> cachedList = (List<LitePalSupport>) QueryCache.get(key);
+        if (cachedList == null) {
+            return null;
+        }
+        try {
+            List<Field> supportedFields = getSupportedFields(modelClass.getName());
+            List<Field> supportedGenericFields = getSupportedGenericFields(modelClass.getName());
+            List<T> dataList = new ArrayList<T>(cachedList.size());
+            for (LitePalSupport model : cachedList) {
+                dataList.add((T) copyModel(model, supportedFields, supportedGenericFields));
+            }
+            return dataList;
+        } catch (Exception e) {
+            throw new LitePalSupportException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Get the tables which the models found by a query depend on, which are the table of model
+     * and its generic tables.
+     *
+     * @param modelClass The model class.
+     * @return The tables of model class.
+     */
+    private String[] getCachedTables(Class<?> modelClass) {
+        List<Field> supportedGenericFields = getSupportedGenericFields(modelClass.getName());
+        String[] tables = new String[supportedGenericFields.size() + 1];
+        tables[0] = getTableName(modelClass);
+        for (int i = 0; i < supportedGenericFields.size(); i++) {
+            tables[i + 1] = DBUtility.getGenericTableName(modelClass.getName(), supportedGenericFields.get(i).getName());
+        }
+        return tables;
+    }
+
+    /**
+     * Cache copies of the models found by the query. Nothing is cached inside a transaction.
+     *
+     * @param modelClass The model class.
+     * @param key        The key of the query.
+     * @param tables     The tables which the models are read from.
+     * @param versions   The versions of tables captured before the query.
+     * @param dataList   The found models.
+     */
+    private <T> void putCachedModels(Class<T> modelClass, String key, String[] tables, long[] versions,
+                                     List<T> dataList) {
+        if (mDatabase.inTransaction()) {
+            return;
+        }
+        try {
+            List<Field> supportedFields = getSupportedFields(modelClass.getName());
+            List<Field> supportedGenericFields = getSupportedGenericFields(modelClass.getName());
+            List<LitePalSupport> cachedList = new ArrayList<LitePalSupport>(dataList.size());
+            for (T model : dataList) {
+                cachedList.add(copyModel((LitePalSupport) model, supportedFields, supportedGenericFields));
+            }
+            QueryCache.put(key, tables, versions, cachedList);
+        } catch (Exception e) {
+            throw new LitePalSupportException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Find the model of the row in the session of current thread, and then in entity cache. The
+     * model found in entity cache is put into the session as well.
+     *
+     * @param modelClass The model class.
+     * @param id         The id of row.
+     * @return The model, or null if the row is not in memory.
+     */
+    private <T> T findInMemory(Class<T> modelClass, long id) {
+        Session session = Session.current();
+        T model = session == null ? null : session.get(modelClass, id);
+        if (model == null) {
+            model = getFromEntityCache(modelClass, id);
+            if (model != null && session != null) {
+                session.put((LitePalSupport) model);
+            }
+        }
+        return model;
+    }
+
+    /**
+     * Query the rows by ids, only the rows which are not in memory are read from database.
+     *
+     * @param modelClass Which table to query and the object type to return as a list.
+     * @param ids        Which records to query.
+     * @return An object list ordered by id, or an empty list.
+     */
+    private <T> List<T> findAllByIds(Class<T> modelClass, long... ids) {
+        Map<Long, T> models = new TreeMap<Long, T>();
+        Set<Long> missedIds = new HashSet<Long>();
+        for (long id : ids) {
+            if (!models.containsKey(id) && !missedIds.contains(id)) {
+                T model = findInMemory(modelClass, id);
+                if (model != null) {
+                    models.put(id, model);
+                } else {
+                    missedIds.add(id);
+                }
+            }
+        }
+        if (!missedIds.isEmpty()) {
+            List<T> dataList = query(modelClass, null, getWhereOfIdsWithOr(missedIds), null, null, null,
+                    null, null, null);
+            for (T model : dataList) {
+                models.put(((LitePalSupport) model).getBaseObjId(), model);
+            }
+        }
+        return new ArrayList<T>(models.values());
     }
-}
\ No newline at end of file
+}
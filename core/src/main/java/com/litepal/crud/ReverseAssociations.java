@@ -0,0 +1,86 @@
+package com.litepal.crud;
+
+import java.lang.reflect.Field;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the reverse association collections which are built while analyzing associations in one
+ * operation of a handler. When many models are associated with the same model, such as saving
+ * a lot of songs of one album, the collection of the album is copied and read only once, and
+ * each song is checked against an identity set instead of scanning the collection.
+ * <p>
+ * Models are compared by identity, so an instance is added only once no matter how equals is
+ * implemented by the model class.
+ *
+ * @author Tony Green
+ * @since 3.0
+ */
+final class ReverseAssociations {
+    /**
+     * The collections by the model which holds them, then by the field of collection.
+     */
+    private final Map<LitePalSupport, Map<Field, Entry>> entries = new IdentityHashMap<LitePalSupport, Map<Field, Entry>>();
+
+    /**
+     * Get the collection of the field which is already tracked.
+     *
+     * @param model The model which holds the collection.
+     * @param field The field of collection.
+     * @return The tracked collection, or null if it's not tracked yet.
+     */
+    Entry get(LitePalSupport model, Field field) {
+        Map<Field, Entry> fieldEntries = entries.get(model);
+        if (fieldEntries != null) {
+            return fieldEntries.get(field);
+        }
+        return null;
+    }
+
+    /**
+     * Track the collection of the field, which must be the one set into the model.
+     *
+     * @param model      The model which holds the collection.
+     * @param field      The field of collection.
+     * @param collection The collection of the field.
+     * @return The tracked collection.
+     */
+    Entry put(LitePalSupport model, Field field, Collection<LitePalSupport> collection) {
+        Map<Field, Entry> fieldEntries = entries.get(model);
+        if (fieldEntries == null) {
+            fieldEntries = new HashMap<Field, Entry>();
+            entries.put(model, fieldEntries);
+        }
+        Entry entry = new Entry(collection);
+        fieldEntries.put(field, entry);
+        return entry;
+    }
+
+    /**
+     * A tracked collection with the identity set of its models.
+     */
+    static class Entry {
+        final Collection<LitePalSupport> collection;
+        private final Set<LitePalSupport> members = Collections.newSetFromMap(new IdentityHashMap<LitePalSupport, Boolean>());
+
+        Entry(Collection<LitePalSupport> collection) {
+            this.collection = collection;
+            members.addAll(collection);
+        }
+
+        /**
+         * Add the model into the collection if it's not in yet.
+         *
+         * @param model The model to add.
+         */
+        void add(LitePalSupport model) {
+            if (members.add(model)) {
+                collection.add(model);
+            }
+        }
+    }
+}
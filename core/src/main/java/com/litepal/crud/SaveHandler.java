@@ -1,19 +1,35 @@
 package com.litepal.crud;
 
 import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteConstraintException;
+import android.database.sqlite.SQLiteCursor;
+import android.database.sqlite.SQLiteCursorDriver;
 import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteDoneException;
+import android.database.sqlite.SQLiteQuery;
+import android.database.sqlite.SQLiteStatement;
+import android.os.Build;
+import android.text.TextUtils;
 import android.util.Log;
 
 import com.litepal.Operator;
 import com.litepal.annotation.Encrypt;
 import com.litepal.exceptions.LitePalSupportException;
 import com.litepal.crud.model.AssociationsInfo;
+import com.litepal.tablemanager.model.IndexModel;
+import com.litepal.util.BaseUtility;
 import com.litepal.util.DBUtility;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 
@@ -31,7 +47,21 @@ import static com.litepal.util.BaseUtility.changeCase;
  * @since 1.1
  */
 public class SaveHandler extends DataHandler {
+    /**
+     * The max number of values bound into one query which looks up the ids of upserted rows.
+     */
+    private static final int MAX_LOOKUP_ARGS = 500;
     private ContentValues values;
+    /**
+     * Compiled statements which are reused when saving a collection of models. Key is the SQL of
+     * the statement. It's null when not in batch mode.
+     */
+    private Map<String, SQLiteStatement> batchStatements;
+    /**
+     * Compiled INSERT statements which are reused when saving a collection of models. Key is the
+     * table name, then the set of columns to insert. It's null when not in batch mode.
+     */
+    private Map<String, Map<Set<String>, InsertStatement>> insertStatements;
 
     /**
      * Initialize {@link DataHandler#mDatabase} for operating database. Do not
@@ -100,18 +130,418 @@ public class SaveHandler extends DataHandler {
             List<Field> supportedFields = getSupportedFields(className);
             List<Field> supportedGenericFields = getSupportedGenericFields(className);
             Collection<AssociationsInfo> associationInfos = getAssociationInfo(className);
+            batchStatements = new HashMap<String, SQLiteStatement>();
+            try {
+                for (LitePalSupport baseObj : array) {
+                    if (!baseObj.isSaved()) {
+                        analyzeAssociatedModels(baseObj, associationInfos);
+                        doSaveAction(baseObj, supportedFields, supportedGenericFields);
+                        analyzeAssociatedModels(baseObj, associationInfos);
+                    } else {
+                        analyzeAssociatedModels(baseObj, associationInfos);
+                        doUpdateAction(baseObj, supportedFields, supportedGenericFields);
+                    }
+                    baseObj.clearAssociatedData();
+                }
+            } finally {
+                for (SQLiteStatement statement : batchStatements.values()) {
+                    statement.close();
+                }
+                batchStatements = null;
+                insertStatements = null;
+            }
+        }
+    }
+
+    /**
+     * The open interface for other classes in CRUD package to upsert a model collection. It is
+     * called when developer calls {@link Operator#upsertAll(Collection, String...)}. Each model
+     * is inserted, or the existing row with the same values of conflict columns is updated. Only
+     * the columns of the model's own fields are written, associations and generic collections
+     * are not touched.
+     * <p>
+     * When the conflict columns are covered by a unique index and SQLite supports it, a single
+     * INSERT ... ON CONFLICT DO UPDATE statement is used for each model. The id of an inserted row
+     * is told by last_insert_rowid(), and the ids of updated rows are looked up together by one
+     * query for each chunk of models. Otherwise the existing row is looked up by the conflict
+     * columns, then updated by id or inserted. Either way, the statements are compiled once and
+     * reused for all the models, and the ids of the rows are assigned to the models.
+     *
+     * @param collection      Holds all models to upsert.
+     * @param conflictColumns The columns which identify a row, such as a remote id.
+     * @throws java.lang.reflect.InvocationTargetException
+     * @throws IllegalAccessException
+     * @throws NoSuchMethodException
+     * @throws IllegalArgumentException
+     * @throws SecurityException
+     */
+    public <T extends LitePalSupport> void onUpsertAll(Collection<T> collection, String... conflictColumns)
+            throws SecurityException, IllegalArgumentException, NoSuchMethodException,
+            IllegalAccessException, InvocationTargetException {
+        if (collection == null || collection.isEmpty()) {
+            return;
+        }
+        LitePalSupport[] array = collection.toArray(new LitePalSupport[0]);
+        String className = array[0].getClassName();
+        String tableName = array[0].getTableName();
+        List<Field> supportedFields = getSupportedFields(className);
+        List<String> conflictColumnNames = getConflictColumnNames(className, conflictColumns);
+        // ON CONFLICT DO UPDATE needs SQLite 3.24, which ships since Android 11 (API 30). The
+        // literal is used since VERSION_CODES.R is newer than compileSdkVersion.
+        boolean nativeUpsert = Build.VERSION.SDK_INT >= 30
+                && hasUniqueIndex(tableName, conflictColumnNames);
+        Field idField = getIdField(supportedFields);
+        int lookupChunkSize = Math.max(1, MAX_LOOKUP_ARGS / conflictColumnNames.size());
+        List<LitePalSupport> updatedModels = new ArrayList<LitePalSupport>();
+        List<Object[]> updatedKeys = new ArrayList<Object[]>();
+        batchStatements = new HashMap<String, SQLiteStatement>();
+        try {
+            long lastRowId = nativeUpsert ? getLastInsertRowId() : 0;
             for (LitePalSupport baseObj : array) {
-                if (!baseObj.isSaved()) {
-                    analyzeAssociatedModels(baseObj, associationInfos);
-                    doSaveAction(baseObj, supportedFields, supportedGenericFields);
-                    analyzeAssociatedModels(baseObj, associationInfos);
+                baseObj.clearFieldsSnapshot();
+                values.clear();
+                putFieldsValue(baseObj, supportedFields, values);
+                long id;
+                if (!containsAll(values, conflictColumnNames)) {
+                    // null never conflicts with others, so it's always a new row.
+                    id = saving(baseObj, values);
+                    lastRowId = id;
+                } else if (nativeUpsert) {
+                    long rowId = getUpsertStatement(tableName, conflictColumnNames).executeInsert();
+                    if (rowId > 0 && rowId != lastRowId) {
+                        // last_insert_rowid() is only changed when the row is inserted, and the
+                        // ids never repeat as the id column is autoincrement.
+                        id = rowId;
+                        lastRowId = rowId;
+                    } else {
+                        // the existing row is updated, its id is looked up later with the others.
+                        refreshFieldsSnapshot(baseObj, supportedFields, values);
+                        updatedModels.add(baseObj);
+                        updatedKeys.add(getConflictValues(conflictColumnNames));
+                        if (updatedModels.size() == lookupChunkSize) {
+                            assignUpdatedIds(tableName, conflictColumnNames, updatedModels, updatedKeys, idField);
+                        }
+                        continue;
+                    }
                 } else {
-                    analyzeAssociatedModels(baseObj, associationInfos);
-                    doUpdateAction(baseObj, supportedFields, supportedGenericFields);
+                    id = findIdByConflictColumns(tableName, conflictColumnNames);
+                    if (id > 0) {
+                        SQLiteStatement statement = getUpdateByIdStatement(tableName, id);
+                        if (statement != null) {
+                            statement.executeUpdateDelete();
+                        }
+                    } else {
+                        id = saving(baseObj, values);
+                    }
+                }
+                throwIfSaveFailed(id);
+                assignIdValue(baseObj, idField, id);
+                refreshFieldsSnapshot(baseObj, supportedFields, values);
+                onModelWritten(baseObj);
+            }
+            assignUpdatedIds(tableName, conflictColumnNames, updatedModels, updatedKeys, idField);
+        } finally {
+            for (SQLiteStatement statement : batchStatements.values()) {
+                statement.close();
+            }
+            batchStatements = null;
+            insertStatements = null;
+        }
+    }
+
+    /**
+     * Convert the conflict columns passed in into column names, and check they are all columns
+     * of the model.
+     *
+     * @param className       The class name of model.
+     * @param conflictColumns The conflict columns passed in by developer.
+     * @return The column names of conflict columns.
+     * @throws LitePalSupportException
+     */
+    private List<String> getConflictColumnNames(String className, String... conflictColumns) {
+        if (conflictColumns == null || conflictColumns.length == 0) {
+            throw new LitePalSupportException(LitePalSupportException.UPSERT_CONFLICT_COLUMNS_EXCEPTION);
+        }
+        List<String> modelColumnNames = getModelMetadata(className).getColumnNames();
+        List<String> columnNames = new ArrayList<String>();
+        for (String conflictColumn : conflictColumns) {
+            String conflictColumnName = DBUtility.convertToValidColumnName(conflictColumn);
+            String columnName = null;
+            for (String modelColumnName : modelColumnNames) {
+                if (modelColumnName.equalsIgnoreCase(conflictColumnName)) {
+                    // use the same key as the field's value in ContentValues, which is case sensitive.
+                    columnName = changeCase(modelColumnName);
+                    break;
+                }
+            }
+            if (columnName == null) {
+                throw new LitePalSupportException(LitePalSupportException.UPSERT_CONFLICT_COLUMNS_EXCEPTION);
+            }
+            columnNames.add(columnName);
+        }
+        return columnNames;
+    }
+
+    /**
+     * Check if there's a unique index exactly on the conflict columns, which is required by
+     * ON CONFLICT clause.
+     *
+     * @param tableName           The table to check.
+     * @param conflictColumnNames The conflict column names.
+     * @return True if such a unique index exists, false otherwise.
+     */
+    private boolean hasUniqueIndex(String tableName, List<String> conflictColumnNames) {
+        Set<String> expected = new HashSet<String>();
+        for (String columnName : conflictColumnNames) {
+            expected.add(columnName.toLowerCase(Locale.US));
+        }
+        for (IndexModel indexModel : DBUtility.findIndexes(tableName, mDatabase)) {
+            if (indexModel.isUnique() && indexModel.getColumnNames().size() == expected.size()) {
+                Set<String> actual = new HashSet<String>();
+                for (String columnName : indexModel.getColumnNames()) {
+                    actual.add(columnName.toLowerCase(Locale.US));
+                }
+                if (actual.equals(expected)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check if all the conflict columns have values to write.
+     *
+     * @param values              The values to write.
+     * @param conflictColumnNames The conflict column names.
+     * @return True if all the conflict columns have non-null values, false otherwise.
+     */
+    private boolean containsAll(ContentValues values, List<String> conflictColumnNames) {
+        for (String columnName : conflictColumnNames) {
+            if (values.get(columnName) == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get the compiled INSERT ... ON CONFLICT DO UPDATE statement with {@link #values} bound.
+     *
+     * @param tableName           The table to upsert into.
+     * @param conflictColumnNames The conflict column names.
+     * @return The statement ready to execute.
+     */
+    private SQLiteStatement getUpsertStatement(String tableName, List<String> conflictColumnNames) {
+        Set<Map.Entry<String, Object>> entries = values.valueSet();
+        StringBuilder sql = new StringBuilder("insert into ");
+        sql.append(tableName).append(" (");
+        StringBuilder placeHolders = new StringBuilder();
+        StringBuilder updates = new StringBuilder();
+        for (Map.Entry<String, Object> entry : entries) {
+            String key = entry.getKey();
+            if (placeHolders.length() > 0) {
+                sql.append(", ");
+                placeHolders.append(", ");
+            }
+            sql.append(key);
+            placeHolders.append("?");
+            if (!BaseUtility.containsIgnoreCases(conflictColumnNames, key)) {
+                if (updates.length() > 0) {
+                    updates.append(", ");
+                }
+                updates.append(key).append(" = excluded.").append(key);
+            }
+        }
+        sql.append(") values (").append(placeHolders).append(") on conflict(");
+        sql.append(TextUtils.join(", ", conflictColumnNames)).append(")");
+        if (updates.length() > 0) {
+            sql.append(" do update set ").append(updates);
+        } else {
+            sql.append(" do nothing");
+        }
+        SQLiteStatement statement = getBatchStatement(sql.toString());
+        int index = 1;
+        for (Map.Entry<String, Object> entry : entries) {
+            bindValue(statement, index++, entry.getValue());
+        }
+        return statement;
+    }
+
+    /**
+     * Get the compiled UPDATE statement which writes {@link #values} into the row with the id,
+     * except the conflict columns which are already the same.
+     *
+     * @param tableName The table to update.
+     * @param id        The id of row to update.
+     * @return The statement ready to execute, or null if there's nothing to update.
+     */
+    private SQLiteStatement getUpdateByIdStatement(String tableName, long id) {
+        Set<Map.Entry<String, Object>> entries = values.valueSet();
+        if (entries.isEmpty()) {
+            return null;
+        }
+        StringBuilder sql = new StringBuilder("update ");
+        sql.append(tableName).append(" set ");
+        boolean needComma = false;
+        for (Map.Entry<String, Object> entry : entries) {
+            if (needComma) {
+                sql.append(", ");
+            }
+            needComma = true;
+            sql.append(entry.getKey()).append(" = ?");
+        }
+        sql.append(" where id = ?");
+        SQLiteStatement statement = getBatchStatement(sql.toString());
+        int index = 1;
+        for (Map.Entry<String, Object> entry : entries) {
+            bindValue(statement, index++, entry.getValue());
+        }
+        statement.bindLong(index, id);
+        return statement;
+    }
+
+    /**
+     * Find the id of row which has the same values of conflict columns as {@link #values}.
+     *
+     * @param tableName           The table to find in.
+     * @param conflictColumnNames The conflict column names.
+     * @return The id of row, or 0 if not found.
+     */
+    private long findIdByConflictColumns(String tableName, List<String> conflictColumnNames) {
+        StringBuilder sql = new StringBuilder("select id from ");
+        sql.append(tableName).append(" where ");
+        boolean needAnd = false;
+        for (String columnName : conflictColumnNames) {
+            if (needAnd) {
+                sql.append(" and ");
+            }
+            needAnd = true;
+            sql.append(columnName).append(" = ?");
+        }
+        sql.append(" limit 1");
+        SQLiteStatement statement = getBatchStatement(sql.toString());
+        int index = 1;
+        for (String columnName : conflictColumnNames) {
+            bindValue(statement, index++, values.get(columnName));
+        }
+        try {
+            return statement.simpleQueryForLong();
+        } catch (SQLiteDoneException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Get the values of conflict columns in {@link #values}.
+     *
+     * @param conflictColumnNames The conflict column names.
+     * @return The values in the order of conflict columns.
+     */
+    private Object[] getConflictValues(List<String> conflictColumnNames) {
+        Object[] key = new Object[conflictColumnNames.size()];
+        for (int i = 0; i < key.length; i++) {
+            key[i] = values.get(conflictColumnNames.get(i));
+        }
+        return key;
+    }
+
+    /**
+     * Get the row ID of the last inserted row on the connection, which is compared with the
+     * result of an upsert to tell if the row is inserted.
+     *
+     * @return The row ID of the last inserted row, or 0 if none.
+     */
+    private long getLastInsertRowId() {
+        return getBatchStatement("select last_insert_rowid()").simpleQueryForLong();
+    }
+
+    /**
+     * Look up the ids of rows updated by upsert with one query, then assign them to the models.
+     * The lists are cleared after.
+     *
+     * @param tableName           The table upserted into.
+     * @param conflictColumnNames The conflict column names.
+     * @param models              The models whose rows are updated.
+     * @param keys                The values of conflict columns of each model.
+     * @param idField             The field of id.
+     */
+    private void assignUpdatedIds(String tableName, List<String> conflictColumnNames,
+                                  List<LitePalSupport> models, List<Object[]> keys, Field idField) {
+        if (models.isEmpty()) {
+            return;
+        }
+        long[] ids = findIdsByConflictColumns(tableName, conflictColumnNames, keys);
+        for (int i = 0; i < ids.length; i++) {
+            LitePalSupport baseObj = models.get(i);
+            throwIfSaveFailed(ids[i]);
+            assignIdValue(baseObj, idField, ids[i]);
+            onModelWritten(baseObj);
+        }
+        models.clear();
+        keys.clear();
+    }
+
+    /**
+     * Find the ids of rows which have the same values of conflict columns as each key, with a
+     * single query joining the keys to the table. The values are bound with their own types, so
+     * they are compared in the same way as {@link #findIdByConflictColumns(String, List)}.
+     *
+     * @param tableName           The table to find in.
+     * @param conflictColumnNames The conflict column names.
+     * @param keys                The values of conflict columns of each row to find.
+     * @return The id of each row, or -1 if not found.
+     */
+    private long[] findIdsByConflictColumns(String tableName, List<String> conflictColumnNames,
+                                            final List<Object[]> keys) {
+        int columnCount = conflictColumnNames.size();
+        StringBuilder sql = new StringBuilder("with lp_keys(lp_index");
+        for (int i = 0; i < columnCount; i++) {
+            sql.append(", lp_key").append(i);
+        }
+        sql.append(") as (values ");
+        for (int i = 0; i < keys.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append("(").append(i);
+            for (int j = 0; j < columnCount; j++) {
+                sql.append(", ?");
+            }
+            sql.append(")");
+        }
+        sql.append(") select lp_keys.lp_index, ").append(tableName).append(".id from lp_keys join ")
+                .append(tableName).append(" on ");
+        for (int i = 0; i < columnCount; i++) {
+            if (i > 0) {
+                sql.append(" and ");
+            }
+            sql.append(tableName).append(".").append(conflictColumnNames.get(i))
+                    .append(" = lp_keys.lp_key").append(i);
+        }
+        long[] ids = new long[keys.size()];
+        Arrays.fill(ids, -1);
+        Cursor cursor = mDatabase.rawQueryWithFactory(new SQLiteDatabase.CursorFactory() {
+            @Override
+            public Cursor newCursor(SQLiteDatabase db, SQLiteCursorDriver masterQuery,
+                                    String editTable, SQLiteQuery query) {
+                int index = 1;
+                for (Object[] key : keys) {
+                    for (Object value : key) {
+                        bindValue(query, index++, value);
+                    }
                 }
-                baseObj.clearAssociatedData();
+                return new SQLiteCursor(masterQuery, editTable, query);
+            }
+        }, sql.toString(), null, null);
+        try {
+            while (cursor.moveToNext()) {
+                ids[cursor.getInt(0)] = cursor.getLong(1);
             }
+        } finally {
+            cursor.close();
         }
+        return ids;
     }
 
     /**
@@ -139,6 +569,8 @@ public class SaveHandler extends DataHandler {
         beforeSave(baseObj, supportedFields, values);
         long id = saving(baseObj, values);
         afterSave(baseObj, supportedFields, supportedGenericFields, id);
+        refreshFieldsSnapshot(baseObj, supportedFields, values);
+        onModelWritten(baseObj);
     }
 
     /**
@@ -174,7 +606,130 @@ public class SaveHandler extends DataHandler {
         if (values.size() == 0) {
             values.putNull("id");
         }
-        return mDatabase.insert(baseObj.getTableName(), null, values);
+        return insert(baseObj.getTableName(), values);
+    }
+
+    /**
+     * Insert a row into the table. When saving a collection of models, the INSERT statement is
+     * compiled once for each table and column set, then reused for all the rows by binding the
+     * values by column index. Otherwise calling
+     * {@link android.database.sqlite.SQLiteDatabase#insert(String, String, android.content.ContentValues)} directly.
+     * Either way, a row which violates a constraint is not inserted and -1 is returned.
+     *
+     * @param tableName The table to insert into.
+     * @param values    The values of the row. Can not be empty.
+     * @return The row ID of the newly inserted row, or -1 if an error occurred.
+     */
+    private long insert(String tableName, ContentValues values) {
+        if (batchStatements == null) {
+            return mDatabase.insert(tableName, null, values);
+        }
+        InsertStatement insert = getInsertStatement(tableName, values);
+        String[] columns = insert.columns;
+        SQLiteStatement statement = insert.statement;
+        for (int i = 0; i < columns.length; i++) {
+            bindValue(statement, i + 1, values.get(columns[i]));
+        }
+        try {
+            return statement.executeInsert();
+        } catch (SQLiteConstraintException e) {
+            Log.e(TAG, "Error inserting into " + tableName, e);
+            return -1;
+        }
+    }
+
+    /**
+     * Get the compiled INSERT statement from cache by table and the set of columns in values.
+     * The SQL is only built when the statement is not compiled yet.
+     *
+     * @param tableName The table to insert into.
+     * @param values    The values of the row. Can not be empty.
+     * @return The compiled INSERT statement with its columns in binding order.
+     */
+    private InsertStatement getInsertStatement(String tableName, ContentValues values) {
+        if (insertStatements == null) {
+            insertStatements = new HashMap<String, Map<Set<String>, InsertStatement>>();
+        }
+        Map<Set<String>, InsertStatement> statements = insertStatements.get(tableName);
+        if (statements == null) {
+            statements = new HashMap<Set<String>, InsertStatement>();
+            insertStatements.put(tableName, statements);
+        }
+        Set<String> columnSet = values.keySet();
+        InsertStatement insert = statements.get(columnSet);
+        if (insert == null) {
+            String[] columns = columnSet.toArray(new String[0]);
+            StringBuilder sql = new StringBuilder("insert into ");
+            sql.append(tableName).append(" (");
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) {
+                    sql.append(", ");
+                }
+                sql.append(columns[i]);
+            }
+            sql.append(") values (");
+            for (int i = 0; i < columns.length; i++) {
+                sql.append(i == 0 ? "?" : ", ?");
+            }
+            sql.append(")");
+            insert = new InsertStatement(columns, getBatchStatement(sql.toString()));
+            // values is reused for every row, so its key set can't be the key.
+            statements.put(new HashSet<String>(columnSet), insert);
+        }
+        return insert;
+    }
+
+    /**
+     * Insert the rows into the table. When saving a collection of models, the INSERT statements
+     * cached by {@link #insert(String, ContentValues)} are reused across all the models.
+     *
+     * @param tableName The table to insert into.
+     * @param rows      The rows to insert.
+     */
+    @Override
+    protected void insertRows(String tableName, List<ContentValues> rows) {
+        if (batchStatements == null) {
+            super.insertRows(tableName, rows);
+            return;
+        }
+        for (ContentValues row : rows) {
+            insert(tableName, row);
+        }
+    }
+
+    /**
+     * Delete rows from the table with a single column condition. When saving a collection of
+     * models, the DELETE statement is compiled once and reused.
+     *
+     * @param tableName  The table to delete from.
+     * @param columnName The column to compare.
+     * @param value      The value of column which rows should be deleted.
+     */
+    private void delete(String tableName, String columnName, long value) {
+        if (batchStatements == null) {
+            mDatabase.delete(tableName, columnName + " = ?", new String[]{String.valueOf(value)});
+            return;
+        }
+        SQLiteStatement statement = getBatchStatement("delete from " + tableName + " where " + columnName + " = ?");
+        statement.bindLong(1, value);
+        statement.executeUpdateDelete();
+    }
+
+    /**
+     * Get the compiled statement from cache by SQL. Compile one if not exists.
+     *
+     * @param sql The SQL of statement.
+     * @return The compiled statement with bindings cleared.
+     */
+    private SQLiteStatement getBatchStatement(String sql) {
+        SQLiteStatement statement = batchStatements.get(sql);
+        if (statement == null) {
+            statement = mDatabase.compileStatement(sql);
+            batchStatements.put(sql, statement);
+        } else {
+            statement.clearBindings();
+        }
+        return statement;
     }
 
     /**
@@ -189,7 +744,7 @@ public class SaveHandler extends DataHandler {
                            List<Field> supportedGenericFields, long id) throws IllegalAccessException, InvocationTargetException {
         throwIfSaveFailed(id);
         assignIdValue(baseObj, getIdField(supportedFields), id);
-        updateGenericTables(baseObj, supportedGenericFields, id);
+        updateGenericTables(baseObj, supportedGenericFields, id, false);
         updateAssociatedTableWithFK(baseObj);
         insertIntermediateJoinTableValue(baseObj, false);
     }
@@ -213,10 +768,12 @@ public class SaveHandler extends DataHandler {
         beforeUpdate(baseObj, supportedFields, values);
         updating(baseObj, values);
         afterUpdate(baseObj, supportedGenericFields);
+        refreshFieldsSnapshot(baseObj, supportedFields, values);
+        onModelWritten(baseObj);
     }
 
     /**
-     * Before updating model, it will be analyzed first. Put all the data
+     * Before updating model, it will be analyzed first. Put the changed data
      * contained by the model into ContentValues, including the fields value and
      * foreign key value. If the associations between models has been removed.
      * The foreign key value in database should be cleared too.
@@ -233,7 +790,7 @@ public class SaveHandler extends DataHandler {
     private void beforeUpdate(LitePalSupport baseObj, List<Field> supportedFields, ContentValues values)
             throws SecurityException, IllegalArgumentException, NoSuchMethodException,
             IllegalAccessException, InvocationTargetException {
-        putFieldsValue(baseObj, supportedFields, values);
+        putChangedFieldsValue(baseObj, supportedFields, values);
         putForeignKeyValue(values, baseObj);
         for (String fkName : baseObj.getListToClearSelfFK()) {
             values.putNull(fkName);
@@ -241,16 +798,14 @@ public class SaveHandler extends DataHandler {
     }
 
     /**
-     * Calling
-     * {@link android.database.sqlite.SQLiteDatabase#update(String, android.content.ContentValues, String, String[])} to
-     * update the current model.
+     * Update the current model by id with a cached compiled statement.
      *
      * @param baseObj Current model to update.
      * @param values  To store data of current model for updating.
      */
     private void updating(LitePalSupport baseObj, ContentValues values) {
         if (values.size() > 0) {
-            mDatabase.update(baseObj.getTableName(), values, "id = ?",
+            executeUpdate(baseObj.getTableName(), values, "id = ?",
                     new String[]{String.valueOf(baseObj.getBaseObjId())});
         }
     }
@@ -263,7 +818,7 @@ public class SaveHandler extends DataHandler {
      */
     private void afterUpdate(LitePalSupport baseObj, List<Field> supportedGenericFields)
             throws InvocationTargetException, IllegalAccessException {
-        updateGenericTables(baseObj, supportedGenericFields, baseObj.getBaseObjId());
+        updateGenericTables(baseObj, supportedGenericFields, baseObj.getBaseObjId(), true);
         updateAssociatedTableWithFK(baseObj);
         insertIntermediateJoinTableValue(baseObj, true);
         clearFKValueInAssociatedTable(baseObj);
@@ -376,6 +931,7 @@ public class SaveHandler extends DataHandler {
             Set<Long> ids = associatedModelMap.get(associatedTableName);
             if (ids != null && !ids.isEmpty()) {
                 mDatabase.update(associatedTableName, values, getWhereOfIdsWithOr(ids), null);
+                onTableChanged(associatedTableName);
             }
         }
     }
@@ -394,49 +950,50 @@ public class SaveHandler extends DataHandler {
             values.putNull(fkColumnName);
             String whereClause = fkColumnName + " = " + baseObj.getBaseObjId();
             mDatabase.update(associatedTableName, values, whereClause, null);
+            onTableChanged(associatedTableName);
         }
     }
 
     /**
      * Insert values into intermediate join tables for self model and associated
-     * models.
+     * models. When updating, only the associations which are added or removed are
+     * written.
      *
      * @param baseObj  Current model that is persisted.
      * @param isUpdate The current action is update or not.
      */
     private void insertIntermediateJoinTableValue(LitePalSupport baseObj, boolean isUpdate) {
         Map<String, List<Long>> associatedIdsM2M = baseObj.getAssociatedModelsMapForJoinTable();
-        ContentValues values = new ContentValues();
+        String selfColumnName = getForeignKeyColumnName(baseObj.getTableName());
         for (String associatedTableName : associatedIdsM2M.keySet()) {
             String joinTableName = getIntermediateTableName(baseObj, associatedTableName);
-            if (isUpdate) {
-                mDatabase.delete(joinTableName, getWhereForJoinTableToDelete(baseObj),
-                        new String[]{String.valueOf(baseObj.getBaseObjId())});
-            }
+            String associatedColumnName = getForeignKeyColumnName(associatedTableName);
             List<Long> associatedIdsM2MSet = associatedIdsM2M.get(associatedTableName);
-            for (long associatedId : associatedIdsM2MSet) {
-                values.clear();
-                values.put(getForeignKeyColumnName(baseObj.getTableName()), baseObj.getBaseObjId());
-                values.put(getForeignKeyColumnName(associatedTableName), associatedId);
-                mDatabase.insert(joinTableName, null, values);
+            if (isUpdate) {
+                List<ContentValues> rows = new ArrayList<ContentValues>(associatedIdsM2MSet.size());
+                for (long associatedId : associatedIdsM2MSet) {
+                    ContentValues values = new ContentValues();
+                    values.put(selfColumnName, baseObj.getBaseObjId());
+                    values.put(associatedColumnName, associatedId);
+                    rows.add(values);
+                }
+                if (synchronizeRows(joinTableName, selfColumnName, baseObj.getBaseObjId(), associatedColumnName,
+                        rows, false)) {
+                    onTableChanged(joinTableName);
+                }
+            } else {
+                ContentValues values = new ContentValues();
+                for (long associatedId : associatedIdsM2MSet) {
+                    values.clear();
+                    values.put(selfColumnName, baseObj.getBaseObjId());
+                    values.put(associatedColumnName, associatedId);
+                    insert(joinTableName, values);
+                }
+                onTableChanged(joinTableName);
             }
         }
     }
 
-    /**
-     * Get the where clause to delete intermediate join table's value for
-     * updating.
-     *
-     * @param baseObj Current model that is persisted.
-     * @return The where clause to execute.
-     */
-    private String getWhereForJoinTableToDelete(LitePalSupport baseObj) {
-        StringBuilder where = new StringBuilder();
-        where.append(getForeignKeyColumnName(baseObj.getTableName()));
-        where.append(" = ?");
-        return where.toString();
-    }
-
     /**
      * Judge should assign id value to model's id field. The principle is that
      * if id name is not null, id type is not null and id is greater than 0,
@@ -453,17 +1010,20 @@ public class SaveHandler extends DataHandler {
     }
 
     /**
-     * Update the generic data in generic tables. Need to delete the related generic data before
-     * saving, because generic data has no id.
+     * Update the generic data in generic tables. When saving, the related generic data is deleted
+     * before inserting, because generic data has no id. When updating, the stored values are
+     * compared with the collection, and only the changed ones are written. Values of List fields
+     * keep their order, while values of Set fields are matched in any order.
      *
      * @param baseObj                Current model that is persisted.
      * @param supportedGenericFields List of all supported generic fields.
      * @param id                     The id of current model.
+     * @param isUpdate               The current action is update or not.
      * @throws IllegalAccessException
      * @throws InvocationTargetException
      */
     private void updateGenericTables(LitePalSupport baseObj, List<Field> supportedGenericFields,
-                                     long id) throws IllegalAccessException, InvocationTargetException {
+                                     long id, boolean isUpdate) throws IllegalAccessException, InvocationTargetException {
         for (Field field : supportedGenericFields) {
             Encrypt annotation = field.getAnnotation(Encrypt.class);
             String algorithm = null;
@@ -477,7 +1037,13 @@ public class SaveHandler extends DataHandler {
                 Log.d(TAG, "updateGenericTables: class name is " + baseObj.getClassName() + " , field name is " + field.getName());
                 String tableName = DBUtility.getGenericTableName(baseObj.getClassName(), field.getName());
                 String genericValueIdColumnName = DBUtility.getGenericValueIdColumnName(baseObj.getClassName());
-                mDatabase.delete(tableName, genericValueIdColumnName + " = ?", new String[]{String.valueOf(id)});
+                String valueColumnName;
+                if (baseObj.getClassName().equals(genericTypeName)) {
+                    valueColumnName = DBUtility.getM2MSelfRefColumnName(field);
+                } else {
+                    valueColumnName = changeCase(DBUtility.convertToValidColumnName(field.getName()));
+                }
+                List<ContentValues> rows = new ArrayList<ContentValues>(collection.size());
                 for (Object object : collection) {
                     ContentValues values = new ContentValues();
                     values.put(genericValueIdColumnName, id);
@@ -491,15 +1057,38 @@ public class SaveHandler extends DataHandler {
                         if (baseObjId <= 0) {
                             continue;
                         }
-                        values.put(DBUtility.getM2MSelfRefColumnName(field), baseObjId);
+                        values.put(valueColumnName, baseObjId);
                     } else {
-                        Object[] parameters = new Object[]{changeCase(DBUtility.convertToValidColumnName(field.getName())), object};
-                        Class<?>[] parameterTypes = new Class[]{String.class, getGenericTypeClass(field)};
-                        DynamicExecutor.send(values, "put", parameters, values.getClass(), parameterTypes);
+                        putContentValue(values, valueColumnName, getGenericTypeClass(field), object);
+                    }
+                    rows.add(values);
+                }
+                if (isUpdate) {
+                    if (synchronizeRows(tableName, genericValueIdColumnName, id, valueColumnName, rows,
+                            !Set.class.isAssignableFrom(field.getType()))) {
+                        onTableChanged(tableName);
+                    }
+                } else {
+                    delete(tableName, genericValueIdColumnName, id);
+                    for (ContentValues values : rows) {
+                        insert(tableName, values);
                     }
-                    mDatabase.insert(tableName, null, values);
+                    onTableChanged(tableName);
                 }
             }
         }
     }
+
+    /**
+     * A compiled INSERT statement with the columns it binds, in binding order.
+     */
+    private static class InsertStatement {
+        final String[] columns;
+        final SQLiteStatement statement;
+
+        InsertStatement(String[] columns, SQLiteStatement statement) {
+            this.columns = columns;
+            this.statement = statement;
+        }
+    }
 }
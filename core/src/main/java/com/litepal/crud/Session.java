@@ -0,0 +1,166 @@
+package com.litepal.crud;
+
+import com.litepal.util.DBUtility;
+
+import java.io.Closeable;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A session keeps an identity map of the models loaded in current thread, so that each row is
+ * materialized only once while the session is open. Finding a model by id which is already in the
+ * session returns the same instance without querying database, and the rows which are already in
+ * the session are not read into new instances again when they appear in other query results.
+ * <p>
+ * The first loaded instance of a row always wins. The instances are not refreshed by later
+ * queries. The models loaded with part of columns are not kept in the session, and eager queries
+ * always load new instances with their associations. The rows changed by LitePal in the same
+ * thread are removed from the session, but the changes made by other threads are not noticed. So
+ * keep the session short, usually in the scope of one logical operation.
+ *
+ * <pre>
+ * Session session = LitePal.openSession();
+ * try {
+ *     List&lt;Song&gt; songs = LitePal.findAll(Song.class);
+ *     ...
+ * } finally {
+ *     session.close();
+ * }
+ * </pre>
+ *
+ * @author Tony Green
+ * @since 3.0
+ */
+public final class Session implements Closeable {
+    /**
+     * The session which is open in current thread.
+     */
+    private static final ThreadLocal<Session> current = new ThreadLocal<Session>();
+    /**
+     * The session which was open before this one, will be restored after this one is closed.
+     */
+    private final Session previous;
+    /**
+     * Table name in lower case as key, and the models of the table by id as value.
+     */
+    private final Map<String, Map<Long, Object>> identityMap = new HashMap<String, Map<Long, Object>>();
+    /**
+     * Indicates that the session is closed or not.
+     */
+    private boolean closed;
+
+    private Session(Session previous) {
+        this.previous = previous;
+    }
+
+    /**
+     * Open a new session in current thread. The session is used by all the queries of current
+     * thread until it's closed. Sessions can be nested, the outer one is used again after the
+     * inner one is closed.
+     *
+     * @return The opened session.
+     */
+    public static Session open() {
+        Session session = new Session(current.get());
+        current.set(session);
+        return session;
+    }
+
+    /**
+     * Get the session which is open in current thread.
+     *
+     * @return The session, or null if there's no session open.
+     */
+    static Session current() {
+        return current.get();
+    }
+
+    /**
+     * Find the model of the row in this session.
+     *
+     * @param modelClass The model class.
+     * @param id         The id of row.
+     * @return The model instance, or null if it's not in this session.
+     */
+    @SuppressWarnings("unchecked")
+    <T> T get(Class<T> modelClass, long id) {
+        Map<Long, Object> models = identityMap.get(getKey(DBUtility.getTableNameByClassName(modelClass.getName())));
+        if (models != null) {
+            Object model = models.get(id);
+            if (modelClass.isInstance(model)) {
+                return (T) model;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Put the model of the row into this session. The existing one won't be replaced.
+     *
+     * @param model The model instance which is saved already.
+     */
+    void put(LitePalSupport model) {
+        String key = getKey(DBUtility.getTableNameByClassName(model.getClassName()));
+        Map<Long, Object> models = identityMap.get(key);
+        if (models == null) {
+            models = new HashMap<Long, Object>();
+            identityMap.put(key, models);
+        }
+        if (!models.containsKey(model.getBaseObjId())) {
+            models.put(model.getBaseObjId(), model);
+        }
+    }
+
+    /**
+     * Remove the model of the row from this session.
+     *
+     * @param tableName The table name.
+     * @param id        The id of row.
+     */
+    void remove(String tableName, long id) {
+        Map<Long, Object> models = identityMap.get(getKey(tableName));
+        if (models != null) {
+            models.remove(id);
+        }
+    }
+
+    /**
+     * Remove all the models of the table from this session.
+     *
+     * @param tableName The table name.
+     */
+    void removeAll(String tableName) {
+        identityMap.remove(getKey(tableName));
+    }
+
+    /**
+     * Remove all the models from this session.
+     */
+    public void clear() {
+        identityMap.clear();
+    }
+
+    /**
+     * Close this session and restore the previous one in current thread. It's safe to call this
+     * method more than once.
+     */
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            identityMap.clear();
+            if (current.get() == this) {
+                if (previous == null) {
+                    current.remove();
+                } else {
+                    current.set(previous);
+                }
+            }
+        }
+    }
+
+    private static String getKey(String tableName) {
+        return tableName.toLowerCase(Locale.US);
+    }
+}
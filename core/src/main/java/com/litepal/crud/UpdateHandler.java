@@ -6,13 +6,13 @@ import android.os.Build;
 
 import com.litepal.annotation.Encrypt;
 import com.litepal.exceptions.LitePalSupportException;
-import com.litepal.Operator;
 import com.litepal.crud.model.AssociationsInfo;
 import com.litepal.util.BaseUtility;
 import com.litepal.util.DBUtility;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
@@ -60,12 +60,32 @@ public class UpdateHandler extends DataHandler {
         List<Field> supportedGenericFields = getSupportedGenericFields(baseObj.getClassName());
         updateGenericTables(baseObj, supportedGenericFields, id);
         ContentValues values = new ContentValues();
-        putFieldsValue(baseObj, supportedFields, values);
+        // only the row which the model is loaded from can be compared with the snapshot.
+        boolean updateSelf = baseObj.isSaved() && baseObj.getBaseObjId() == id;
+        if (updateSelf) {
+            putChangedFieldsValue(baseObj, supportedFields, values);
+        } else {
+            putFieldsValue(baseObj, supportedFields, values);
+        }
+        ContentValues fieldValues = new ContentValues(values);
         putFieldsToDefaultValue(baseObj, values, id);
+        int rowsAffected = 0;
         if (values.size() > 0) {
-            return mDatabase.update(baseObj.getTableName(), values, "id = " + id, null);
+            rowsAffected = executeUpdate(baseObj.getTableName(), values, "id = ?", new String[]{String.valueOf(id)});
+            if (updateSelf) {
+                // fields set to default are written with default value rather than the field value.
+                for (String fieldName : baseObj.getFieldsToSetToDefault()) {
+                    fieldValues.remove(changeCase(DBUtility.convertToValidColumnName(fieldName)));
+                }
+                refreshFieldsSnapshot(baseObj, supportedFields, fieldValues);
+            }
         }
-        return 0;
+        if (updateSelf) {
+            onModelWritten(baseObj);
+        } else {
+            onRowChanged(baseObj.getTableName(), id);
+        }
+        return rowsAffected;
     }
 
     /**
@@ -82,7 +102,10 @@ public class UpdateHandler extends DataHandler {
     public int onUpdate(Class<?> modelClass, long id, ContentValues values) {
         if (values.size() > 0) {
             convertContentValues(values);
-            return mDatabase.update(getTableName(modelClass), values, "id = " + id, null);
+            String tableName = getTableName(modelClass);
+            int rowsAffected = executeUpdate(tableName, values, "id = ?", new String[]{String.valueOf(id)});
+            onRowChanged(tableName, id);
+            return rowsAffected;
         }
         return 0;
     }
@@ -103,7 +126,6 @@ public class UpdateHandler extends DataHandler {
      * @throws IllegalArgumentException
      * @throws SecurityException
      */
-    @SuppressWarnings("unchecked")
     int onUpdateAll(LitePalSupport baseObj, String... conditions) throws SecurityException,
             IllegalArgumentException, NoSuchMethodException, IllegalAccessException,
             InvocationTargetException {
@@ -111,17 +133,13 @@ public class UpdateHandler extends DataHandler {
         if (conditions != null && conditions.length > 0) {
             conditions[0] = DBUtility.convertWhereClauseToColumnName(conditions[0]);
         }
+        conditions = convertBlindIndexConditions(baseObj.getClass(), conditions);
         List<Field> supportedFields = getSupportedFields(baseObj.getClassName());
         List<Field> supportedGenericFields = getSupportedGenericFields(baseObj.getClassName());
         long[] ids = null;
         if (!supportedGenericFields.isEmpty()) {
-            List<LitePalSupport> list = (List<LitePalSupport>) Operator.select("id").where(conditions).find(baseObj.getClass());
-            if (list.size() > 0) {
-                ids = new long[list.size()];
-                for (int i = 0; i < ids.length; i++) {
-                    LitePalSupport dataSupport = list.get(i);
-                    ids[i] = dataSupport.getBaseObjId();
-                }
+            ids = new QueryHandler(mDatabase).onFindIds(baseObj.getClass(), conditions, null, null);
+            if (ids.length > 0) {
                 updateGenericTables(baseObj, supportedGenericFields, ids);
             }
         }
@@ -167,11 +185,14 @@ public class UpdateHandler extends DataHandler {
      */
     private int doUpdateAllAction(String tableName, ContentValues values, String... conditions) {
         BaseUtility.checkConditionsCorrect(conditions);
+        int rowsAffected = 0;
         if (values.size() > 0) {
-            return mDatabase.update(tableName, values, getWhereClause(conditions),
+            rowsAffected = executeUpdate(tableName, values, getWhereClause(conditions),
                     getWhereArgs(conditions));
         }
-        return 0;
+        // generic tables might be updated even if there's no value to update.
+        onTableChanged(tableName);
+        return rowsAffected;
     }
 
     /**
@@ -207,6 +228,7 @@ public class UpdateHandler extends DataHandler {
                                     needOr = true;
                                 }
                                 mDatabase.delete(tableName, whereClause.toString(), null);
+                                onTableChanged(tableName);
                             }
                         }
                     } else {
@@ -281,8 +303,9 @@ public class UpdateHandler extends DataHandler {
     }
 
     /**
-     * Update the generic data in generic tables. Need to delete the related generic data before
-     * saving, because generic data has no id. If generic collection is null or empty, the operation
+     * Update the generic data in generic tables. The stored values of each model are compared with
+     * the collection, and only the changed ones are deleted or inserted, as generic data has no id
+     * to update by. If generic collection is null or empty, the operation
      * will be abort. Clear generic collection data while updating should use {@link LitePalSupport#setToDefault(String)}
      * method.
      *
@@ -307,8 +330,16 @@ public class UpdateHandler extends DataHandler {
                 if (collection != null && !collection.isEmpty()) {
                     String tableName = DBUtility.getGenericTableName(baseObj.getClassName(), field.getName());
                     String genericValueIdColumnName = DBUtility.getGenericValueIdColumnName(baseObj.getClassName());
+                    String valueColumnName;
+                    if (baseObj.getClassName().equals(genericTypeName)) {
+                        valueColumnName = DBUtility.getM2MSelfRefColumnName(field);
+                    } else {
+                        valueColumnName = DBUtility.convertToValidColumnName(changeCase(field.getName()));
+                    }
+                    boolean ordered = !Set.class.isAssignableFrom(field.getType());
+                    boolean changed = false;
                     for (long id : ids) {
-                        mDatabase.delete(tableName, genericValueIdColumnName + " = ?", new String[]{String.valueOf(id)});
+                        List<ContentValues> rows = new ArrayList<ContentValues>(collection.size());
                         for (Object object : collection) {
                             ContentValues values = new ContentValues();
                             values.put(genericValueIdColumnName, id);
@@ -322,14 +353,18 @@ public class UpdateHandler extends DataHandler {
                                 if (baseObjId <= 0) {
                                     continue;
                                 }
-                                values.put(DBUtility.getM2MSelfRefColumnName(field), baseObjId);
+                                values.put(valueColumnName, baseObjId);
                             } else {
-                                Object[] parameters = new Object[]{DBUtility.convertToValidColumnName(changeCase(field.getName())), object};
-                                Class<?>[] parameterTypes = new Class[]{String.class, getGenericTypeClass(field)};
-                                DynamicExecutor.send(values, "put", parameters, values.getClass(), parameterTypes);
+                                putContentValue(values, valueColumnName, getGenericTypeClass(field), object);
                             }
-                            mDatabase.insert(tableName, null, values);
+                            rows.add(values);
                         }
+                        if (synchronizeRows(tableName, genericValueIdColumnName, id, valueColumnName, rows, ordered)) {
+                            changed = true;
+                        }
+                    }
+                    if (changed) {
+                        onTableChanged(tableName);
                     }
                 }
             }
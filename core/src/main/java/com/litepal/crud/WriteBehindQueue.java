@@ -0,0 +1,362 @@
+package com.litepal.crud;
+
+import android.database.sqlite.SQLiteDatabase;
+
+import com.litepal.tablemanager.Connector;
+import com.litepal.tablemanager.DatabaseLock;
+import com.litepal.util.DBUtility;
+import com.litepal.util.LitePalLog;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * A write-behind queue which collects the models to save, and writes them in one transaction
+ * later, so that a lot of small writes share one commit instead of paying a journal sync each.
+ * The queue is flushed when the number of pending models reaches the max size, when the first
+ * pending model has waited for the max delay, when {@link #flush()} is called, and before the
+ * using database is switched.
+ * <p>
+ * The models are coalesced per row. Enqueuing the same model again before it's written doesn't
+ * add another write, and the state of the model at flush time is written. Different instances of
+ * the same row are kept and written in order, so none of their changes is lost. The pending
+ * models are not visible to queries until they are flushed.
+ * <p>
+ * If the batch of a flush fails, it's rolled back and the models are written again one by one, each
+ * in its own transaction. Only the models which still fail are dropped, and their errors are
+ * logged. If the flush runs inside an outer transaction, which is failed as a whole by then, the
+ * models are put back into the queue to write by a later flush.
+ * <p>
+ * A flush runs while holding {@link DatabaseLock#writeLock()}, which also makes flushes run one
+ * by one and write batches in the order they are drained. No other lock is taken inside, so it
+ * can be called while holding the write lock or {@link DatabaseLock#switchLock()}.
+ *
+ * @author Tony Green
+ * @since 3.0
+ */
+public final class WriteBehindQueue {
+    private static final String TAG = "WriteBehindQueue";
+    /**
+     * Default max number of pending models.
+     */
+    private static final int DEFAULT_MAX_SIZE = 100;
+    /**
+     * Default max milliseconds a pending model waits for.
+     */
+    private static final long DEFAULT_MAX_DELAY = 1000;
+    /**
+     * The pending models. Key is the row of saved models, or the instance of unsaved models.
+     */
+    private static final Map<Object, List<LitePalSupport>> pending = new LinkedHashMap<Object, List<LitePalSupport>>();
+    /**
+     * The number of pending models.
+     */
+    private static int pendingCount;
+    /**
+     * The max number of pending models before flushing.
+     */
+    private static int maxSize = DEFAULT_MAX_SIZE;
+    /**
+     * The max milliseconds a pending model waits before flushing.
+     */
+    private static long maxDelay = DEFAULT_MAX_DELAY;
+    /**
+     * The thread which flushes in background.
+     */
+    private static ScheduledExecutorService scheduler;
+    /**
+     * Indicates that a delayed flush is scheduled or not.
+     */
+    private static boolean flushScheduled;
+    /**
+     * Indicates that the shutdown hook is added or not.
+     */
+    private static boolean shutdownHookAdded;
+
+    private static final Runnable flushTask = new Runnable() {
+        @Override
+        public void run() {
+            synchronized (pending) {
+                flushScheduled = false;
+            }
+            flush();
+        }
+    };
+
+    /**
+     * Disable to create an instance of WriteBehindQueue.
+     */
+    private WriteBehindQueue() {
+    }
+
+    /**
+     * Set the thresholds to flush.
+     *
+     * @param maxSize  The max number of pending models.
+     * @param maxDelay The max milliseconds a pending model waits.
+     */
+    public static void configure(int maxSize, long maxDelay) {
+        synchronized (pending) {
+            WriteBehindQueue.maxSize = Math.max(1, maxSize);
+            WriteBehindQueue.maxDelay = Math.max(0, maxDelay);
+        }
+    }
+
+    /**
+     * Put the model into the queue to save later. Inserts it if it's not saved yet, or updates
+     * the row otherwise.
+     *
+     * @param model The model to save.
+     */
+    public static void enqueue(LitePalSupport model) {
+        synchronized (pending) {
+            if (!add(model)) {
+                return;
+            }
+            if (pendingCount >= maxSize) {
+                getScheduler().execute(flushTask);
+            } else {
+                scheduleFlush();
+            }
+        }
+    }
+
+    /**
+     * Add the model into the pending models, unless the same instance is pending already. Must be
+     * called while holding the lock of pending.
+     *
+     * @param model The model to add.
+     * @return True if the model is added, false if it's pending already.
+     */
+    private static boolean add(LitePalSupport model) {
+        Object key;
+        if (model.isSaved()) {
+            key = model.getTableName().toLowerCase(Locale.US) + "#" + model.getBaseObjId();
+        } else {
+            key = new Identity(model);
+        }
+        List<LitePalSupport> models = pending.get(key);
+        if (models == null) {
+            models = new ArrayList<LitePalSupport>(1);
+            pending.put(key, models);
+        }
+        for (LitePalSupport queued : models) {
+            if (queued == model) {
+                return false;
+            }
+        }
+        models.add(model);
+        pendingCount++;
+        return true;
+    }
+
+    /**
+     * Schedule a delayed flush if there isn't one. Must be called while holding the lock of
+     * pending.
+     */
+    private static void scheduleFlush() {
+        if (!flushScheduled) {
+            flushScheduled = true;
+            getScheduler().schedule(flushTask, maxDelay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Write all the pending models in one transaction on current thread. If the transaction
+     * fails, write them one by one instead, so a failed model doesn't drop the others.
+     *
+     * @return True if all pending models are written or nothing is pending, false if any model
+     * failed and was dropped, or the models were put back into the queue since the flush ran in
+     * a failed outer transaction.
+     */
+    public static boolean flush() {
+        // drain under the write lock and take no lock after it, so flushes can't deadlock with
+        // the callers which hold the write lock already, such as use() and runInTransaction().
+        Lock lock = DatabaseLock.writeLock();
+        lock.lock();
+        try {
+            List<LitePalSupport> models = drain();
+            if (models.isEmpty()) {
+                return true;
+            }
+            SQLiteDatabase db = Connector.getDatabase();
+            boolean[] saved = new boolean[models.size()];
+            for (int i = 0; i < saved.length; i++) {
+                saved[i] = models.get(i).isSaved();
+            }
+            boolean inTransaction = false;
+            try {
+                writeBatch(db, models);
+                return true;
+            } catch (Exception e) {
+                LitePalLog.e(TAG, e);
+                inTransaction = db.inTransaction();
+            }
+            // the ids and snapshots given by the rolled back batch don't exist in database.
+            for (int i = 0; i < saved.length; i++) {
+                LitePalSupport model = models.get(i);
+                if (saved[i]) {
+                    model.clearFieldsSnapshot();
+                } else {
+                    model.clearSavedState();
+                }
+            }
+            if (inTransaction) {
+                // flushed inside an outer transaction, which is failed as a whole now. Nothing can
+                // be written until it ends, so keep the models for a later flush.
+                requeue(models);
+                return false;
+            }
+            boolean result = true;
+            for (LitePalSupport model : models) {
+                try {
+                    writeBatch(db, Collections.singletonList(model));
+                } catch (Exception e) {
+                    LitePalLog.e(TAG, e);
+                    result = false;
+                }
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Save the models in one transaction. Each run of the same class is saved as a batch, keeping
+     * the order of models.
+     *
+     * @param db     The database to write.
+     * @param models The models to save.
+     * @throws Exception if any model fails, then nothing is written.
+     */
+    private static void writeBatch(SQLiteDatabase db, List<LitePalSupport> models) throws Exception {
+        db.beginTransaction();
+        try {
+            SaveHandler saveHandler = new SaveHandler(db);
+            int start = 0;
+            for (int i = 1; i <= models.size(); i++) {
+                if (i == models.size() || models.get(i).getClass() != models.get(start).getClass()) {
+                    saveHandler.onSaveAll(models.subList(start, i));
+                    start = i;
+                }
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            DBUtility.endTransaction(db);
+        }
+    }
+
+    /**
+     * Flush the pending models, and stop the background thread. The queue can still be used
+     * later, which starts the thread again.
+     *
+     * @return The result of flush.
+     */
+    public static boolean shutdown() {
+        boolean result = flush();
+        synchronized (pending) {
+            if (scheduler != null) {
+                scheduler.shutdown();
+                scheduler = null;
+                flushScheduled = false;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Take all the pending models out in the order they are enqueued.
+     *
+     * @return The pending models.
+     */
+    private static List<LitePalSupport> drain() {
+        synchronized (pending) {
+            List<LitePalSupport> models = new ArrayList<LitePalSupport>(pendingCount);
+            for (List<LitePalSupport> rowModels : pending.values()) {
+                models.addAll(rowModels);
+            }
+            pending.clear();
+            pendingCount = 0;
+            return models;
+        }
+    }
+
+    /**
+     * Put the drained models back into the queue ahead of the models enqueued since, so they are
+     * still written in order.
+     *
+     * @param models The drained models.
+     */
+    private static void requeue(List<LitePalSupport> models) {
+        synchronized (pending) {
+            List<LitePalSupport> newer = new ArrayList<LitePalSupport>(pendingCount);
+            for (List<LitePalSupport> rowModels : pending.values()) {
+                newer.addAll(rowModels);
+            }
+            pending.clear();
+            pendingCount = 0;
+            for (LitePalSupport model : models) {
+                add(model);
+            }
+            for (LitePalSupport model : newer) {
+                add(model);
+            }
+            scheduleFlush();
+        }
+    }
+
+    private static ScheduledExecutorService getScheduler() {
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "LitePal-write-behind");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        if (!shutdownHookAdded) {
+            shutdownHookAdded = true;
+            // best effort, the process is usually killed without running shutdown hooks on Android.
+            Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    flush();
+                }
+            }));
+        }
+        return scheduler;
+    }
+
+    /**
+     * Compares the wrapped model by identity, since models may override equals.
+     */
+    private static class Identity {
+        private final Object object;
+
+        Identity(Object object) {
+            this.object = object;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Identity && ((Identity) other).object == object;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(object);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.litepal.crud.async;
+
+import android.os.Process;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the asynchronous operations of LitePal in two lanes. Read operations run on the read lane
+ * which has a few threads, so that queries can overlap with each other and with writes when
+ * concurrent reads are enabled. Write operations run on the write lane which has one thread, so
+ * that writes are done one by one in the order they are submitted.
+ * <p>
+ * Both lanes can be replaced by {@link #setExecutors(Executor, Executor)}, e.g. to share the
+ * thread pools of the app. Note that a replaced write lane should still run tasks in order if the
+ * order of writes matters.
+ *
+ * @author Tony Green
+ * @since 3.0
+ */
+public final class AsyncExecutor {
+    /**
+     * The max number of threads in default read lane.
+     */
+    private static final int MAX_READ_THREADS = 4;
+    /**
+     * The executor of read lane.
+     */
+    private static Executor readExecutor;
+    /**
+     * The executor of write lane.
+     */
+    private static Executor writeExecutor;
+
+    /**
+     * Disable to create an instance of AsyncExecutor.
+     */
+    private AsyncExecutor() {
+    }
+
+    /**
+     * Replace the executors of read lane and write lane. Pass null to use the default one.
+     *
+     * @param readExecutor  The executor to run read operations.
+     * @param writeExecutor The executor to run write operations.
+     */
+    public static synchronized void setExecutors(Executor readExecutor, Executor writeExecutor) {
+        AsyncExecutor.readExecutor = readExecutor;
+        AsyncExecutor.writeExecutor = writeExecutor;
+    }
+
+    /**
+     * Run the read operation on read lane.
+     *
+     * @param callable The read operation.
+     * @return The pending result of the operation.
+     */
+    public static <T> AsyncResult<T> read(Callable<T> callable) {
+        AsyncResult<T> result = new AsyncResult<T>(callable);
+        getReadExecutor().execute(result.getTask());
+        return result;
+    }
+
+    /**
+     * Run the write operation on write lane.
+     *
+     * @param callable The write operation.
+     * @return The pending result of the operation.
+     */
+    public static <T> AsyncResult<T> write(Callable<T> callable) {
+        AsyncResult<T> result = new AsyncResult<T>(callable);
+        getWriteExecutor().execute(result.getTask());
+        return result;
+    }
+
+    private static synchronized Executor getReadExecutor() {
+        if (readExecutor == null) {
+            int threads = Math.max(2, Math.min(MAX_READ_THREADS, Runtime.getRuntime().availableProcessors()));
+            readExecutor = createExecutor("LitePal-read-", threads);
+        }
+        return readExecutor;
+    }
+
+    private static synchronized Executor getWriteExecutor() {
+        if (writeExecutor == null) {
+            writeExecutor = createExecutor("LitePal-write-", 1);
+        }
+        return writeExecutor;
+    }
+
+    private static ExecutorService createExecutor(final String namePrefix, int threads) {
+        return Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                Thread thread = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                        runnable.run();
+                    }
+                }, namePrefix + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+}
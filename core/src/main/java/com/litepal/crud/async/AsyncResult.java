@@ -0,0 +1,132 @@
+package com.litepal.crud.async;
+
+import com.litepal.Operator;
+import com.litepal.crud.callback.ResultCallback;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * The pending result of an asynchronous operation. It can be waited on as a {@link Future}, or
+ * listened with a {@link ResultCallback} which is called on the main thread once the operation
+ * finishes.
+ *
+ * <pre>
+ * LitePal.findAsync(Person.class, 1).listen(new ResultCallback&lt;Person&gt;() {
+ *     public void onFinish(Person person) {
+ *     }
+ *
+ *     public void onError(Throwable error) {
+ *     }
+ * });
+ * </pre>
+ *
+ * @author Tony Green
+ * @since 3.0
+ */
+public class AsyncResult<T> implements Future<T> {
+    /**
+     * The task which runs the operation.
+     */
+    private final FutureTask<T> task;
+    /**
+     * The callbacks waiting for the operation to finish.
+     */
+    private final List<ResultCallback<T>> callbacks = new ArrayList<ResultCallback<T>>();
+
+    AsyncResult(Callable<T> callable) {
+        task = new FutureTask<T>(callable) {
+            @Override
+            protected void done() {
+                List<ResultCallback<T>> pendingCallbacks;
+                synchronized (callbacks) {
+                    pendingCallbacks = new ArrayList<ResultCallback<T>>(callbacks);
+                    callbacks.clear();
+                }
+                for (ResultCallback<T> callback : pendingCallbacks) {
+                    deliver(callback);
+                }
+            }
+        };
+    }
+
+    /**
+     * Listen to the result. The callback is called on the main thread, immediately posted if the
+     * operation is finished already. Nothing will be called if the operation is cancelled.
+     *
+     * @param callback The callback to receive the result.
+     * @return This instance.
+     */
+    public AsyncResult<T> listen(ResultCallback<T> callback) {
+        synchronized (callbacks) {
+            if (!task.isDone()) {
+                callbacks.add(callback);
+                return this;
+            }
+        }
+        deliver(callback);
+        return this;
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        return task.cancel(mayInterruptIfRunning);
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return task.isCancelled();
+    }
+
+    @Override
+    public boolean isDone() {
+        return task.isDone();
+    }
+
+    @Override
+    public T get() throws InterruptedException, ExecutionException {
+        return task.get();
+    }
+
+    @Override
+    public T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        return task.get(timeout, unit);
+    }
+
+    /**
+     * Get the task to submit to executor.
+     *
+     * @return The task which runs the operation.
+     */
+    Runnable getTask() {
+        return task;
+    }
+
+    private void deliver(final ResultCallback<T> callback) {
+        Operator.getHandler().post(new Runnable() {
+            @Override
+            public void run() {
+                if (task.isCancelled()) {
+                    return;
+                }
+                T result;
+                try {
+                    result = task.get();
+                } catch (ExecutionException e) {
+                    callback.onError(e.getCause());
+                    return;
+                } catch (InterruptedException e) {
+                    callback.onError(e);
+                    return;
+                }
+                callback.onFinish(result);
+            }
+        });
+    }
+}
@@ -0,0 +1,14 @@
+package com.litepal.crud.callback;
+
+/**
+ * Callback for receiving the result of an asynchronous operation. Both methods are called on the
+ * main thread.
+ *
+ * @author Tony Green
+ * @since 3.0
+ */
+public interface ResultCallback<T> {
+    void onFinish(T result);
+
+    void onError(Throwable error);
+}
@@ -29,6 +29,10 @@ public class DatabaseGenerateException extends RuntimeException {
      * Can not find a table with the passing table name.
      */
     public static final String TABLE_DOES_NOT_EXIST = "Table doesn't exist with the name of ";
+    /**
+     * The column declared in index can not be found in the table.
+     */
+    public static final String INDEX_COLUMN_DOES_NOT_EXIST = "Can not find the column to create index with the name of ";
     /**
      * Don't have permission to create database on sdcard.
      */
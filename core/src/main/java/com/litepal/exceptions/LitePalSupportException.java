@@ -35,6 +35,24 @@ public class LitePalSupportException extends DataSupportException {
      * Thrown when the parameters in conditions are incorrect.
      */
     public static final String UPDATE_CONDITIONS_EXCEPTION = "The parameters in conditions are incorrect.";
+    /**
+     * Thrown when upserting without conflict columns, or with columns which the model doesn't have.
+     */
+    public static final String UPSERT_CONFLICT_COLUMNS_EXCEPTION = "Conflict columns of upsert must be columns of the model.";
+    /**
+     * Thrown when a transaction block returns normally but is rolled back, because an operation
+     * inside it failed.
+     */
+    public static final String TRANSACTION_ROLLED_BACK = "The transaction is rolled back because an operation inside it failed.";
+    /**
+     * Thrown when the connection is switched or closed while iterators are still reading it.
+     */
+    public static final String SWITCH_WITH_OPEN_ITERATORS = "The database can't be switched while iterators are open. Close them first.";
+
+    /**
+     * Thrown when calculating aggregates without passing any of them.
+     */
+    public static final String AGGREGATES_EMPTY_EXCEPTION = "At least one aggregate is needed.";
 
     /**
      * Constructor of LitePalSupportException.
@@ -80,4 +98,38 @@ public class LitePalSupportException extends DataSupportException {
         return "The " + fieldName + " field in " + className
                 + " class is necessary which does not exist.";
     }
+
+    /**
+     * Thrown when none of the fields of a result class can be mapped to a column of the model
+     * which is queried.
+     *
+     * @param resultClassName The result class name.
+     * @param modelClassName  The model class name.
+     * @return Exception message.
+     */
+    public static String noMappedFields(String resultClassName, String modelClassName) {
+        return "None of the fields in " + resultClassName + " class is mapped to a column of "
+                + modelClassName + " class.";
+    }
+
+    /**
+     * Thrown when an aggregate function other than count is created without a column.
+     *
+     * @param function The aggregate function.
+     * @return Exception message.
+     */
+    public static String emptyAggregateColumn(String function) {
+        return "Column of " + function + " can't be empty.";
+    }
+
+    /**
+     * Thrown when reading a result of aggregates by a name which is neither an aggregate alias
+     * nor a group column.
+     *
+     * @param name The name of result.
+     * @return Exception message.
+     */
+    public static String noAggregateResult(String name) {
+        return "There is no result named " + name + ".";
+    }
 }
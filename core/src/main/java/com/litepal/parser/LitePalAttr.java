@@ -1,7 +1,9 @@
 package com.litepal.parser;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.litepal.exceptions.InvalidAttributesException;
 import com.litepal.model.Table_Schema;
@@ -45,6 +47,11 @@ public final class LitePalAttr {
      * be given the full name including package name.
      */
     private List<String> classNames;
+    /**
+     * The model classes to cache by id. Key is the full class name, and value is the max number
+     * of models to cache.
+     */
+    private Map<String, Integer> cacheSizes;
     /**
      * Extra name as key for saving the database version in SharedUtil.
      */
@@ -81,6 +88,7 @@ public final class LitePalAttr {
             litePalAttr.setClassNames(config.getClassNames());
             litePalAttr.setCases(config.getCases());
             litePalAttr.setStorage(config.getStorage());
+            litePalAttr.setCacheSizes(config.getCacheSizes());
         }
     }
 
@@ -151,6 +159,32 @@ public final class LitePalAttr {
         this.classNames = classNames;
     }
 
+    /**
+     * Get the cache sizes of model classes configured in litepal.xml.
+     *
+     * @return The map from full class name to the max number of models to cache.
+     */
+    public Map<String, Integer> getCacheSizes() {
+        if (cacheSizes == null) {
+            cacheSizes = new HashMap<String, Integer>();
+        }
+        return cacheSizes;
+    }
+
+    /**
+     * Cache the models of a class by id.
+     *
+     * @param className Full package class name.
+     * @param size      The max number of models to cache.
+     */
+    public void addCacheSize(String className, int size) {
+        getCacheSizes().put(className, size);
+    }
+
+    public void setCacheSizes(Map<String, Integer> cacheSizes) {
+        this.cacheSizes = cacheSizes;
+    }
+
     public String getCases() {
         return cases;
     }
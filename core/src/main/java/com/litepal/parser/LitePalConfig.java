@@ -3,7 +3,9 @@ package com.litepal.parser;
 import com.litepal.model.Table_Schema;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Model for litepal.xml configuration file.
@@ -33,6 +35,11 @@ public class LitePalConfig {
      * be given the full name including package name.
      */
     private List<String> classNames;
+    /**
+     * The model classes to cache by id. Key is the full class name, and value is the max number
+     * of models to cache.
+     */
+    private Map<String, Integer> cacheSizes;
 
     public int getVersion() {
         return version;
@@ -86,6 +93,32 @@ public class LitePalConfig {
         this.classNames = classNames;
     }
 
+    /**
+     * Get the cache sizes of model classes configured in litepal.xml.
+     *
+     * @return The map from full class name to the max number of models to cache.
+     */
+    public Map<String, Integer> getCacheSizes() {
+        if (cacheSizes == null) {
+            cacheSizes = new HashMap<String, Integer>();
+        }
+        return cacheSizes;
+    }
+
+    /**
+     * Cache the models of a class by id.
+     *
+     * @param className Full package class name.
+     * @param size      The max number of models to cache.
+     */
+    public void addCacheSize(String className, int size) {
+        getCacheSizes().put(className, size);
+    }
+
+    public void setCacheSizes(Map<String, Integer> cacheSizes) {
+        this.cacheSizes = cacheSizes;
+    }
+
     public String getCases() {
         return cases;
     }
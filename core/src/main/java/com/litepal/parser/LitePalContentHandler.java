@@ -47,6 +47,7 @@ public class LitePalContentHandler extends DefaultHandler {
     public void startDocument() throws SAXException {
         litePalAttr = LitePalAttr.getInstance();
         litePalAttr.getClassNames().clear();
+        litePalAttr.getCacheSizes().clear();
     }
 
     /**
@@ -86,6 +87,19 @@ public class LitePalContentHandler extends DefaultHandler {
                     litePalAttr.setStorage(attributes.getValue(i).trim());
                 }
             }
+        } else if (LitePalParser.NODE_CACHE.equalsIgnoreCase(localName)) {
+            String className = null;
+            int size = 0;
+            for (int i = 0; i < attributes.getLength(); i++) {
+                if (LitePalParser.ATTR_CLASS.equalsIgnoreCase(attributes.getLocalName(i))) {
+                    className = attributes.getValue(i).trim();
+                } else if (LitePalParser.ATTR_SIZE.equalsIgnoreCase(attributes.getLocalName(i))) {
+                    size = Integer.parseInt(attributes.getValue(i).trim());
+                }
+            }
+            if (className != null) {
+                litePalAttr.addCacheSize(className, size);
+            }
         }
     }
 }
@@ -53,6 +53,10 @@ public class LitePalParser {
      * Node name column storage.
      */
     static final String NODE_STORAGE = "storage";
+    /**
+     * Node name cache.
+     */
+    static final String NODE_CACHE = "cache";
     /**
      * Attribute name value, for dbname and version node.
      */
@@ -61,6 +65,10 @@ public class LitePalParser {
      * Attribute name class, for mapping node.
      */
     static final String ATTR_CLASS = "class";
+    /**
+     * Attribute name size, for cache node.
+     */
+    static final String ATTR_SIZE = "size";
     /**
      * Store the parsed value of litepal.xml.
      */
@@ -143,6 +151,10 @@ public class LitePalParser {
                         } else if (NODE_STORAGE.equals(nodeName)) {
                             String storage = xmlPullParser.getAttributeValue("", ATTR_VALUE);
                             litePalConfig.setStorage(storage);
+                        } else if (NODE_CACHE.equals(nodeName)) {
+                            String className = xmlPullParser.getAttributeValue("", ATTR_CLASS);
+                            String size = xmlPullParser.getAttributeValue("", ATTR_SIZE);
+                            litePalConfig.addCacheSize(className, Integer.parseInt(size));
                         }
                         break;
                     }
@@ -9,6 +9,7 @@ import com.litepal.exceptions.DatabaseGenerateException;
 import com.litepal.tablemanager.model.AssociationsModel;
 import com.litepal.tablemanager.model.ColumnModel;
 import com.litepal.tablemanager.model.GenericModel;
+import com.litepal.tablemanager.model.IndexModel;
 import com.litepal.util.BaseUtility;
 import com.litepal.util.Const;
 import com.litepal.util.DBUtility;
@@ -103,6 +104,59 @@ public abstract class AssociationCreator extends Generator {
         return "drop table if exists " + tableName;
     }
 
+    /**
+     * Generate a SQL for creating index. Nothing happens if an index with the same name already
+     * exists.
+     *
+     * @param tableName  The table to create index on.
+     * @param indexModel Which contains index info.
+     * @return A SQL to create index.
+     */
+    protected String generateCreateIndexSQL(String tableName, IndexModel indexModel) {
+        StringBuilder createIndexSQL = new StringBuilder("create ");
+        if (indexModel.isUnique()) {
+            createIndexSQL.append("unique ");
+        }
+        createIndexSQL.append("index if not exists ").append(indexModel.getIndexName());
+        createIndexSQL.append(" on ").append(tableName).append(" (");
+        boolean needSeparator = false;
+        for (String columnName : indexModel.getColumnNames()) {
+            if (needSeparator) {
+                createIndexSQL.append(", ");
+            }
+            needSeparator = true;
+            createIndexSQL.append(columnName);
+        }
+        createIndexSQL.append(")");
+        LitePalLog.d(TAG, "create index sql is >> " + createIndexSQL);
+        return createIndexSQL.toString();
+    }
+
+    /**
+     * Generate a SQL for creating index on a foreign key column, so that finding associated
+     * models by the foreign key won't scan the whole table.
+     *
+     * @param tableName  The table which holds the foreign key column.
+     * @param columnName The foreign key column name.
+     * @return A SQL to create index on foreign key column.
+     */
+    protected String generateCreateForeignKeyIndexSQL(String tableName, String columnName) {
+        IndexModel indexModel = new IndexModel();
+        indexModel.setIndexName(DBUtility.getForeignKeyIndexName(tableName, columnName));
+        indexModel.addColumnName(columnName);
+        return generateCreateIndexSQL(tableName, indexModel);
+    }
+
+    /**
+     * Generate a SQL for dropping index.
+     *
+     * @param indexName The index name.
+     * @return A SQL to drop index.
+     */
+    protected String generateDropIndexSQL(String indexName) {
+        return "drop index if exists " + indexName;
+    }
+
     /**
      * Generate a SQL for add new column into the existing table.
      *
@@ -296,6 +350,9 @@ public abstract class AssociationCreator extends Generator {
         } else {
             sqls.add(generateCreateTableSQL(intermediateTableName, columnModelList, false));
         }
+        for (ColumnModel columnModel : columnModelList) {
+            sqls.add(generateCreateForeignKeyIndexSQL(intermediateTableName, columnModel.getColumnName()));
+        }
         execute(sqls, db);
         giveTableSchemaACopy(intermediateTableName, Const.TableSchema.INTERMEDIATE_JOIN_TABLE, db);
     }
@@ -331,6 +388,7 @@ public abstract class AssociationCreator extends Generator {
         } else {
             sqls.add(generateCreateTableSQL(tableName, columnModelList, false));
         }
+        sqls.add(generateCreateForeignKeyIndexSQL(tableName, valueIdColumnName));
         execute(sqls, db);
         giveTableSchemaACopy(tableName, Const.TableSchema.GENERIC_TABLE, db);
     }
@@ -357,17 +415,21 @@ public abstract class AssociationCreator extends Generator {
                 } else if (associatedTableName.equals(tableHoldsForeignKey)) {
                     foreignKeyColumn = getForeignKeyColumnName(tableName);
                 }
+                List<String> sqls = new ArrayList<String>();
                 if (!DBUtility.isColumnExists(foreignKeyColumn, tableHoldsForeignKey, db)) {
                     ColumnModel columnModel = new ColumnModel();
                     columnModel.setColumnName(foreignKeyColumn);
                     columnModel.setColumnType("integer");
-                    List<String> sqls = new ArrayList<String>();
                     sqls.add(generateAddColumnSQL(tableHoldsForeignKey, columnModel));
-                    execute(sqls, db);
                 } else {
                     LitePalLog.d(TAG, "column " + foreignKeyColumn
                             + " is already exist, no need to add one");
                 }
+                // The index may be lost when the table is rebuilt, so always make sure it exists.
+                if (foreignKeyColumn != null) {
+                    sqls.add(generateCreateForeignKeyIndexSQL(tableHoldsForeignKey, foreignKeyColumn));
+                }
+                execute(sqls, db);
             } else {
                 throw new DatabaseGenerateException(DatabaseGenerateException.TABLE_DOES_NOT_EXIST
                         + associatedTableName);
@@ -4,6 +4,8 @@ import android.database.sqlite.SQLiteDatabase;
 import android.os.Environment;
 import android.text.TextUtils;
 
+import com.litepal.crud.EntityCache;
+import com.litepal.crud.QueryCache;
 import com.litepal.exceptions.InvalidAttributesException;
 import com.litepal.parser.LitePalAttr;
 import com.litepal.LitePalApplication;
@@ -92,6 +94,9 @@ public class Connector {
      * Never call this method. This is only used by internal.
      */
     public static void clearLitePalOpenHelperInstance() {
+        StatementCache.clear();
+        EntityCache.clear();
+        QueryCache.clear();
         if (mLitePalHelper != null) {
             mLitePalHelper.getWritableDatabase().close();
             mLitePalHelper = null;
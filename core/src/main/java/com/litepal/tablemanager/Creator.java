@@ -1,5 +1,6 @@
 package com.litepal.tablemanager;
 
+import com.litepal.tablemanager.model.IndexModel;
 import com.litepal.tablemanager.model.TableModel;
 import com.litepal.util.Const;
 import com.litepal.util.DBUtility;
@@ -47,8 +48,8 @@ class Creator extends AssociationCreator {
      * @param tableModel The table model.
      * @param db         Instance of SQLiteDatabase.
      * @param force      Drop the table first if it already exists.
-     * @return A SQL array contains drop table if it exists and create new
-     * table.
+     * @return A SQL array contains drop table if it exists, create new
+     * table and create the declared indexes.
      */
     protected List<String> getCreateTableSQLs(TableModel tableModel, SQLiteDatabase db, boolean force) {
         List<String> sqls = new ArrayList<String>();
@@ -62,6 +63,9 @@ class Creator extends AssociationCreator {
                 sqls.add(generateCreateTableSQL(tableModel));
             }
         }
+        for (IndexModel indexModel : tableModel.getIndexModels()) {
+            sqls.add(generateCreateIndexSQL(tableModel.getTableName(), indexModel));
+        }
         return sqls;
     }
 
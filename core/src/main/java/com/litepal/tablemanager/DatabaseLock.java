@@ -0,0 +1,216 @@
+package com.litepal.tablemanager;
+
+import com.litepal.exceptions.LitePalSupportException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The lock which guards all the CRUD operations of LitePal. Write operations always run one by
+ * one. By default read operations share the same lock with write operations, so that all the
+ * operations are serialized. If concurrent reads are enabled, the database is opened in write
+ * ahead logging mode, where each read sees a consistent snapshot of the database by SQLite
+ * itself. Then read operations don't take the write lock at all, so they run at the same time
+ * with each other and with a running write operation or transaction. They only wait while the
+ * connection is being switched, which takes {@link #switchLock()}.
+ * <p>
+ * An iterator keeps reading its cursor after the read operation returns, so it's registered by
+ * {@link #openIterator()} until it's closed. Switching the connection while any iterator is open
+ * fails fast with {@link LitePalSupportException}, instead of closing the cursor under it.
+ * <p>
+ * Note that a thread which is holding the read lock can not acquire the write lock. So never do
+ * a write operation inside a read operation, e.g. in the constructor of a model class. A thread
+ * which is holding the write lock can do read operations freely.
+ *
+ * @author Tony Green
+ * @since 3.0
+ */
+public final class DatabaseLock {
+    /**
+     * The read write lock of the database in use.
+     */
+    private static final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    /**
+     * Guards the connection against being switched while concurrent reads are using it.
+     */
+    private static final ReentrantReadWriteLock connectionLock = new ReentrantReadWriteLock();
+    /**
+     * The lock to switch the connection, which excludes both writes and concurrent reads.
+     */
+    private static final Lock switchLock = new SwitchLock();
+    /**
+     * Indicates that read operations are allowed to run concurrently or not.
+     */
+    private static volatile boolean concurrentReads = false;
+    /**
+     * The number of iterators which are still reading the connection.
+     */
+    private static final AtomicInteger openIterators = new AtomicInteger();
+
+    /**
+     * Disable to create an instance of DatabaseLock.
+     */
+    private DatabaseLock() {
+    }
+
+    /**
+     * Get the lock for read operations. If concurrent reads are enabled, it only keeps the
+     * connection from being switched, and doesn't wait for write operations. Otherwise the lock
+     * for write operations will be returned.
+     *
+     * @return The lock for read operations.
+     */
+    public static Lock readLock() {
+        if (concurrentReads) {
+            return connectionLock.readLock();
+        }
+        return lock.writeLock();
+    }
+
+    /**
+     * Get the lock for write operations.
+     *
+     * @return The lock for write operations.
+     */
+    public static Lock writeLock() {
+        return lock.writeLock();
+    }
+
+    /**
+     * Get the lock to close or switch the connection, or change the database it's connected to.
+     * It waits for all the running read and write operations.
+     *
+     * @return The lock to switch the connection.
+     */
+    public static Lock switchLock() {
+        return switchLock;
+    }
+
+    /**
+     * Register an iterator which keeps reading the connection after its read operation returns.
+     * Must be called while holding the read lock, and paired with {@link #closeIterator()}.
+     */
+    public static void openIterator() {
+        openIterators.incrementAndGet();
+    }
+
+    /**
+     * Unregister an iterator registered by {@link #openIterator()} once it's closed.
+     */
+    public static void closeIterator() {
+        openIterators.decrementAndGet();
+    }
+
+    /**
+     * Check if read operations are allowed to run concurrently.
+     *
+     * @return True if concurrent reads are enabled, false otherwise.
+     */
+    public static boolean isConcurrentReads() {
+        return concurrentReads;
+    }
+
+    /**
+     * Enable or disable concurrent reads. The current connection is closed, so that the next
+     * connection will be opened with or without write ahead logging accordingly.
+     *
+     * @param enabled True to enable concurrent reads, false to disable.
+     */
+    public static void setConcurrentReads(boolean enabled) {
+        Lock switchLock = switchLock();
+        switchLock.lock();
+        try {
+            if (concurrentReads != enabled) {
+                concurrentReads = enabled;
+                Connector.clearLitePalOpenHelperInstance();
+            }
+        } finally {
+            switchLock.unlock();
+        }
+    }
+
+    /**
+     * Takes the write lock and then the connection lock, and releases them in reverse order. The
+     * write lock goes first, so a thread holding it can still read while switching. Once both are
+     * taken, it fails if any iterator is still open.
+     */
+    private static class SwitchLock implements Lock {
+        @Override
+        public void lock() {
+            lock.writeLock().lock();
+            connectionLock.writeLock().lock();
+            checkNoOpenIterators();
+        }
+
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            lock.writeLock().lockInterruptibly();
+            try {
+                connectionLock.writeLock().lockInterruptibly();
+            } catch (InterruptedException e) {
+                lock.writeLock().unlock();
+                throw e;
+            }
+            checkNoOpenIterators();
+        }
+
+        @Override
+        public boolean tryLock() {
+            if (!lock.writeLock().tryLock()) {
+                return false;
+            }
+            if (!connectionLock.writeLock().tryLock()) {
+                lock.writeLock().unlock();
+                return false;
+            }
+            checkNoOpenIterators();
+            return true;
+        }
+
+        @Override
+        public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+            long deadline = System.nanoTime() + unit.toNanos(time);
+            if (!lock.writeLock().tryLock(time, unit)) {
+                return false;
+            }
+            boolean locked = false;
+            try {
+                locked = connectionLock.writeLock().tryLock(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            } finally {
+                if (!locked) {
+                    lock.writeLock().unlock();
+                }
+            }
+            if (!locked) {
+                return false;
+            }
+            checkNoOpenIterators();
+            return true;
+        }
+
+        @Override
+        public void unlock() {
+            connectionLock.writeLock().unlock();
+            lock.writeLock().unlock();
+        }
+
+        /**
+         * Release the locks and throw if any iterator is still open, as the connection can't be
+         * closed under its cursor.
+         */
+        private void checkNoOpenIterators() {
+            if (openIterators.get() > 0) {
+                unlock();
+                throw new LitePalSupportException(LitePalSupportException.SWITCH_WITH_OPEN_ITERATORS);
+            }
+        }
+
+        @Override
+        public Condition newCondition() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.litepal.tablemanager;
 
 import android.content.Context;
+import android.os.Build;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteDatabase.CursorFactory;
 import android.database.sqlite.SQLiteOpenHelper;
@@ -42,6 +43,9 @@ class LitePalOpenHelper extends SQLiteOpenHelper {
      */
     LitePalOpenHelper(Context context, String name, CursorFactory factory, int version) {
         super(context, name, factory, version);
+        if (DatabaseLock.isConcurrentReads() && Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            setWriteAheadLoggingEnabled(true);
+        }
     }
 
     /**
@@ -58,6 +62,18 @@ class LitePalOpenHelper extends SQLiteOpenHelper {
         this(LitePalApplication.getContext(), dbName, null, version);
     }
 
+    @Override
+    public void onOpen(SQLiteDatabase db) {
+        super.onOpen(db);
+        // Queries are built with place holders, let the connection keep more prepared statements for them.
+        db.setMaxSqlCacheSize(SQLiteDatabase.MAX_SQL_CACHE_SIZE);
+        // SQLiteOpenHelper can not enable write ahead logging before Jelly Bean, do it by the database instead.
+        if (DatabaseLock.isConcurrentReads() && Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN
+                && !db.isReadOnly()) {
+            db.enableWriteAheadLogging();
+        }
+    }
+
     @Override
     public void onCreate(SQLiteDatabase db) {
         Generator.create(db);
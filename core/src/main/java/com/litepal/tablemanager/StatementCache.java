@@ -0,0 +1,84 @@
+package com.litepal.tablemanager;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded LRU cache of compiled statements, keyed by SQL. The SQL of an UPDATE or DELETE
+ * statement only contains the table, the updated columns and the shape of WHERE clause, while the
+ * values are bound as arguments, so the repeated writes such as updating or deleting by id can
+ * reuse the compiled statement instead of parsing and preparing it again.
+ * <p>
+ * The statements belong to the database connection they are compiled on. They are closed when the
+ * cache is cleared, evicted, or when a different database is passed in. The returned statement is
+ * shared, so it should only be used while holding {@link DatabaseLock#writeLock()}.
+ *
+ * @author Tony Green
+ * @since 3.0
+ */
+public final class StatementCache {
+    /**
+     * The max number of statements to cache.
+     */
+    private static final int MAX_SIZE = 32;
+    /**
+     * The database which the cached statements are compiled on.
+     */
+    private static SQLiteDatabase database;
+    /**
+     * The cached statements in access order.
+     */
+    private static final Map<String, SQLiteStatement> statements =
+            new LinkedHashMap<String, SQLiteStatement>(MAX_SIZE, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, SQLiteStatement> eldest) {
+                    if (size() > MAX_SIZE) {
+                        eldest.getValue().close();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+
+    /**
+     * Disable to create an instance of StatementCache.
+     */
+    private StatementCache() {
+    }
+
+    /**
+     * Get the compiled statement of the SQL from cache, or compile a new one and cache it.
+     *
+     * @param db  The database to compile the statement on.
+     * @param sql The SQL with place holders for all values.
+     * @return The compiled statement with bindings cleared.
+     */
+    public static synchronized SQLiteStatement acquire(SQLiteDatabase db, String sql) {
+        if (database != db) {
+            clear();
+            database = db;
+        }
+        SQLiteStatement statement = statements.get(sql);
+        if (statement == null) {
+            statement = db.compileStatement(sql);
+            statements.put(sql, statement);
+        } else {
+            statement.clearBindings();
+        }
+        return statement;
+    }
+
+    /**
+     * Close and remove all the cached statements. Must be called before the database is closed.
+     */
+    public static synchronized void clear() {
+        for (SQLiteStatement statement : statements.values()) {
+            statement.close();
+        }
+        statements.clear();
+        database = null;
+    }
+}
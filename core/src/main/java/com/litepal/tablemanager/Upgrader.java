@@ -1,15 +1,20 @@
 package com.litepal.tablemanager;
 
+import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
 import android.text.TextUtils;
 
 import com.litepal.crud.model.AssociationsInfo;
 import com.litepal.tablemanager.model.ColumnModel;
+import com.litepal.tablemanager.model.IndexModel;
 import com.litepal.tablemanager.model.TableModel;
 import com.litepal.util.Const;
 import com.litepal.util.DBUtility;
 import com.litepal.util.LitePalLog;
+import com.litepal.util.cipher.CipherUtil;
 
+import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -18,12 +23,16 @@ import java.util.List;
  * Upgrade the database. The first step is to remove the columns that can not
  * find the corresponding field in the model class. Then add the new added field
  * as new column into the table. At last it will check all the types of columns
- * to see which are changed.
+ * to see which are changed, and fill the blind index columns of existing rows.
  *
  * @author Tony Green
  * @since 1.0
  */
 public class Upgrader extends AssociationUpdater {
+    /**
+     * The number of rows to read at a time when filling the blind index columns.
+     */
+    private static final int BLIND_INDEX_CHUNK_SIZE = 500;
     /**
      * Model class for table.
      */
@@ -53,9 +62,9 @@ public class Upgrader extends AssociationUpdater {
     }
 
     /**
-     * Upgrade table actions. Include remove dump columns, add new columns and
-     * change column types. All the actions above will be done by the description
-     * order.
+     * Upgrade table actions. Include remove dump columns, add new columns,
+     * change column types and synchronize declared indexes. All the actions
+     * above will be done by the description order.
      */
     private void upgradeTable() {
         if (hasNewUniqueOrNotNullColumn()) {
@@ -79,6 +88,120 @@ public class Upgrader extends AssociationUpdater {
             changeColumnsType(findColumnTypesToChange());
             changeColumnsConstraints();
         }
+        fillBlindIndexes();
+        syncIndexes();
+    }
+
+    /**
+     * Fill the blind index columns of the rows which are saved before the blind index is declared,
+     * so that the equality filters rewritten to the blind index columns still find them. Each
+     * encrypted value is decrypted and hashed once, then written by a reused UPDATE statement.
+     */
+    private void fillBlindIndexes() {
+        for (Field field : getSupportedFields(mTableModel.getClassName())) {
+            if (hasBlindIndex(field)) {
+                fillBlindIndex(DBUtility.convertToValidColumnName(field.getName()));
+            }
+        }
+    }
+
+    /**
+     * Fill the blind index column of the encrypted column, for the rows which have a value but no
+     * blind index yet. Rows are read in chunks by id, as the rows written are no longer matched by
+     * the query.
+     *
+     * @param columnName The encrypted column name.
+     */
+    private void fillBlindIndex(String columnName) {
+        String tableName = mTableModel.getTableName();
+        String blindIndexColumnName = DBUtility.getBlindIndexColumnName(columnName);
+        String selection = blindIndexColumnName + " is null and " + columnName + " is not null and id > ?";
+        SQLiteStatement statement = null;
+        try {
+            long lastId = 0;
+            int count;
+            do {
+                List<Long> ids = new ArrayList<Long>();
+                List<String> values = new ArrayList<String>();
+                Cursor cursor = mDb.query(tableName, new String[]{"id", columnName}, selection,
+                        new String[]{String.valueOf(lastId)}, null, null, "id",
+                        String.valueOf(BLIND_INDEX_CHUNK_SIZE));
+                try {
+                    while (cursor.moveToNext()) {
+                        ids.add(cursor.getLong(0));
+                        values.add(cursor.getString(1));
+                    }
+                } finally {
+                    cursor.close();
+                }
+                count = ids.size();
+                for (int i = 0; i < count; i++) {
+                    lastId = ids.get(i);
+                    String blindIndex = CipherUtil.blindIndex(CipherUtil.aesDecrypt(values.get(i)));
+                    if (blindIndex == null) {
+                        continue;
+                    }
+                    if (statement == null) {
+                        statement = mDb.compileStatement("update " + tableName + " set "
+                                + blindIndexColumnName + " = ? where id = ?");
+                    }
+                    statement.bindString(1, blindIndex);
+                    statement.bindLong(2, lastId);
+                    statement.executeUpdateDelete();
+                }
+            } while (count == BLIND_INDEX_CHUNK_SIZE);
+        } finally {
+            if (statement != null) {
+                statement.close();
+            }
+        }
+        LitePalLog.d(TAG, "fill blind index of " + tableName + "." + columnName);
+    }
+
+    /**
+     * Make the indexes of table synchronized with the ones declared in model class. Declared
+     * indexes which are removed or changed will be dropped, and missing ones will be created.
+     * Indexes not created by annotation, such as the ones of foreign keys, are left as they are.
+     */
+    private void syncIndexes() {
+        String tableName = mTableModel.getTableName();
+        List<IndexModel> indexModelsDB = DBUtility.findIndexes(tableName, mDb);
+        List<String> sqls = new ArrayList<String>();
+        for (IndexModel indexModelDB : indexModelsDB) {
+            if (DBUtility.isIndexDeclaredBy(indexModelDB.getIndexName(), tableName)
+                    && !isIndexDeclared(indexModelDB)) {
+                sqls.add(generateDropIndexSQL(indexModelDB.getIndexName()));
+            }
+        }
+        for (IndexModel indexModel : mTableModel.getIndexModels()) {
+            boolean exists = false;
+            for (IndexModel indexModelDB : indexModelsDB) {
+                if (indexModel.isSameAs(indexModelDB)) {
+                    exists = true;
+                    break;
+                }
+            }
+            if (!exists) {
+                sqls.add(generateCreateIndexSQL(tableName, indexModel));
+            }
+        }
+        LitePalLog.d(TAG, "sync indexes of " + tableName + " >> " + sqls);
+        execute(sqls, mDb);
+    }
+
+    /**
+     * Check if the index from database is still declared in model class with same definition.
+     *
+     * @param indexModelDB The index model from database.
+     * @return True if it's declared with same definition, false otherwise.
+     */
+    private boolean isIndexDeclared(IndexModel indexModelDB) {
+        for (IndexModel indexModel : mTableModel.getIndexModels()) {
+            if (indexModel.isSameAs(indexModelDB)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -0,0 +1,70 @@
+package com.litepal.tablemanager.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This is a model class for indexes. It stores index name, the indexed columns in order and
+ * whether the index is unique.
+ *
+ * @author Tony Green
+ * @since 3.0
+ */
+public class IndexModel {
+    /**
+     * Name of index.
+     */
+    private String indexName;
+    /**
+     * Names of indexed columns in order.
+     */
+    private List<String> columnNames = new ArrayList<String>();
+    /**
+     * Unique index or not.
+     */
+    private boolean isUnique = false;
+
+    public String getIndexName() {
+        return indexName;
+    }
+
+    public void setIndexName(String indexName) {
+        this.indexName = indexName;
+    }
+
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    public void addColumnName(String columnName) {
+        columnNames.add(columnName);
+    }
+
+    public boolean isUnique() {
+        return isUnique;
+    }
+
+    public void setUnique(boolean isUnique) {
+        this.isUnique = isUnique;
+    }
+
+    /**
+     * Check if this index has the same definition as the other one. Names are compared ignoring
+     * cases.
+     *
+     * @param other The other index model.
+     * @return True if the name, columns and uniqueness are all the same, false otherwise.
+     */
+    public boolean isSameAs(IndexModel other) {
+        if (other == null || isUnique != other.isUnique || !indexName.equalsIgnoreCase(other.indexName)
+                || columnNames.size() != other.columnNames.size()) {
+            return false;
+        }
+        for (int i = 0; i < columnNames.size(); i++) {
+            if (!columnNames.get(i).equalsIgnoreCase(other.columnNames.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -2,8 +2,10 @@ package com.litepal.tablemanager.model;
 
 import com.litepal.util.BaseUtility;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -22,6 +24,10 @@ public class TableModel {
      * A map contains all column models with column name, type and constraints.
      */
     private Map<String, ColumnModel> columnModelMap = new HashMap<>();
+    /**
+     * A list contains all index models declared for the table.
+     */
+    private List<IndexModel> indexModels = new ArrayList<IndexModel>();
     /**
      * Class name for the table name. This value might be null. Don't rely on it.
      */
@@ -109,4 +115,22 @@ public class TableModel {
     public boolean containsColumn(String columnName) {
         return columnModelMap.containsKey(BaseUtility.changeCase(columnName));
     }
+
+    /**
+     * Add an index model into the table model.
+     *
+     * @param indexModel An index model contains name, columns and uniqueness.
+     */
+    public void addIndexModel(IndexModel indexModel) {
+        indexModels.add(indexModel);
+    }
+
+    /**
+     * Find all the index models of the current table model.
+     *
+     * @return A list contains all index models.
+     */
+    public List<IndexModel> getIndexModels() {
+        return indexModels;
+    }
 }
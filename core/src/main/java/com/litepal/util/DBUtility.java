@@ -3,9 +3,13 @@ package com.litepal.util;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.text.TextUtils;
+import android.util.LruCache;
 
+import com.litepal.crud.EntityCache;
+import com.litepal.crud.QueryCache;
 import com.litepal.exceptions.DatabaseGenerateException;
 import com.litepal.tablemanager.model.ColumnModel;
+import com.litepal.tablemanager.model.IndexModel;
 import com.litepal.tablemanager.model.TableModel;
 
 import java.lang.reflect.Field;
@@ -32,6 +36,19 @@ public class DBUtility {
     private static final String REG_OPERATOR = "\\s*(=|!=|<>|<|>)";
     private static final String REG_FUZZY = "\\s+(not\\s+)?(like|between)\\s+";
     private static final String REG_COLLECTION = "\\s+(not\\s+)?(in)\\s*\\(";
+    private static final Pattern WHERE_COLUMN_PATTERN = Pattern.compile("(\\w+" + REG_OPERATOR + "|\\w+" + REG_FUZZY + "|\\w+" + REG_COLLECTION + ")");
+    private static final Pattern WHERE_OPERATOR_PATTERN = Pattern.compile("(" + REG_OPERATOR + "|" + REG_FUZZY + "|" + REG_COLLECTION + ")");
+    private static final int CLAUSE_CACHE_SIZE = 64;
+    /**
+     * Cache the converted where clauses, the same clause with different arguments is converted only once.
+     */
+    private static final LruCache<String, String> whereClauseCache = new LruCache<String, String>(CLAUSE_CACHE_SIZE);
+    /**
+     * Cache the converted order by clauses.
+     */
+    private static final LruCache<String, String> orderByClauseCache = new LruCache<String, String>(CLAUSE_CACHE_SIZE);
+    private static final String INDEX_PREFIX = "index_";
+    private static final String FOREIGN_KEY_INDEX_PREFIX = "fk_index_";
 
     /**
      * Disable to create an instance of DBUtility.
@@ -39,6 +56,22 @@ public class DBUtility {
     private DBUtility() {
     }
 
+    /**
+     * End a transaction of LitePal. After the outermost transaction ends, the cached models and
+     * query results of the tables written in it are dropped again, since a concurrent reader may
+     * have cached the rows it read before the commit. All the transactions of LitePal should end
+     * through this method rather than {@link SQLiteDatabase#endTransaction()}.
+     *
+     * @param db The database which the transaction belongs to.
+     */
+    public static void endTransaction(SQLiteDatabase db) {
+        db.endTransaction();
+        if (!db.inTransaction()) {
+            EntityCache.onTransactionEnd();
+            QueryCache.onTransactionEnd();
+        }
+    }
+
     /**
      * Get the corresponding table name by the full class name with package. It
      * will only get the short class name without package name as table name.
@@ -140,6 +173,16 @@ public class DBUtility {
         return BaseUtility.changeCase(getTableNameByClassName(className) + "_id");
     }
 
+    /**
+     * The column name of blind index for the encrypted column.
+     *
+     * @param columnName The encrypted column name.
+     * @return The column name of blind index.
+     */
+    public static String getBlindIndexColumnName(String columnName) {
+        return BaseUtility.changeCase(columnName + "_bidx");
+    }
+
     public static String getM2MSelfRefColumnName(Field field) {
         return BaseUtility.changeCase(field.getName() + "_id");
     }
@@ -386,8 +429,9 @@ public class DBUtility {
             if (cursor.moveToFirst()) {
                 do {
                     int unique = cursor.getInt(cursor.getColumnIndexOrThrow("unique"));
-                    if (unique == 1) {
-                        String name = cursor.getString(cursor.getColumnIndexOrThrow("name"));
+                    String name = cursor.getString(cursor.getColumnIndexOrThrow("name"));
+                    // unique indexes declared by @Index are not column constraints.
+                    if (unique == 1 && !isIndexDeclaredBy(name, tableName)) {
                         innerCursor = db.rawQuery("pragma index_info(" + name + ")", null);
                         if (innerCursor.moveToFirst()) {
                             String columnName = innerCursor.getString(innerCursor.getColumnIndexOrThrow("name"));
@@ -410,6 +454,89 @@ public class DBUtility {
         return columns;
     }
 
+    /**
+     * Find all indexes of specified table, including the ones created for unique constraints.
+     *
+     * @param tableName The table to find indexes.
+     * @param db        Instance of SQLiteDatabase.
+     * @return A list with all indexes of specified table, and columns of each index are in order.
+     */
+    public static List<IndexModel> findIndexes(String tableName, SQLiteDatabase db) {
+        List<IndexModel> indexModels = new ArrayList<IndexModel>();
+        Cursor cursor = null;
+        Cursor innerCursor = null;
+        try {
+            cursor = db.rawQuery("pragma index_list(" + tableName + ")", null);
+            if (cursor.moveToFirst()) {
+                do {
+                    IndexModel indexModel = new IndexModel();
+                    String name = cursor.getString(cursor.getColumnIndexOrThrow("name"));
+                    indexModel.setIndexName(name);
+                    indexModel.setUnique(cursor.getInt(cursor.getColumnIndexOrThrow("unique")) == 1);
+                    innerCursor = db.rawQuery("pragma index_info(" + name + ")", null);
+                    if (innerCursor.moveToFirst()) {
+                        do {
+                            indexModel.addColumnName(innerCursor.getString(innerCursor.getColumnIndexOrThrow("name")));
+                        } while (innerCursor.moveToNext());
+                    }
+                    innerCursor.close();
+                    innerCursor = null;
+                    indexModels.add(indexModel);
+                } while (cursor.moveToNext());
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            throw new DatabaseGenerateException(e.getMessage());
+        } finally {
+            if (cursor != null) {
+                cursor.close();
+            }
+            if (innerCursor != null) {
+                innerCursor.close();
+            }
+        }
+        return indexModels;
+    }
+
+    /**
+     * Get the name of index declared by {@link com.litepal.annotation.Index}. The name is
+     * prefixed with the table name, so that it's unique in the whole database.
+     *
+     * @param tableName The table name.
+     * @param name      The name declared in annotation, or the column names joined by underline.
+     * @return The index name.
+     */
+    public static String getIndexName(String tableName, String name) {
+        return BaseUtility.changeCase(INDEX_PREFIX + tableName + "_" + name);
+    }
+
+    /**
+     * Get the name of index created automatically on foreign key column.
+     *
+     * @param tableName  The table which holds the foreign key column.
+     * @param columnName The foreign key column name.
+     * @return The index name.
+     */
+    public static String getForeignKeyIndexName(String tableName, String columnName) {
+        return BaseUtility.changeCase(FOREIGN_KEY_INDEX_PREFIX + tableName + "_" + columnName);
+    }
+
+    /**
+     * Judge the index is declared by {@link com.litepal.annotation.Index} on the specified table
+     * or not. Only this kind of indexes will be dropped by LitePal when upgrading.
+     *
+     * @param indexName The index name.
+     * @param tableName The table name which the index belongs to.
+     * @return True if the index is declared by annotation, false otherwise.
+     */
+    public static boolean isIndexDeclaredBy(String indexName, String tableName) {
+        if (TextUtils.isEmpty(indexName) || TextUtils.isEmpty(tableName)) {
+            return false;
+        }
+        String prefix = (INDEX_PREFIX + tableName + "_").toLowerCase(Locale.US);
+        return indexName.toLowerCase(Locale.US).startsWith(prefix);
+    }
+
     /**
      * If the field name is conflicted with SQLite keywords. Return true if conflicted, return false
      * otherwise.
@@ -449,19 +576,24 @@ public class DBUtility {
      */
     public static String convertWhereClauseToColumnName(String whereClause) {
         if (!TextUtils.isEmpty(whereClause)) {
+            String cached = whereClauseCache.get(whereClause);
+            if (cached != null) {
+                return cached;
+            }
             try {
                 StringBuffer convertedWhereClause = new StringBuffer();
-                Pattern p = Pattern.compile("(\\w+" + REG_OPERATOR + "|\\w+" + REG_FUZZY + "|\\w+" + REG_COLLECTION + ")");
-                Matcher m = p.matcher(whereClause);
+                Matcher m = WHERE_COLUMN_PATTERN.matcher(whereClause);
                 while (m.find()) {
                     String matches = m.group();
-                    String column = matches.replaceAll("(" + REG_OPERATOR + "|" + REG_FUZZY + "|" + REG_COLLECTION + ")", "");
+                    String column = WHERE_OPERATOR_PATTERN.matcher(matches).replaceAll("");
                     String rest = matches.replace(column, "");
                     column = convertToValidColumnName(column);
                     m.appendReplacement(convertedWhereClause, column + rest);
                 }
                 m.appendTail(convertedWhereClause);
-                return convertedWhereClause.toString();
+                String converted = convertedWhereClause.toString();
+                whereClauseCache.put(whereClause, converted);
+                return converted;
             } catch (Exception e) {
                 e.printStackTrace();
             }
@@ -496,6 +628,11 @@ public class DBUtility {
      */
     public static String convertOrderByClauseToValidName(String orderBy) {
         if (!TextUtils.isEmpty(orderBy)) {
+            String cached = orderByClauseCache.get(orderBy);
+            if (cached != null) {
+                return cached;
+            }
+            String originalOrderBy = orderBy;
             orderBy = orderBy.trim().toLowerCase(Locale.US);
             if (orderBy.contains(",")) {
                 String[] orderByItems = orderBy.split(",");
@@ -512,6 +649,7 @@ public class DBUtility {
             } else {
                 orderBy = convertOrderByItem(orderBy);
             }
+            orderByClauseCache.put(originalOrderBy, orderBy);
             return orderBy;
         }
         return null;
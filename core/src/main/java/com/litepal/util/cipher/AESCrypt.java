@@ -19,10 +19,10 @@ import javax.crypto.spec.SecretKeySpec;
  */
 public final class AESCrypt {
     private static final String TAG = "AESCrypt";//AESCrypt-ObjC uses CBC and PKCS7Padding
-    private static final String AES_MODE = "AES/CBC/PKCS7Padding";
-    private static final String CHARSET = "UTF-8";//AESCrypt-ObjC uses SHA-256 (and so a 256-bit key)
+    static final String AES_MODE = "AES/CBC/PKCS7Padding";
+    static final String CHARSET = "UTF-8";//AESCrypt-ObjC uses SHA-256 (and so a 256-bit key)
     private static final String HASH_ALGORITHM = "SHA-256";//AESCrypt-ObjC uses blank IV (not the best security, but the aim here is compatibility)
-    private static final byte[] ivBytes = {0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00};//togglable log option (please turn off in live!)
+    static final byte[] ivBytes = {0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00};//togglable log option (please turn off in live!)
     public static boolean DEBUG_LOG_ENABLED = false;
 
     /**
@@ -31,7 +31,7 @@ public final class AESCrypt {
      * @param password used to generated key
      * @return SHA256 of the password
      */
-    private static SecretKeySpec generateKey(final String password) throws NoSuchAlgorithmException, UnsupportedEncodingException {
+    static SecretKeySpec generateKey(final String password) throws NoSuchAlgorithmException, UnsupportedEncodingException {
         final MessageDigest digest = MessageDigest.getInstance(HASH_ALGORITHM);
         byte[] bytes = password.getBytes("UTF-8");
         digest.update(bytes, 0, bytes.length);
@@ -0,0 +1,191 @@
+package com.litepal.util.cipher;
+
+import android.util.Base64;
+
+import java.io.UnsupportedEncodingException;
+import java.security.GeneralSecurityException;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Encrypts and decrypts the same way as {@link AESCrypt#encrypt(String, String)} and
+ * {@link AESCrypt#decrypt(String, String)}, without paying their setup on every value. The key is
+ * derived only once for each password, and each thread keeps its own initialized Cipher
+ * instances, since Cipher is not thread safe. It also computes the blind indexes of encrypted
+ * values with HMAC-SHA256, by a key derived from the AES key.
+ * <p>
+ * Get an engine by {@link #get(String)} on the thread which uses it, and don't hand it over to
+ * other threads.
+ *
+ * @author Tony Green
+ * @since 3.0
+ */
+public final class AESEngine {
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    /**
+     * Mixed into the AES key to derive the key of blind indexes.
+     */
+    private static final String BLIND_INDEX_KEY_INFO = "LitePal blind index";
+    /**
+     * The engine of each thread.
+     */
+    private static final ThreadLocal<AESEngine> engines = new ThreadLocal<AESEngine>();
+    /**
+     * The password which {@link #cachedKey} is derived from.
+     */
+    private static String cachedPassword;
+    /**
+     * The key derived from {@link #cachedPassword}.
+     */
+    private static SecretKeySpec cachedKey;
+
+    /**
+     * The key of this engine.
+     */
+    private final SecretKeySpec key;
+    /**
+     * The Cipher to encrypt, initialized with the key.
+     */
+    private Cipher encryptCipher;
+    /**
+     * The Cipher to decrypt, initialized with the key.
+     */
+    private Cipher decryptCipher;
+    /**
+     * The Mac to compute blind indexes, initialized with the key derived from the key.
+     */
+    private Mac mac;
+
+    private AESEngine(SecretKeySpec key) {
+        this.key = key;
+    }
+
+    /**
+     * Get the engine of current thread for the password.
+     *
+     * @param password Used to generate key.
+     * @return The engine of current thread.
+     * @throws GeneralSecurityException if the key can't be generated.
+     */
+    public static AESEngine get(String password) throws GeneralSecurityException {
+        SecretKeySpec key = getKey(password);
+        AESEngine engine = engines.get();
+        if (engine == null || engine.key != key) {
+            engine = new AESEngine(key);
+            engines.set(engine);
+        }
+        return engine;
+    }
+
+    /**
+     * Encrypt and encode the message.
+     *
+     * @param message The plain text.
+     * @return Base64 encoded cipher text.
+     * @throws GeneralSecurityException if problems occur during encryption.
+     */
+    public String encrypt(String message) throws GeneralSecurityException {
+        if (encryptCipher == null) {
+            encryptCipher = createCipher(Cipher.ENCRYPT_MODE);
+        }
+        try {
+            byte[] cipherText = encryptCipher.doFinal(message.getBytes(AESCrypt.CHARSET));
+            return Base64.encodeToString(cipherText, Base64.NO_WRAP);
+        } catch (UnsupportedEncodingException e) {
+            throw new GeneralSecurityException(e);
+        } catch (GeneralSecurityException e) {
+            // the state of cipher is unknown after a failure, create a new one next time.
+            encryptCipher = null;
+            throw e;
+        }
+    }
+
+    /**
+     * Decode and decrypt the cipher text.
+     *
+     * @param base64EncodedCipherText The cipher text encoded with Base64.
+     * @return The plain text.
+     * @throws GeneralSecurityException if problems occur during decryption.
+     */
+    public String decrypt(String base64EncodedCipherText) throws GeneralSecurityException {
+        if (decryptCipher == null) {
+            decryptCipher = createCipher(Cipher.DECRYPT_MODE);
+        }
+        try {
+            byte[] decodedCipherText = Base64.decode(base64EncodedCipherText, Base64.NO_WRAP);
+            return new String(decryptCipher.doFinal(decodedCipherText), AESCrypt.CHARSET);
+        } catch (UnsupportedEncodingException e) {
+            throw new GeneralSecurityException(e);
+        } catch (GeneralSecurityException e) {
+            decryptCipher = null;
+            throw e;
+        }
+    }
+
+    /**
+     * Compute the blind index of the message, which is the same for the same message and
+     * password, and can't be reversed without the password.
+     *
+     * @param message The plain text.
+     * @return Base64 encoded HMAC-SHA256 of the message.
+     * @throws GeneralSecurityException if problems occur during hashing.
+     */
+    public String hmac(String message) throws GeneralSecurityException {
+        if (mac == null) {
+            mac = createMac();
+        }
+        try {
+            return Base64.encodeToString(mac.doFinal(message.getBytes(AESCrypt.CHARSET)), Base64.NO_WRAP);
+        } catch (UnsupportedEncodingException e) {
+            throw new GeneralSecurityException(e);
+        }
+    }
+
+    /**
+     * Create the Mac for blind indexes. Its key is derived from the AES key instead of reusing
+     * it, so the two never share key material.
+     *
+     * @return The initialized Mac.
+     * @throws GeneralSecurityException if the Mac can't be created.
+     */
+    private Mac createMac() throws GeneralSecurityException {
+        try {
+            Mac derivation = Mac.getInstance(HMAC_ALGORITHM);
+            derivation.init(new SecretKeySpec(key.getEncoded(), HMAC_ALGORITHM));
+            byte[] macKey = derivation.doFinal(BLIND_INDEX_KEY_INFO.getBytes(AESCrypt.CHARSET));
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(macKey, HMAC_ALGORITHM));
+            return mac;
+        } catch (UnsupportedEncodingException e) {
+            throw new GeneralSecurityException(e);
+        }
+    }
+
+    private Cipher createCipher(int mode) throws GeneralSecurityException {
+        Cipher cipher = Cipher.getInstance(AESCrypt.AES_MODE);
+        cipher.init(mode, key, new IvParameterSpec(AESCrypt.ivBytes));
+        return cipher;
+    }
+
+    /**
+     * Get the key of the password. Derive it only when the password is changed.
+     *
+     * @param password Used to generate key.
+     * @return The key.
+     * @throws GeneralSecurityException if the key can't be generated.
+     */
+    private static synchronized SecretKeySpec getKey(String password) throws GeneralSecurityException {
+        if (cachedKey == null || !password.equals(cachedPassword)) {
+            try {
+                cachedKey = AESCrypt.generateKey(password);
+            } catch (UnsupportedEncodingException e) {
+                throw new GeneralSecurityException(e);
+            }
+            cachedPassword = password;
+        }
+        return cachedKey;
+    }
+}
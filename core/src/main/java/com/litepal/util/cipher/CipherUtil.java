@@ -27,13 +27,41 @@ public class CipherUtil {
             return plainText;
         }
         try {
-            return AESCrypt.encrypt(aesKey, plainText);
+            return AESEngine.get(aesKey).encrypt(plainText);
         } catch (Exception e) {
             e.printStackTrace();
         }
         return null;
     }
 
+    /**
+     * Encrypt the plain texts with AES algorithm in place. Works as calling
+     * {@link #aesEncrypt(String)} for each of them, but the engine is only looked up once.
+     *
+     * @param plainTexts The plain texts, which are replaced by the encrypted contents.
+     */
+    public static void aesEncrypt(String[] plainTexts) {
+        AESEngine engine = null;
+        try {
+            engine = AESEngine.get(aesKey);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        for (int i = 0; i < plainTexts.length; i++) {
+            if (!TextUtils.isEmpty(plainTexts[i])) {
+                String result = null;
+                if (engine != null) {
+                    try {
+                        result = engine.encrypt(plainTexts[i]);
+                    } catch (Exception e) {
+                        e.printStackTrace();
+                    }
+                }
+                plainTexts[i] = result;
+            }
+        }
+    }
+
     /**
      * Decrypt the encrypted text with AES algorithm.
      *
@@ -45,7 +73,54 @@ public class CipherUtil {
             return encryptedText;
         }
         try {
-            return AESCrypt.decrypt(aesKey, encryptedText);
+            return AESEngine.get(aesKey).decrypt(encryptedText);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * Decrypt the encrypted texts with AES algorithm in place. Works as calling
+     * {@link #aesDecrypt(String)} for each of them, but the engine is only looked up once.
+     *
+     * @param encryptedTexts The encrypted texts, which are replaced by the plain contents.
+     */
+    public static void aesDecrypt(String[] encryptedTexts) {
+        AESEngine engine = null;
+        try {
+            engine = AESEngine.get(aesKey);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        for (int i = 0; i < encryptedTexts.length; i++) {
+            if (!TextUtils.isEmpty(encryptedTexts[i])) {
+                String result = null;
+                if (engine != null) {
+                    try {
+                        result = engine.decrypt(encryptedTexts[i]);
+                    } catch (Exception e) {
+                        e.printStackTrace();
+                    }
+                }
+                encryptedTexts[i] = result;
+            }
+        }
+    }
+
+    /**
+     * Compute the blind index of the plain text, which is used to find the rows by the values of
+     * an encrypted column without decrypting them.
+     *
+     * @param plainText The plain text.
+     * @return The blind index, or null if the plain text is null.
+     */
+    public static String blindIndex(String plainText) {
+        if (plainText == null) {
+            return null;
+        }
+        try {
+            return AESEngine.get(aesKey).hmac(plainText);
         } catch (Exception e) {
             e.printStackTrace();
         }